@@ -8,84 +8,99 @@ import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
-import android.os.PowerManager;
 import android.util.Log;
 
 public class AggressiveAutoOpenJob extends JobService {
     private static final String TAG = "AggressiveAutoOpenJob";
-    private static final int JOB_ID = 12345;
-    private static String pendingOrderData = null;
     
-    public static void scheduleJob(Context context, String orderData) {
-        pendingOrderData = orderData;
+    /**
+     * One job per order, keyed by its notification id, so a second order
+     * escalating at the same time cannot replace or stop this one. Those ids
+     * start at {@link NotificationIdRegistry#FIRST_ID}, clear of the fixed
+     * outbox job id.
+     */
+    static int jobIdFor(Context context, String orderId) {
+        return OrderNotificationPresenter.get(context).notificationIdFor(orderId);
+    }
+    
+    public static void scheduleJob(Context context, OrderPayload order) {
         
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             JobScheduler jobScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
             
-            JobInfo jobInfo = new JobInfo.Builder(JOB_ID, new ComponentName(context, AggressiveAutoOpenJob.class))
+            int jobId = jobIdFor(context, order.orderId);
+            JobInfo jobInfo = new JobInfo.Builder(jobId, new ComponentName(context, AggressiveAutoOpenJob.class))
                 .setMinimumLatency(0)
                 .setOverrideDeadline(1000)
                 .setRequiredNetworkType(JobInfo.NETWORK_TYPE_NONE)
                 .setPersisted(false)
+                .setExtras(order.toPersistableBundle())
                 .build();
                 
             jobScheduler.schedule(jobInfo);
-            Log.d(TAG, "🚀 Aggressive job scheduled");
+            Log.d(TAG, "🚀 Aggressive job " + jobId + " scheduled for order " + order.orderId);
+        }
+    }
+    
+    /**
+     * Cancels the order's launch job, pending or running. Looked up by its
+     * extras because the order's notification id may already be released.
+     */
+    public static void cancel(Context context, String orderId) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) return;
+        JobScheduler jobScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        for (JobInfo job : jobScheduler.getAllPendingJobs()) {
+            if (!AggressiveAutoOpenJob.class.getName().equals(job.getService().getClassName())) continue;
+            OrderPayload order = OrderPayload.fromPersistableBundle(job.getExtras());
+            if (order != null && orderId.equals(order.orderId)) {
+                jobScheduler.cancel(job.getId());
+                Log.d(TAG, "🛑 Launch job cancelled for order " + orderId);
+            }
         }
     }
     
     @Override
     public boolean onStartJob(JobParameters params) {
+        MainThreadWatchdog.enter(MainThreadWatchdog.COMPONENT_AUTO_OPEN_JOB);
         Log.d(TAG, "🚀 AGGRESSIVE JOB STARTED - FORCING APP OPEN!");
+        OrderPayload order = OrderPayload.fromPersistableBundle(params.getExtras());
+        String orderId = order != null ? order.orderId : null;
+        if (order != null) {
+            OrderTrace.get().mark(order.orderId, OrderTrace.STAGE_JOB_STARTED);
+        }
+        FlightLog.record(FlightRecorder.EVENT_JOB_STARTED, orderId);
         
-        PowerManager powerManager = (PowerManager) getSystemService(POWER_SERVICE);
-        PowerManager.WakeLock wakeLock = powerManager.newWakeLock(
-            PowerManager.PARTIAL_WAKE_LOCK | PowerManager.ACQUIRE_CAUSES_WAKEUP,
-            "EzeyWay:AutoOpen"
+        // Timeout is only a safety net; the scheduler releases it on confirmation.
+        // Null once the order or the hour is out of wake-lock budget.
+        PowerBudgetManager.Lease wakeLock = PowerBudgetManager.acquireWakeLock(
+            this, orderId, "EzeyWay:AutoOpen", LaunchScheduler.DEADLINE_MS + 1000
         );
-        wakeLock.acquire(10000);
         
-        try {
-            for (int i = 0; i < 5; i++) {
-                Intent intent = new Intent(this, MainActivity.class);
-                intent.addFlags(
-                    Intent.FLAG_ACTIVITY_NEW_TASK |
-                    Intent.FLAG_ACTIVITY_CLEAR_TOP |
-                    Intent.FLAG_ACTIVITY_SINGLE_TOP |
-                    Intent.FLAG_ACTIVITY_BROUGHT_TO_FRONT |
-                    Intent.FLAG_ACTIVITY_REORDER_TO_FRONT |
-                    Intent.FLAG_ACTIVITY_NO_ANIMATION
-                );
-                
-                intent.putExtra("forceOpened", true);
-                intent.putExtra("fromJob", true);
-                
-                if (pendingOrderData != null) {
-                    intent.putExtra("orderData", pendingOrderData);
-                }
-                
-                startActivity(intent);
-                Log.d(TAG, "✅ Aggressive launch attempt " + (i + 1));
-                
-                try {
-                    Thread.sleep(200);
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-            
-            Intent overlayIntent = new Intent(this, OverlayService.class);
-            overlayIntent.putExtra("orderId", "999");
-            overlayIntent.putExtra("orderNumber", "JOB-FORCE");
-            overlayIntent.putExtra("amount", "100");
-            startService(overlayIntent);
-            
-        } finally {
-            wakeLock.release();
+        Intent intent = AlertsProcess.mainActivityIntent(this);
+        intent.addFlags(
+            Intent.FLAG_ACTIVITY_NEW_TASK |
+            Intent.FLAG_ACTIVITY_CLEAR_TOP |
+            Intent.FLAG_ACTIVITY_SINGLE_TOP |
+            Intent.FLAG_ACTIVITY_BROUGHT_TO_FRONT |
+            Intent.FLAG_ACTIVITY_REORDER_TO_FRONT |
+            Intent.FLAG_ACTIVITY_NO_ANIMATION
+        );
+        
+        intent.putExtra("forceOpened", true);
+        intent.putExtra("fromJob", true);
+        
+        if (order != null) {
+            intent.putExtra(OrderPayload.EXTRA, order);
         }
         
-        jobFinished(params, false);
-        return false;
+        LaunchScheduler.launch(this, intent, wakeLock, confirmed -> {
+            // 1 when MainActivity confirmed it came to the front
+            FlightLog.record(FlightRecorder.EVENT_JOB_FINISHED, orderId, confirmed ? 1 : 0);
+            jobFinished(params, false);
+        });
+        
+        // Work continues on the main Handler; jobFinished is called from the callback
+        return true;
     }
     
     @Override
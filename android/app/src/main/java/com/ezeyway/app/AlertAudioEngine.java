@@ -0,0 +1,173 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.media.RingtoneManager;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Single owner of the order alarm sound.
+ *
+ * The alarm is prepared once on a dedicated audio thread and kept paused at
+ * position 0 between alerts, so starting it is a plain {@code start()} instead
+ * of a synchronous {@code MediaPlayer.create}. It tracks orders, not the
+ * surfaces showing them: the notification, overlay and alert activity all
+ * start the alert for their order, and the first stop for that order removes
+ * it, since any of them stopping means the vendor has seen it. The sound keeps
+ * looping while any order is ringing and stops with the last one. Alerts
+ * without an order id are ignored, as nothing could ever stop them. After
+ * {@link #IDLE_RELEASE_MS} without alerts the player is released and
+ * re-prepared on the next order.
+ */
+public class AlertAudioEngine {
+    private static final String TAG = "AlertAudioEngine";
+    private static final long IDLE_RELEASE_MS = 10 * 60 * 1000L;
+
+    private static AlertAudioEngine instance;
+
+    private final Context context;
+    private final Handler audioHandler;
+    private final Set<String> activeOrders = new HashSet<>();
+    private final Runnable idleRelease = this::releasePlayer;
+    private MediaPlayer player;
+    private int playersCreated;
+
+    public static synchronized AlertAudioEngine get(Context context) {
+        if (instance == null) {
+            instance = new AlertAudioEngine(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private AlertAudioEngine(Context context) {
+        this.context = context;
+        HandlerThread thread = new HandlerThread("AlertAudio");
+        thread.start();
+        this.audioHandler = new Handler(thread.getLooper());
+    }
+
+    /** Prepares the alarm ahead of time so the next alert starts instantly. */
+    public void preload() {
+        audioHandler.post(() -> {
+            ensurePrepared();
+            if (activeOrders.isEmpty()) {
+                scheduleIdleRelease();
+            }
+        });
+    }
+
+    public void startAlert(String orderId) {
+        if (orderId == null) return;
+        long requestedAt = SystemClock.elapsedRealtime();
+        audioHandler.post(() -> {
+            audioHandler.removeCallbacks(idleRelease);
+            activeOrders.add(orderId);
+            if (!ensurePrepared()) {
+                FlightLog.record(FlightRecorder.EVENT_AUDIO_FAILED, orderId);
+                return;
+            }
+
+            if (!player.isPlaying()) {
+                player.start();
+                FlightLog.record(FlightRecorder.EVENT_AUDIO_STARTED, orderId);
+                Log.d(TAG, "🔊 Alarm started in " + (SystemClock.elapsedRealtime() - requestedAt) + "ms for order " + orderId);
+            }
+        });
+    }
+
+    public void stopAlert(String orderId) {
+        if (orderId == null) return;
+        audioHandler.post(() -> {
+            activeOrders.remove(orderId);
+            if (activeOrders.isEmpty()) {
+                silence();
+            } else {
+                Log.d(TAG, "🔊 Still ringing for " + activeOrders.size() + " pending order(s)");
+            }
+        });
+    }
+
+    public void stopAll() {
+        audioHandler.post(() -> {
+            activeOrders.clear();
+            silence();
+        });
+    }
+
+    /** Drops the prepared player right away unless an alert is ringing. */
+    public void trim() {
+        audioHandler.post(() -> {
+            if (activeOrders.isEmpty()) {
+                releasePlayer();
+            }
+        });
+    }
+
+    /** {@link #trim} without starting the audio thread if the engine was never used. */
+    public static synchronized void trimIfLoaded() {
+        if (instance != null) {
+            instance.trim();
+        }
+    }
+
+    public int getPlayersCreated() {
+        return playersCreated;
+    }
+
+    private boolean ensurePrepared() {
+        if (player != null) return true;
+
+        try {
+            Uri alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
+            if (alarmUri == null) {
+                alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
+            }
+            MediaPlayer created = new MediaPlayer();
+            created.setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_ALARM)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build());
+            created.setDataSource(context, alarmUri);
+            created.setLooping(true);
+            created.prepare();
+            player = created;
+            playersCreated++;
+            Log.d(TAG, "🎵 Alarm prepared");
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to prepare alarm: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void silence() {
+        if (player != null && player.isPlaying()) {
+            player.pause();
+            player.seekTo(0);
+            Log.d(TAG, "🔇 Ringing stopped");
+            FlightLog.record(FlightRecorder.EVENT_AUDIO_STOPPED, null);
+        }
+        scheduleIdleRelease();
+    }
+
+    private void scheduleIdleRelease() {
+        audioHandler.removeCallbacks(idleRelease);
+        audioHandler.postDelayed(idleRelease, IDLE_RELEASE_MS);
+    }
+
+    private void releasePlayer() {
+        audioHandler.removeCallbacks(idleRelease);
+        if (player != null) {
+            player.release();
+            player = null;
+            Log.d(TAG, "🧹 Alarm player released");
+        }
+    }
+}
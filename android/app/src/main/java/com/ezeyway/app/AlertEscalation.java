@@ -0,0 +1,192 @@
+package com.ezeyway.app;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-order alert escalation state.
+ *
+ * Every order starts at the cheapest tier (notification and sound). Each
+ * further tier has a deadline measured from arrival, and is due only while
+ * the order is still unseen. If several deadlines have passed by the time
+ * {@link #due} is checked (a late alarm), only the highest one fires, so a
+ * delayed wakeup never stacks a full-screen alert, an overlay and a launch on
+ * top of each other. Marking an order seen cancels every tier still pending.
+ *
+ * Times are in whatever monotonic clock the caller uses.
+ */
+public final class AlertEscalation {
+    public static final int TIER_NOTIFY = 0;
+    public static final int TIER_FULL_SCREEN = 1;
+    public static final int TIER_OVERLAY = 2;
+    public static final int TIER_LAUNCH = 3;
+
+    static final String[] TIER_NAMES = {"notify", "fullScreen", "overlay", "launch"};
+    public static final long[] DEFAULT_DEADLINES_MS = {0, 15_000, 45_000, 90_000};
+    private static final int MAX_TRACKED = 200;
+
+    public static final class Due {
+        public final String orderId;
+        public final int tier;
+
+        Due(String orderId, int tier) {
+            this.orderId = orderId;
+            this.tier = tier;
+        }
+    }
+
+    private static final class State {
+        final long arrivedAt;
+        int tier;
+
+        State(long arrivedAt, int tier) {
+            this.arrivedAt = arrivedAt;
+            this.tier = tier;
+        }
+    }
+
+    private final LinkedHashMap<String, State> orders = new LinkedHashMap<>();
+    private long[] deadlinesMs;
+
+    private final long[] fired = new long[TIER_NAMES.length];
+    private final long[] seenAtTier = new long[TIER_NAMES.length];
+    private long seenCount;
+    private long seenTotalMs;
+    private long seenMaxMs;
+
+    public AlertEscalation(long[] deadlinesMs) {
+        setDeadlines(deadlinesMs);
+    }
+
+    /**
+     * @param deadlinesMs one per tier, from arrival; the first must be 0 and
+     *                    the rest non-decreasing
+     */
+    public synchronized void setDeadlines(long[] deadlinesMs) {
+        if (deadlinesMs.length != TIER_NAMES.length || deadlinesMs[0] != 0) {
+            throw new IllegalArgumentException("Need " + TIER_NAMES.length + " deadlines starting at 0");
+        }
+        for (int i = 1; i < deadlinesMs.length; i++) {
+            if (deadlinesMs[i] < deadlinesMs[i - 1]) {
+                throw new IllegalArgumentException("Deadlines must not decrease");
+            }
+        }
+        this.deadlinesMs = deadlinesMs.clone();
+    }
+
+    public synchronized long[] getDeadlines() {
+        return deadlinesMs.clone();
+    }
+
+    /** @return true if the order is new and its first tier should fire now */
+    public synchronized boolean start(String orderId, long now) {
+        if (orders.containsKey(orderId)) return false;
+        orders.put(orderId, new State(now, TIER_NOTIFY));
+        fired[TIER_NOTIFY]++;
+        trim();
+        return true;
+    }
+
+    /**
+     * Re-tracks an order whose state was lost with the process, treating
+     * every tier whose deadline has already passed as fired.
+     */
+    public synchronized void restore(String orderId, long arrivedAt, long now) {
+        if (orders.containsKey(orderId)) return;
+        int tier = TIER_NOTIFY;
+        while (tier + 1 < deadlinesMs.length && arrivedAt + deadlinesMs[tier + 1] <= now) {
+            tier++;
+        }
+        orders.put(orderId, new State(arrivedAt, tier));
+        trim();
+    }
+
+    /** Tiers that are due at {@code now}, which are recorded as fired. */
+    public synchronized List<Due> due(long now) {
+        List<Due> due = new ArrayList<>();
+        for (Map.Entry<String, State> entry : orders.entrySet()) {
+            State state = entry.getValue();
+            int tier = state.tier;
+            while (tier + 1 < deadlinesMs.length && state.arrivedAt + deadlinesMs[tier + 1] <= now) {
+                tier++;
+            }
+            if (tier != state.tier) {
+                state.tier = tier;
+                fired[tier]++;
+                due.add(new Due(entry.getKey(), tier));
+            }
+        }
+        return due;
+    }
+
+    /** @return the earliest pending deadline, or -1 if nothing will escalate */
+    public synchronized long nextDeadline() {
+        long next = -1;
+        for (State state : orders.values()) {
+            if (state.tier + 1 >= deadlinesMs.length) continue;
+            long at = state.arrivedAt + deadlinesMs[state.tier + 1];
+            if (next < 0 || at < next) next = at;
+        }
+        return next;
+    }
+
+    /** @return the order whose deadline {@link #nextDeadline} is, or null */
+    public synchronized String nextDeadlineOrderId() {
+        String orderId = null;
+        long next = -1;
+        for (Map.Entry<String, State> entry : orders.entrySet()) {
+            State state = entry.getValue();
+            if (state.tier + 1 >= deadlinesMs.length) continue;
+            long at = state.arrivedAt + deadlinesMs[state.tier + 1];
+            if (next < 0 || at < next) {
+                next = at;
+                orderId = entry.getKey();
+            }
+        }
+        return orderId;
+    }
+
+    /** @return the tier the order had reached, or -1 if it was not being escalated */
+    public synchronized int markSeen(String orderId, long now) {
+        State state = orders.remove(orderId);
+        if (state == null) return -1;
+        long elapsed = Math.max(0, now - state.arrivedAt);
+        seenAtTier[state.tier]++;
+        seenCount++;
+        seenTotalMs += elapsed;
+        if (elapsed > seenMaxMs) seenMaxMs = elapsed;
+        return state.tier;
+    }
+
+    private void trim() {
+        // Orders nobody ever looks at must not pile up forever
+        Iterator<String> it = orders.keySet().iterator();
+        while (orders.size() > MAX_TRACKED && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder("{\"unseen\":").append(orders.size());
+        sb.append(",\"deadlinesMs\":[");
+        for (int i = 0; i < deadlinesMs.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(deadlinesMs[i]);
+        }
+        sb.append("],\"tiers\":{");
+        for (int i = 0; i < TIER_NAMES.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(TIER_NAMES[i]).append("\":{\"fired\":").append(fired[i])
+              .append(",\"seenAt\":").append(seenAtTier[i]).append('}');
+        }
+        sb.append("},\"seen\":").append(seenCount)
+          .append(",\"meanTimeToSeenMs\":").append(seenCount == 0 ? 0 : seenTotalMs / seenCount)
+          .append(",\"maxTimeToSeenMs\":").append(seenMaxMs)
+          .append('}');
+        return sb.toString();
+    }
+}
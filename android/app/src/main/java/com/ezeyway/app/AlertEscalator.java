@@ -0,0 +1,261 @@
+package com.ezeyway.app;
+
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.util.Log;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single owner of how loudly an order is announced.
+ *
+ * A new order gets the rich notification and alarm sound only. While it stays
+ * unseen it escalates on {@link AlertEscalation}'s deadlines to a full-screen
+ * intent, then the overlay, then a forced app launch. The moment the vendor
+ * sees the order (notification action or tap, overlay, alert activity, the app
+ * opening on it, or the web app acknowledging it) every pending tier is
+ * cancelled and the ringing stops.
+ *
+ * One exact alarm covers the earliest pending deadline across all orders, so
+ * an order storm costs one wakeup per deadline rather than one per order; the
+ * wakeup is charged to that order's power budget. If
+ * the process died in between, orders the inbox does not mark as seen are
+ * restored from it when the alarm fires.
+ */
+public final class AlertEscalator {
+    private static final String TAG = "AlertEscalator";
+    private static final String ACTION_ESCALATE = "com.ezeyway.app.ESCALATE_ALERTS";
+    private static final String PREFS = "alert_escalation";
+    /** Acknowledgements from the overlay itself, which removes its own row. */
+    static final String VIA_OVERLAY = "overlay";
+    private static final String[] DEADLINE_KEYS = {null, "fullScreenMs", "overlayMs", "launchMs"};
+
+    private static AlertEscalation escalation;
+    private static final Map<String, OrderPayload> payloads = new HashMap<>();
+    private static long unavailableTiers;
+    /** False until this process has tracked an order, i.e. state may have died with a previous one. */
+    private static boolean tracking;
+
+    private AlertEscalator() {}
+
+    private static synchronized AlertEscalation escalation(Context context) {
+        if (escalation == null) {
+            SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            long[] deadlines = AlertEscalation.DEFAULT_DEADLINES_MS.clone();
+            for (int tier = 1; tier < deadlines.length; tier++) {
+                deadlines[tier] = prefs.getLong(DEADLINE_KEYS[tier], deadlines[tier]);
+            }
+            try {
+                escalation = new AlertEscalation(deadlines);
+            } catch (IllegalArgumentException e) {
+                escalation = new AlertEscalation(AlertEscalation.DEFAULT_DEADLINES_MS);
+            }
+        }
+        return escalation;
+    }
+
+    /** Announces a new order at the cheapest tier and arms its escalation. */
+    public static void start(Context context, OrderPayload order) {
+        Context appContext = context.getApplicationContext();
+        synchronized (AlertEscalator.class) {
+            if (!escalation(appContext).start(order.orderId, SystemClock.elapsedRealtime())) return;
+            payloads.put(order.orderId, order);
+            tracking = true;
+        }
+
+        FlightLog.record(FlightRecorder.EVENT_ESCALATED, order.orderId, AlertEscalation.TIER_NOTIFY);
+
+        // Rich notification with Accept/Reject buttons, plus the alarm sound
+        RichOrderNotification.showRichNotification(appContext, order);
+        scheduleNext(appContext);
+    }
+
+    /** The vendor has seen the order; cancels every tier still pending. */
+    public static void acknowledge(Context context, String orderId, String via) {
+        if (orderId == null) return;
+        Context appContext = context.getApplicationContext();
+        PowerBudgetManager.releaseOrder(orderId);
+        int tier;
+        synchronized (AlertEscalator.class) {
+            tier = escalation(appContext).markSeen(orderId, SystemClock.elapsedRealtime());
+            payloads.remove(orderId);
+        }
+        // Outlives this process, so a restore after a restart does not ring it again
+        OrderIngestion.getInbox(appContext).markSeen(orderId);
+        if (tier < 0) return;
+        FlightLog.record(FlightRecorder.EVENT_ACKNOWLEDGED, orderId, tier);
+
+        Log.d(TAG, "👀 Order " + orderId + " seen via " + via + " at tier " + AlertEscalation.TIER_NAMES[tier]);
+        AlertAudioEngine.get(appContext).stopAlert(orderId);
+        if (tier >= AlertEscalation.TIER_OVERLAY && !VIA_OVERLAY.equals(via)) {
+            Intent dismiss = new Intent(appContext, OverlayService.class);
+            dismiss.setAction(OverlayService.ACTION_REMOVE_ORDER);
+            dismiss.putExtra("orderId", orderId);
+            startServiceQuietly(appContext, dismiss);
+        }
+        if (tier >= AlertEscalation.TIER_LAUNCH) {
+            AggressiveAutoOpenJob.cancel(appContext, orderId);
+        }
+        scheduleNext(appContext);
+    }
+
+    /** Full-screen, overlay and launch deadlines, measured from arrival. */
+    public static void setDeadlines(Context context, long fullScreenMs, long overlayMs, long launchMs) {
+        long[] deadlines = {0, fullScreenMs, overlayMs, launchMs};
+        Context appContext = context.getApplicationContext();
+        synchronized (AlertEscalator.class) {
+            escalation(appContext).setDeadlines(deadlines);
+        }
+        SharedPreferences.Editor editor = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit();
+        for (int tier = 1; tier < deadlines.length; tier++) {
+            editor.putLong(DEADLINE_KEYS[tier], deadlines[tier]);
+        }
+        editor.apply();
+        scheduleNext(appContext);
+    }
+
+    public static synchronized String statsJson(Context context) {
+        String json = escalation(context.getApplicationContext()).toJson();
+        return json.substring(0, json.length() - 1) + ",\"unavailableTiers\":" + unavailableTiers + "}";
+    }
+
+    private static void onAlarm(Context context) {
+        long now = SystemClock.elapsedRealtime();
+        List<AlertEscalation.Due> due;
+        Map<String, OrderPayload> orders;
+        synchronized (AlertEscalator.class) {
+            AlertEscalation state = escalation(context);
+            if (!tracking) {
+                restoreFromInbox(context, state, now);
+                tracking = true;
+            }
+            due = state.due(now);
+            orders = new HashMap<>(payloads);
+        }
+
+        for (AlertEscalation.Due entry : due) {
+            OrderPayload order = orders.get(entry.orderId);
+            if (order != null) {
+                fire(context, order, entry.tier);
+            }
+        }
+        scheduleNext(context);
+    }
+
+    private static void restoreFromInbox(Context context, AlertEscalation state, long now) {
+        long wallNow = System.currentTimeMillis();
+        long window = state.getDeadlines()[AlertEscalation.TIER_LAUNCH];
+        OrderInbox.Page page = OrderIngestion.getInbox(context).page(0, Integer.MAX_VALUE);
+        for (OrderInbox.Entry entry : page.entries) {
+            long age = wallNow - entry.event.receivedAt;
+            if (entry.seen || age < 0 || age > window) continue;
+            state.restore(entry.event.orderId, now - age, now);
+            payloads.put(entry.event.orderId, entry.event);
+        }
+    }
+
+    private static void fire(Context context, OrderPayload order, int tier) {
+        boolean inForeground = AlertsProcess.isAppInFront();
+        switch (tier) {
+            case AlertEscalation.TIER_FULL_SCREEN:
+                if (!inForeground) {
+                    // The vendor is likely to open the app from here on; have its WebView ready
+                    context.sendBroadcast(AlertsProcess.webViewPrewarmIntent(context));
+                }
+                if (canUseFullScreenIntent(context)) {
+                    Intent alert = new Intent(context, OrderAlertActivity.class);
+                    alert.putExtra(OrderPayload.EXTRA, order);
+                    OrderNotificationPresenter presenter = OrderNotificationPresenter.get(context);
+                    PendingIntent fullScreen = PendingIntent.getActivity(
+                        context, presenter.notificationIdFor(order.orderId), alert,
+                        PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+                    );
+                    presenter.escalate(order.orderId, fullScreen);
+                    break;
+                }
+                unavailable(order, tier, "full-screen intents not allowed");
+                return;
+            case AlertEscalation.TIER_OVERLAY:
+                if (inForeground) {
+                    unavailable(order, tier, "app already in front");
+                    return;
+                }
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && !Settings.canDrawOverlays(context)) {
+                    unavailable(order, tier, "no overlay permission");
+                    return;
+                }
+                Intent overlay = new Intent(context, OverlayService.class);
+                overlay.putExtra(OrderPayload.EXTRA, order);
+                startServiceQuietly(context, overlay);
+                break;
+            case AlertEscalation.TIER_LAUNCH:
+                if (inForeground) {
+                    unavailable(order, tier, "app already in front");
+                    return;
+                }
+                AggressiveAutoOpenJob.scheduleJob(context, order);
+                break;
+            default:
+                return;
+        }
+        Log.d(TAG, "📈 Order " + order.orderId + " escalated to " + AlertEscalation.TIER_NAMES[tier]);
+        FlightLog.record(FlightRecorder.EVENT_ESCALATED, order.orderId, tier);
+    }
+
+    private static void unavailable(OrderPayload order, int tier, String reason) {
+        synchronized (AlertEscalator.class) {
+            unavailableTiers++;
+        }
+        Log.d(TAG, "⏭️ Skipping " + AlertEscalation.TIER_NAMES[tier] + " for order " + order.orderId + ": " + reason);
+    }
+
+    private static boolean canUseFullScreenIntent(Context context) {
+        if (Build.VERSION.SDK_INT < 34) return true;
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        return manager.canUseFullScreenIntent();
+    }
+
+    private static void startServiceQuietly(Context context, Intent intent) {
+        try {
+            context.startService(intent);
+        } catch (IllegalStateException e) {
+            // Background start not allowed right now; the next tier still applies
+            Log.w(TAG, "⚠️ Could not start " + intent.getComponent() + ": " + e.getMessage());
+        }
+    }
+
+    private static void scheduleNext(Context context) {
+        long next;
+        String orderId;
+        synchronized (AlertEscalator.class) {
+            AlertEscalation state = escalation(context);
+            next = state.nextDeadline();
+            orderId = state.nextDeadlineOrderId();
+        }
+
+        Intent intent = new Intent(context, EscalationReceiver.class).setAction(ACTION_ESCALATE);
+        if (next < 0) {
+            PowerBudgetManager.cancelWakeup(context, intent, 0);
+            return;
+        }
+        PowerBudgetManager.scheduleWakeup(context, orderId, next, intent, 0);
+    }
+
+    public static class EscalationReceiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (ACTION_ESCALATE.equals(intent.getAction())) {
+                PowerBudgetManager.onWakeupDelivered(context, intent);
+                onAlarm(context.getApplicationContext());
+            }
+        }
+    }
+}
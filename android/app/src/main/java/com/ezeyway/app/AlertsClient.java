@@ -0,0 +1,106 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * UI-process side of the hand-off to the {@code :alerts} process.
+ *
+ * Calls that return data are synchronous and must stay off the main thread;
+ * notifications about the UI (in front, order seen, trace marks) are sent in
+ * order on a single background thread. A call that fails because the alerts
+ * process is gone or restarting is logged and reported as a null result.
+ */
+public final class AlertsClient {
+    private static final String TAG = "AlertsClient";
+
+    private static final ExecutorService sender = Executors.newSingleThreadExecutor(
+        r -> new Thread(r, "alerts-ipc"));
+
+    private AlertsClient() {}
+
+    static Uri uri(Context context) {
+        return Uri.parse("content://" + context.getPackageName() + ".alerts");
+    }
+
+    private static Bundle call(Context context, String method, String arg, Bundle extras) {
+        try {
+            return context.getContentResolver().call(uri(context), method, arg, extras);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "⚠️ " + method + " failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void send(Context context, String method, String arg, Bundle extras) {
+        Context appContext = context.getApplicationContext();
+        sender.execute(() -> call(appContext, method, arg, extras));
+    }
+
+    /** The vendor's auth token, or null once logged out; the alerts process keeps its own copy. */
+    public static void setSession(Context context, String token) {
+        send(context, AlertsProvider.METHOD_SET_SESSION, token, null);
+    }
+
+    /** One page of the order inbox; null if the alerts process could not be reached. */
+    public static Bundle inboxPage(Context context, long cursor, int limit) {
+        Bundle extras = new Bundle();
+        extras.putLong(AlertsProvider.KEY_CURSOR, cursor);
+        extras.putInt(AlertsProvider.KEY_LIMIT, limit);
+        return call(context, AlertsProvider.METHOD_INBOX_PAGE, null, extras);
+    }
+
+    /** The order was handled: stops its alerts and removes it from the inbox. */
+    public static int ack(Context context, String orderId, String via) {
+        Bundle extras = new Bundle();
+        extras.putString(AlertsProvider.KEY_VIA, via);
+        Bundle result = call(context, AlertsProvider.METHOD_ACK, orderId, extras);
+        return result != null ? result.getInt(AlertsProvider.KEY_REMOVED) : -1;
+    }
+
+    /** The order was seen: stops its alerts but keeps it in the inbox. */
+    public static void seen(Context context, String orderId, String via) {
+        Bundle extras = new Bundle();
+        extras.putString(AlertsProvider.KEY_VIA, via);
+        send(context, AlertsProvider.METHOD_SEEN, orderId, extras);
+    }
+
+    public static void setAppInFront(Context context, boolean inFront) {
+        Bundle extras = new Bundle();
+        extras.putBoolean(AlertsProvider.KEY_IN_FRONT, inFront);
+        send(context, AlertsProvider.METHOD_APP_IN_FRONT, null, extras);
+    }
+
+    /** @return null on success, otherwise why the deadlines were rejected */
+    public static String setEscalationDeadlines(Context context, long fullScreenMs, long overlayMs, long launchMs) {
+        Bundle extras = new Bundle();
+        extras.putLongArray(AlertsProvider.KEY_DEADLINES, new long[] {fullScreenMs, overlayMs, launchMs});
+        Bundle result = call(context, AlertsProvider.METHOD_SET_DEADLINES, null, extras);
+        if (result == null) return "Alerts process unavailable";
+        return result.getString(AlertsProvider.KEY_ERROR);
+    }
+
+    /** Records an {@link OrderTrace} stage in the alerts process, where the order's other stages are. */
+    public static void trace(Context context, String orderId, int stage) {
+        Bundle extras = new Bundle();
+        extras.putInt(AlertsProvider.KEY_STAGE, stage);
+        // CLOCK_MONOTONIC, so comparable across processes
+        extras.putLong(AlertsProvider.KEY_NANO_TIME, System.nanoTime());
+        send(context, AlertsProvider.METHOD_TRACE, orderId, extras);
+    }
+
+    /** A stats report from the alerts process as JSON, or {@code "null"}. */
+    public static String stats(Context context, String name) {
+        return stats(context, name, null);
+    }
+
+    public static String stats(Context context, String name, Bundle extras) {
+        Bundle result = call(context, AlertsProvider.METHOD_STATS, name, extras);
+        String json = result != null ? result.getString(AlertsProvider.KEY_JSON) : null;
+        return json != null ? json : "null";
+    }
+}
@@ -0,0 +1,119 @@
+package com.ezeyway.app;
+
+import android.app.ActivityManager;
+import android.app.Application;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Debug;
+import android.os.Process;
+import android.os.SystemClock;
+import java.util.List;
+
+/**
+ * The {@code :alerts} process: FCM, the order socket, notifications, the alarm
+ * sound, the overlay, escalation and the auto-open job run here, without
+ * Capacitor or a WebView loaded. The UI process talks to it only through
+ * {@link AlertsProvider}.
+ *
+ * Code on the alert path must not reference {@code MainActivity.class}: that
+ * loads BridgeActivity and with it Capacitor. {@link #mainActivityIntent}
+ * names the activity instead.
+ *
+ * Also keeps the cold-wake numbers for this process: process start to
+ * Application created, to first order message, and to first notification
+ * posted, plus PSS at that point.
+ */
+public final class AlertsProcess {
+    static final String SUFFIX = ":alerts";
+    private static final String MAIN_ACTIVITY = "com.ezeyway.app.MainActivity";
+    private static final String WEBVIEW_PREWARMER = "com.ezeyway.app.WebViewPrewarmer$Receiver";
+
+    private static Boolean current;
+    private static volatile boolean appInFront;
+
+    private static long processStartMs;
+    private static long applicationCreatedMs = -1;
+    private static long firstMessageMs = -1;
+    private static long firstAlertMs = -1;
+    private static long pssAtFirstAlertKb = -1;
+
+    private AlertsProcess() {}
+
+    public static synchronized boolean isCurrent(Context context) {
+        if (current == null) {
+            String name = processName(context);
+            current = name != null && name.endsWith(SUFFIX);
+        }
+        return current;
+    }
+
+    private static String processName(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return Application.getProcessName();
+        }
+        ActivityManager manager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        List<ActivityManager.RunningAppProcessInfo> processes = manager.getRunningAppProcesses();
+        if (processes == null) return null;
+        int pid = Process.myPid();
+        for (ActivityManager.RunningAppProcessInfo info : processes) {
+            if (info.pid == pid) return info.processName;
+        }
+        return null;
+    }
+
+    /** An intent for MainActivity that does not load its class. */
+    public static Intent mainActivityIntent(Context context) {
+        return new Intent().setClassName(context.getPackageName(), MAIN_ACTIVITY);
+    }
+
+    /** A broadcast that warms the UI process's WebView engine, without loading WebView here. */
+    public static Intent webViewPrewarmIntent(Context context) {
+        return new Intent().setClassName(context.getPackageName(), WEBVIEW_PREWARMER);
+    }
+
+    /** Reported by MainActivity over IPC; louder tiers are pointless while it is in front. */
+    static void setAppInFront(boolean inFront) {
+        appInFront = inFront;
+    }
+
+    public static boolean isAppInFront() {
+        return appInFront;
+    }
+
+    static synchronized void onApplicationCreated() {
+        processStartMs = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+            ? Process.getStartElapsedRealtime()
+            : SystemClock.elapsedRealtime();
+        applicationCreatedMs = SystemClock.elapsedRealtime() - processStartMs;
+    }
+
+    static synchronized void onMessageReceived() {
+        if (firstMessageMs < 0 && applicationCreatedMs >= 0) {
+            firstMessageMs = SystemClock.elapsedRealtime() - processStartMs;
+        }
+    }
+
+    /** Called when a notification is posted; only the first one per process is measured. */
+    static void onAlertPosted() {
+        synchronized (AlertsProcess.class) {
+            if (firstAlertMs >= 0 || applicationCreatedMs < 0) return;
+            firstAlertMs = SystemClock.elapsedRealtime() - processStartMs;
+        }
+        long pss = Debug.getPss();
+        synchronized (AlertsProcess.class) {
+            pssAtFirstAlertKb = pss;
+        }
+    }
+
+    public static synchronized String statsJson() {
+        return "{\"pid\":" + Process.myPid()
+            + ",\"uptimeMs\":" + (SystemClock.elapsedRealtime() - processStartMs)
+            + ",\"applicationCreatedMs\":" + applicationCreatedMs
+            + ",\"firstMessageMs\":" + firstMessageMs
+            + ",\"firstAlertMs\":" + firstAlertMs
+            + ",\"pssAtFirstAlertKb\":" + pssAtFirstAlertKb
+            + ",\"pssKb\":" + Debug.getPss()
+            + ",\"appInFront\":" + appInFront + "}";
+    }
+}
@@ -0,0 +1,174 @@
+package com.ezeyway.app;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * IPC entry point of the {@code :alerts} process, used by {@link AlertsClient}
+ * from the UI process.
+ *
+ * Only {@link #call} is implemented: one synchronous binder transaction per
+ * request, with a Bundle each way, which is all the hand-off needs and far
+ * cheaper to bring up than a bound service. The provider is not exported, so
+ * only this app can call it.
+ */
+public class AlertsProvider extends ContentProvider {
+    private static final String TAG = "AlertsProvider";
+
+    static final String METHOD_INBOX_PAGE = "inboxPage";
+    static final String METHOD_ACK = "ack";
+    static final String METHOD_SEEN = "seen";
+    static final String METHOD_APP_IN_FRONT = "appInFront";
+    static final String METHOD_SET_DEADLINES = "setDeadlines";
+    static final String METHOD_TRACE = "trace";
+    static final String METHOD_STATS = "stats";
+    static final String METHOD_SET_SESSION = "setSession";
+
+    static final String STATS_ALERTS_PROCESS = "alertsProcess";
+    static final String STATS_ALERT_LATENCY = "alertLatency";
+    static final String STATS_ESCALATION = "escalation";
+    static final String STATS_LAUNCH = "launch";
+    static final String STATS_MAIN_THREAD = "mainThread";
+    static final String STATS_ORDER_STREAM = "orderStream";
+    static final String STATS_POWER_BUDGET = "powerBudget";
+    static final String STATS_FLIGHT_RECORDER = "flightRecorder";
+    static final String STATS_MEMORY = "memory";
+
+    static final String KEY_CURSOR = "cursor";
+    static final String KEY_LIMIT = "limit";
+    static final String KEY_ORDERS = "orders";
+    static final String KEY_NEXT_CURSOR = "nextCursor";
+    static final String KEY_HAS_MORE = "hasMore";
+    static final String KEY_REMOVED = "removed";
+    static final String KEY_VIA = "via";
+    static final String KEY_IN_FRONT = "inFront";
+    static final String KEY_DEADLINES = "deadlines";
+    static final String KEY_STAGE = "stage";
+    static final String KEY_NANO_TIME = "nanoTime";
+    static final String KEY_JSON = "json";
+    static final String KEY_ERROR = "error";
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public boolean onCreate() {
+        // Runs on every start of the process; keep it free of work
+        return true;
+    }
+
+    @Override
+    public Bundle call(String method, String arg, Bundle extras) {
+        Bundle result = new Bundle();
+        switch (method) {
+            case METHOD_INBOX_PAGE:
+                return inboxPage(extras.getLong(KEY_CURSOR), extras.getInt(KEY_LIMIT));
+            case METHOD_ACK:
+                AlertEscalator.acknowledge(getContext(), arg, extras.getString(KEY_VIA));
+                // Handled in the web app, which is also where overlay and alert-activity accepts end up
+                OrderNotificationPresenter.get(getContext()).dismiss(arg);
+                result.putInt(KEY_REMOVED, OrderIngestion.getInbox(getContext()).ack(arg));
+                return result;
+            case METHOD_SEEN:
+                AlertEscalator.acknowledge(getContext(), arg, extras.getString(KEY_VIA));
+                return result;
+            case METHOD_SET_SESSION:
+                VendorSession.store(getContext(), arg);
+                return result;
+            case METHOD_APP_IN_FRONT:
+                boolean inFront = extras.getBoolean(KEY_IN_FRONT);
+                AlertsProcess.setAppInFront(inFront);
+                if (inFront) {
+                    // Stop any pending launch retries for the order that brought the app up
+                    mainHandler.post(LaunchScheduler::onActivityResumed);
+                }
+                return result;
+            case METHOD_SET_DEADLINES:
+                long[] deadlines = extras.getLongArray(KEY_DEADLINES);
+                try {
+                    AlertEscalator.setDeadlines(getContext(), deadlines[0], deadlines[1], deadlines[2]);
+                } catch (IllegalArgumentException e) {
+                    result.putString(KEY_ERROR, e.getMessage());
+                }
+                return result;
+            case METHOD_TRACE:
+                OrderTrace.get().record(OrderTrace.traceIdFor(arg), extras.getInt(KEY_STAGE), extras.getLong(KEY_NANO_TIME));
+                return result;
+            case METHOD_STATS:
+                result.putString(KEY_JSON, stats(arg, extras));
+                return result;
+            default:
+                Log.w(TAG, "⚠️ Unknown method " + method);
+                return null;
+        }
+    }
+
+    private Bundle inboxPage(long cursor, int limit) {
+        OrderInbox.Page page = OrderIngestion.getInbox(getContext()).page(cursor, limit);
+        JSONArray orders = new JSONArray();
+        Bundle result = new Bundle();
+        try {
+            for (OrderInbox.Entry entry : page.entries) {
+                JSONObject order = entry.event.toJson();
+                order.put("cursor", entry.seq);
+                order.put("seen", entry.seen);
+                orders.put(order);
+            }
+        } catch (JSONException e) {
+            result.putString(KEY_ERROR, "Failed to encode inbox: " + e.getMessage());
+            return result;
+        }
+        result.putString(KEY_ORDERS, orders.toString());
+        result.putLong(KEY_NEXT_CURSOR, page.nextCursor);
+        result.putBoolean(KEY_HAS_MORE, page.hasMore);
+        return result;
+    }
+
+    private String stats(String name, Bundle extras) {
+        switch (name) {
+            case STATS_ALERTS_PROCESS: return AlertsProcess.statsJson();
+            case STATS_ALERT_LATENCY: return OrderTrace.get().toJson();
+            case STATS_ESCALATION: return AlertEscalator.statsJson(getContext());
+            case STATS_LAUNCH: return LaunchScheduler.statsJson();
+            case STATS_MAIN_THREAD: return MainThreadWatchdog.statsJson();
+            case STATS_ORDER_STREAM: return OrderStreamService.statsJson();
+            case STATS_POWER_BUDGET: return PowerBudgetManager.statsJson(getContext());
+            case STATS_MEMORY: return MemoryGovernor.statsJson();
+            case STATS_FLIGHT_RECORDER: return FlightLog.exportJson(extras != null ? extras.getInt(KEY_LIMIT) : 0);
+            default: return null;
+        }
+    }
+
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        return null;
+    }
+
+    @Override
+    public String getType(Uri uri) {
+        return null;
+    }
+
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        return null;
+    }
+
+    @Override
+    public int delete(Uri uri, String selection, String[] selectionArgs) {
+        return 0;
+    }
+
+    @Override
+    public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+        return 0;
+    }
+}
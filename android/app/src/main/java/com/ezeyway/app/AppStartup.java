@@ -0,0 +1,203 @@
+package com.ezeyway.app;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Runs {@link StartupGraph}s on the app's threads and keeps the process's
+ * {@link StartupTimeline}.
+ *
+ * Main-thread tasks run inline when started from the main thread so critical
+ * work still completes inside onCreate. After-first-frame tasks are held until
+ * MainActivity's first draw; a process started only for FCM never draws, so
+ * Application-level graphs must not use that dispatcher.
+ *
+ * Each cold start that reaches interactive is appended, with the app version,
+ * to a short history in SharedPreferences so start-up time can be compared
+ * release over release.
+ */
+public final class AppStartup {
+    private static final String TAG = "AppStartup";
+    private static final String PREFS = "startup_stats";
+    private static final String KEY_HISTORY = "history";
+    private static final int MAX_HISTORY = 20;
+    /** Activity created this long after process start means the process was already warm (e.g. FCM). */
+    private static final long COLD_START_GAP_MS = 2_000;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final ExecutorService background = Executors.newSingleThreadExecutor(
+        r -> new Thread(r, "startup-init"));
+    private static final List<Runnable> afterFirstFrame = new ArrayList<>();
+
+    private static final Executor mainExecutor = command -> {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            command.run();
+        } else {
+            mainHandler.post(command);
+        }
+    };
+
+    private static final Executor afterFirstFrameExecutor = command -> {
+        synchronized (afterFirstFrame) {
+            if (!firstFrameDrawn) {
+                afterFirstFrame.add(command);
+                return;
+            }
+        }
+        mainHandler.post(command);
+    };
+
+    private static volatile StartupTimeline timeline;
+    private static Context appContext;
+    private static boolean firstFrameDrawn;
+    private static boolean firstFrameWatched;
+
+    private AppStartup() {}
+
+    static void onApplicationCreate(Context context) {
+        appContext = context.getApplicationContext();
+        long processStart = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+            ? Process.getStartElapsedRealtime()
+            : SystemClock.elapsedRealtime();
+        timeline = new StartupTimeline(processStart);
+    }
+
+    static StartupTimeline timeline() {
+        if (timeline == null) {
+            // Application subclass not in use (e.g. some test runners)
+            timeline = new StartupTimeline(SystemClock.elapsedRealtime());
+        }
+        return timeline;
+    }
+
+    public static StartupGraph newGraph() {
+        return new StartupGraph(SystemClock::elapsedRealtime, (name, dispatcher, startedAtMs, durationMs, error) -> {
+            timeline().recordTask(name, dispatcher, startedAtMs, durationMs, error != null);
+            if (error != null) {
+                Log.e(TAG, "❌ Startup task " + name + " failed: " + error.getMessage(), error);
+            } else {
+                Log.d(TAG, "⏱️ " + name + " (" + StartupGraph.DISPATCHER_NAMES[dispatcher] + ") took " + durationMs + "ms");
+            }
+        });
+    }
+
+    public static void run(StartupGraph graph) {
+        graph.start(mainExecutor, background, afterFirstFrameExecutor);
+    }
+
+    /** Times a step that must run inline, such as super.onCreate. */
+    public static void measure(String name, Runnable step) {
+        long startedAt = SystemClock.elapsedRealtime();
+        step.run();
+        long duration = SystemClock.elapsedRealtime() - startedAt;
+        timeline().recordTask(name, StartupGraph.ON_MAIN, startedAt, duration, false);
+        Log.d(TAG, "⏱️ " + name + " (main) took " + duration + "ms");
+    }
+
+    public static void markPhase(int phase) {
+        if (timeline().mark(phase, SystemClock.elapsedRealtime())) {
+            Log.d(TAG, "🏁 " + StartupTimeline.PHASE_NAMES[phase] + " at +"
+                + timeline().sinceProcessStart(phase) + "ms");
+        }
+    }
+
+    /** Marks the first frame once the activity's decor view draws. */
+    public static void watchFirstFrame(Activity activity) {
+        if (firstFrameWatched) return;
+        firstFrameWatched = true;
+
+        View decor = activity.getWindow().getDecorView();
+        ViewTreeObserver.OnDrawListener listener = new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                // Listeners can't be removed while dispatching; the frame is
+                // on screen by the time the posted message runs
+                mainHandler.postAtFrontOfQueue(() -> {
+                    decor.getViewTreeObserver().removeOnDrawListener(this);
+                    onFirstFrame();
+                });
+            }
+        };
+        decor.getViewTreeObserver().addOnDrawListener(listener);
+    }
+
+    private static void onFirstFrame() {
+        List<Runnable> deferred;
+        synchronized (afterFirstFrame) {
+            if (firstFrameDrawn) return;
+            firstFrameDrawn = true;
+            deferred = new ArrayList<>(afterFirstFrame);
+            afterFirstFrame.clear();
+        }
+        markPhase(StartupTimeline.PHASE_FIRST_FRAME);
+        for (Runnable command : deferred) {
+            mainHandler.post(command);
+        }
+    }
+
+    /** The web app has attached its order listeners. */
+    public static void markInteractive() {
+        StartupTimeline current = timeline();
+        if (!current.mark(StartupTimeline.PHASE_INTERACTIVE, SystemClock.elapsedRealtime())) return;
+
+        long interactive = current.sinceProcessStart(StartupTimeline.PHASE_INTERACTIVE);
+        Log.d(TAG, "🏁 interactive at +" + interactive + "ms");
+
+        long activityCreated = current.sinceProcessStart(StartupTimeline.PHASE_ACTIVITY_CREATED);
+        long appCreated = current.sinceProcessStart(StartupTimeline.PHASE_APPLICATION_CREATED);
+        if (appContext == null || activityCreated < 0 || activityCreated - appCreated > COLD_START_GAP_MS) {
+            return;
+        }
+        background.execute(() -> recordColdStart(current));
+    }
+
+    private static void recordColdStart(StartupTimeline current) {
+        try {
+            JSONObject entry = new JSONObject();
+            PackageInfo info = appContext.getPackageManager().getPackageInfo(appContext.getPackageName(), 0);
+            entry.put("version", info.versionName);
+            entry.put("sdk", Build.VERSION.SDK_INT);
+            entry.put("at", System.currentTimeMillis());
+            entry.put("firstFrameMs", current.sinceProcessStart(StartupTimeline.PHASE_FIRST_FRAME));
+            entry.put("interactiveMs", current.sinceProcessStart(StartupTimeline.PHASE_INTERACTIVE));
+
+            SharedPreferences prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            JSONArray history = new JSONArray(prefs.getString(KEY_HISTORY, "[]"));
+            JSONArray trimmed = new JSONArray();
+            for (int i = Math.max(0, history.length() - (MAX_HISTORY - 1)); i < history.length(); i++) {
+                trimmed.put(history.get(i));
+            }
+            trimmed.put(entry);
+            prefs.edit().putString(KEY_HISTORY, trimmed.toString()).apply();
+        } catch (JSONException | PackageManager.NameNotFoundException e) {
+            Log.e(TAG, "❌ Failed to record cold start: " + e.getMessage());
+        }
+    }
+
+    public static String statsJson() {
+        String history = "[]";
+        if (appContext != null) {
+            history = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE).getString(KEY_HISTORY, "[]");
+        }
+        return "{\"current\":" + timeline().toJson() + ",\"history\":" + history + "}";
+    }
+}
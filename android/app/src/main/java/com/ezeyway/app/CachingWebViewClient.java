@@ -0,0 +1,170 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+import com.getcapacitor.Bridge;
+import com.getcapacitor.BridgeWebViewClient;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bridge WebView client that answers cacheable GET requests to the API and
+ * media hosts from {@link WebRequestCache}, so repeat launches render catalog
+ * pages without waiting on the network. Any other method sent to a cached URL
+ * invalidates what the cache holds there before the WebView sends it.
+ * Everything else, including the app's own bundle, goes through Capacitor as
+ * before.
+ *
+ * It also serves {@link #IMAGE_PATH} on the app's own origin, where the web
+ * app asks {@link ImagePipeline} for a product photo at its rendered size.
+ *
+ * shouldInterceptRequest is called on WebView's IO threads, so cache reads,
+ * network fetches and image decodes may block here.
+ */
+public class CachingWebViewClient extends BridgeWebViewClient {
+    private static final String TAG = "CachingWebViewClient";
+    private static final long DISK_CACHE_BYTES = 50L * 1024 * 1024;
+    private static final int TIMEOUT_MS = 15000;
+    private static final int MAX_RESPONSE_BYTES = 8 * 1024 * 1024;
+    /** Same-origin route for {@link ImagePipeline}: /_img?src=URL&w=PX[&h=PX] */
+    static final String IMAGE_PATH = "/_img";
+    private static final int MAX_IMAGE_SIZE = 4096;
+
+    private static WebRequestCache cache;
+
+    private final Context context;
+    private final String localHost;
+
+    public CachingWebViewClient(Bridge bridge) {
+        super(bridge);
+        this.context = bridge.getContext().getApplicationContext();
+        this.localHost = Uri.parse(bridge.getLocalUrl()).getHost();
+    }
+
+    public static synchronized WebRequestCache getCache(Context context) {
+        if (cache == null) {
+            File dir = new File(context.getApplicationContext().getCacheDir(), "web_cache");
+            // Revalidations are deduplicated per URL, so the queue stays bounded by what's on screen
+            ThreadPoolExecutor revalidator = new ThreadPoolExecutor(
+                1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+            revalidator.allowCoreThreadTimeOut(true);
+            cache = new WebRequestCache(
+                new DiskLruCache(dir, DISK_CACHE_BYTES),
+                WebCachePolicy.defaults(),
+                WebRequestCache.httpTransport(TIMEOUT_MS, MAX_RESPONSE_BYTES),
+                revalidator,
+                System::currentTimeMillis
+            );
+        }
+        return cache;
+    }
+
+    /** Holds back background refreshes; does nothing if the cache was never used. */
+    static synchronized void setRevalidationPaused(boolean paused) {
+        if (cache != null) {
+            cache.setRevalidationPaused(paused);
+        }
+    }
+
+    @Override
+    public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+        Uri url = request.getUrl();
+        String scheme = url.getScheme();
+        if (localHost.equals(url.getHost()) && IMAGE_PATH.equals(url.getPath())) {
+            return resizedImage(url);
+        }
+        String method = request.getMethod();
+        if (("https".equals(scheme) || "http".equals(scheme)) && !localHost.equals(url.getHost())) {
+            if ("GET".equals(method)) {
+                Map<String, String> headers = request.getRequestHeaders();
+                WebRequestCache.Result result = getCache(context).handle(url.toString(), headers);
+                if (result != null) {
+                    return toResponse(result.entry, WebRequestCache.header(headers, "origin"));
+                }
+            } else if (!"HEAD".equals(method) && !"OPTIONS".equals(method)) {
+                // The page is changing data here, so its next read must not come from before the write
+                getCache(context).invalidate(url.toString());
+            }
+        }
+        return super.shouldInterceptRequest(view, request);
+    }
+
+    private WebResourceResponse resizedImage(Uri url) {
+        String src = url.getQueryParameter("src");
+        int width = parseSize(url.getQueryParameter("w"));
+        int height = parseSize(url.getQueryParameter("h"));
+        if (src == null || !(src.startsWith("https://") || src.startsWith("http://")) || width <= 0) {
+            return errorResponse(400, "Bad Request");
+        }
+
+        ImagePipeline.Image image = ImagePipeline.get(context).load(src, width, height);
+        if (image == null) {
+            // Lets the <img> onerror fallback kick in
+            return errorResponse(404, "Not Found");
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Cache-Control", "max-age=86400");
+        return new WebResourceResponse(image.mimeType, null, 200, "OK", headers, new ByteArrayInputStream(image.data));
+    }
+
+    private static int parseSize(String value) {
+        if (value == null) return 0;
+        try {
+            return Math.min(MAX_IMAGE_SIZE, Math.max(0, Integer.parseInt(value)));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static WebResourceResponse errorResponse(int status, String reason) {
+        return new WebResourceResponse("text/plain", "utf-8", status, reason,
+            new HashMap<>(), new ByteArrayInputStream(new byte[0]));
+    }
+
+    private static WebResourceResponse toResponse(WebCacheEntry entry, String origin) {
+        String contentType = entry.header("content-type");
+        String mimeType = "application/octet-stream";
+        String encoding = null;
+        if (contentType != null) {
+            String[] parts = contentType.split(";");
+            mimeType = parts[0].trim();
+            for (int i = 1; i < parts.length; i++) {
+                String part = parts[i].trim();
+                if (part.regionMatches(true, 0, "charset=", 0, 8)) {
+                    encoding = part.substring(8).replace("\"", "");
+                }
+            }
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, String> header : entry.headers.entrySet()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        // The page's origin differs from the API's, so replayed responses
+        // need CORS headers for fetch() to accept them
+        if (origin != null) {
+            headers.put("Access-Control-Allow-Origin", origin);
+            headers.put("Access-Control-Allow-Credentials", "true");
+            headers.put("Vary", "Origin");
+        } else {
+            headers.put("Access-Control-Allow-Origin", "*");
+        }
+
+        try {
+            return new WebResourceResponse(mimeType, encoding, entry.status,
+                entry.reason.isEmpty() ? "OK" : entry.reason, headers, new ByteArrayInputStream(entry.body));
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "⚠️ Cached response rejected by WebView: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ezeyway.app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-capped, file-per-entry disk cache with least-recently-used eviction.
+ *
+ * Keys are hashed into file names, so any string (usually a URL) can be used.
+ * The access order is rebuilt from file modification times when the cache is
+ * opened and kept in memory afterwards.
+ */
+public class DiskLruCache {
+    private final File dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+
+    public DiskLruCache(File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        load();
+    }
+
+    public synchronized byte[] get(String key) {
+        String name = fileName(key);
+        // get() rather than containsKey() so the entry moves to the recent end
+        if (entries.get(name) == null) return null;
+
+        File file = new File(dir, name);
+        try {
+            byte[] data = readFully(file);
+            file.setLastModified(System.currentTimeMillis());
+            return data;
+        } catch (IOException e) {
+            removeEntry(name);
+            return null;
+        }
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(fileName(key));
+    }
+
+    public synchronized void put(String key, byte[] data) {
+        if (data.length > maxBytes) return;
+
+        String name = fileName(key);
+        File tmp = new File(dir, name + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            out.write(data);
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        removeEntry(name);
+        if (!tmp.renameTo(new File(dir, name))) {
+            tmp.delete();
+            return;
+        }
+        entries.put(name, (long) data.length);
+        size += data.length;
+        trimTo(maxBytes);
+    }
+
+    public synchronized void remove(String key) {
+        removeEntry(fileName(key));
+    }
+
+    public synchronized void trimTo(long targetBytes) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (size > targetBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            new File(dir, eldest.getKey()).delete();
+            size -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public long maxSize() {
+        return maxBytes;
+    }
+
+    private void removeEntry(String name) {
+        Long length = entries.remove(name);
+        if (length != null) {
+            size -= length;
+            new File(dir, name).delete();
+        }
+    }
+
+    private void load() {
+        dir.mkdirs();
+        File[] files = dir.listFiles();
+        if (files == null) return;
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                file.delete();
+                continue;
+            }
+            entries.put(file.getName(), file.length());
+            size += file.length();
+        }
+        trimTo(maxBytes);
+    }
+
+    static String fileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode()) + "_" + key.length();
+        }
+    }
+
+    static byte[] readFully(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < data.length) {
+                int n = in.read(data, offset, data.length - offset);
+                if (n < 0) throw new IOException("Truncated cache file");
+                offset += n;
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ezeyway.app;
+
+/**
+ * Log-scale histogram of main-looper delays, one row per component.
+ *
+ * Buckets double from 1 ms up to 2 s with a final overflow bucket. Recording
+ * only increments preallocated arrays; the JSON report is built on demand.
+ */
+public final class DispatchHistogram {
+    /** Exclusive upper bounds (in ms) of every bucket but the overflow one. */
+    static final int[] BUCKET_BOUNDS_MS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048};
+
+    private final String[] components;
+    private final long[][] buckets;
+    private final long[] counts;
+    private final long[] totalNanos;
+    private final long[] maxNanos;
+
+    public DispatchHistogram(String... components) {
+        this.components = components;
+        this.buckets = new long[components.length][BUCKET_BOUNDS_MS.length + 1];
+        this.counts = new long[components.length];
+        this.totalNanos = new long[components.length];
+        this.maxNanos = new long[components.length];
+    }
+
+    static int bucketFor(long nanos) {
+        long ms = nanos / 1_000_000;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (ms < BUCKET_BOUNDS_MS[i]) return i;
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+
+    public synchronized void record(int component, long nanos) {
+        buckets[component][bucketFor(nanos)]++;
+        counts[component]++;
+        totalNanos[component] += nanos;
+        if (nanos > maxNanos[component]) maxNanos[component] = nanos;
+    }
+
+    public synchronized long count(int component) {
+        return counts[component];
+    }
+
+    public synchronized long bucketCount(int component, int bucket) {
+        return buckets[component][bucket];
+    }
+
+    /** Approximate percentile in ms, reported as the upper bound of the bucket it falls in. */
+    public synchronized long percentileMs(int component, double percentile) {
+        long total = counts[component];
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            seen += buckets[component][i];
+            if (seen >= rank) return BUCKET_BOUNDS_MS[i];
+        }
+        return maxNanos[component] / 1_000_000;
+    }
+
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"bucketsMs\":[");
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(BUCKET_BOUNDS_MS[i]);
+        }
+        sb.append("],\"components\":{");
+        for (int c = 0; c < components.length; c++) {
+            if (c > 0) sb.append(',');
+            sb.append('"').append(components[c]).append("\":{")
+                .append("\"count\":").append(counts[c])
+                .append(",\"totalMs\":").append(totalNanos[c] / 1_000_000)
+                .append(",\"maxMs\":").append(maxNanos[c] / 1_000_000)
+                .append(",\"p50\":").append(percentileMs(c, 0.50))
+                .append(",\"p95\":").append(percentileMs(c, 0.95))
+                .append(",\"p99\":").append(percentileMs(c, 0.99))
+                .append(",\"histogram\":[");
+            for (int i = 0; i < buckets[c].length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(buckets[c][i]);
+            }
+            sb.append("]}");
+        }
+        return sb.append("}}").toString();
+    }
+}
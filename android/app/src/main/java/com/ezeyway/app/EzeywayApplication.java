@@ -0,0 +1,83 @@
+package com.ezeyway.app;
+
+import android.app.Application;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Build;
+import android.util.Log;
+import com.google.firebase.FirebaseApp;
+
+/**
+ * Process-wide start-up. Runs for every process start, including ones where
+ * FCM wakes the app without an activity, so only work every entry point
+ * needs belongs here; activity-only work is scheduled by MainActivity.
+ *
+ * The {@code :alerts} process gets its own, smaller graph: it never shows
+ * the WebView, and Firebase's init provider only runs in the main process.
+ */
+public class EzeywayApplication extends Application {
+    private static final String TAG = "EzeywayApplication";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        AppStartup.onApplicationCreate(this);
+
+        if (AlertsProcess.isCurrent(this)) {
+            onCreateAlertsProcess();
+            return;
+        }
+
+        AppStartup.run(AppStartup.newGraph()
+            // Record native events from here on, crashes included
+            .add("flightRecorder", StartupGraph.ON_MAIN, 110, () -> FlightLog.init(this))
+            // Capture stalls from the rest of start-up
+            .add("mainThreadWatchdog", StartupGraph.ON_MAIN, 100, MainThreadWatchdog::install)
+            // Notifications posted from the alerts process use it, but the user may open the app first.
+            // On the main thread: a single binder call, and nothing may post before it exists
+            .add("orderChannel", StartupGraph.ON_MAIN, 90, () -> createOrderChannel(this))
+            // Trim caches before the OS has to kill us for memory
+            .add("memoryGovernor", StartupGraph.ON_MAIN, 80, () -> MemoryGovernor.install(this))
+            // The alerts process needs the vendor token for order actions and the order socket
+            .add("vendorSession", StartupGraph.IN_BACKGROUND, 60, () -> VendorSession.install(this)));
+
+        AppStartup.markPhase(StartupTimeline.PHASE_APPLICATION_CREATED);
+    }
+
+    private void onCreateAlertsProcess() {
+        AppStartup.run(AppStartup.newGraph()
+            .add("flightRecorder", StartupGraph.ON_MAIN, 110, () -> FlightLog.init(this))
+            .add("mainThreadWatchdog", StartupGraph.ON_MAIN, 100, MainThreadWatchdog::install)
+            // FCM delivers the message right after this returns
+            .add("firebase", StartupGraph.ON_MAIN, 95, () -> FirebaseApp.initializeApp(this))
+            // Must exist before the first order notification is posted, which FCM can do
+            // as soon as this returns, so it cannot wait for a background thread
+            .add("orderChannel", StartupGraph.ON_MAIN, 90, () -> createOrderChannel(this))
+            .add("memoryGovernor", StartupGraph.ON_MAIN, 80, () -> MemoryGovernor.install(this))
+            // A cold FCM wake is about to ring; prepare the alarm on its own thread now
+            .add("alertAudio", StartupGraph.IN_BACKGROUND, 70, () -> AlertAudioEngine.get(this).preload())
+            // Read the order inbox log off the main thread before anyone asks for it
+            .add("orderInbox", StartupGraph.IN_BACKGROUND, 50, () -> OrderIngestion.getInbox(this)));
+
+        AlertsProcess.onApplicationCreated();
+        Log.d(TAG, "🔔 Alerts process started");
+    }
+
+    static void createOrderChannel(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                "order_notifications",
+                "Order Notifications",
+                NotificationManager.IMPORTANCE_HIGH
+            );
+            channel.setDescription("Notifications for new orders");
+            channel.enableVibration(true);
+            channel.setShowBadge(true);
+
+            NotificationManager manager = context.getSystemService(NotificationManager.class);
+            manager.createNotificationChannel(channel);
+            Log.d(TAG, "✅ Notification channel created");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.os.Looper;
+import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Process-wide {@link FlightRecorder} over a memory-mapped file in the app's
+ * files dir.
+ *
+ * The mapping is shared with the kernel page cache, so records written just
+ * before the process is killed or crashes are still in the file on the next
+ * start. {@link #record} is a no-op until {@link #init} has run, and never
+ * throws, so it can be dropped into any hot path.
+ */
+public final class FlightLog {
+    private static final String TAG = "FlightLog";
+    private static final String FILE_NAME = "flight_recorder.bin";
+    private static final String ALERTS_FILE_NAME = "flight_recorder_alerts.bin";
+    private static final int CAPACITY = 4096;
+    private static final int DEFAULT_EXPORT = 1000;
+
+    private static volatile FlightRecorder recorder;
+
+    private FlightLog() {}
+
+    public static synchronized void init(Context context) {
+        if (recorder != null) return;
+
+        // One file per process; two writers cannot share a ring
+        File file = new File(context.getApplicationContext().getFilesDir(),
+            AlertsProcess.isCurrent(context) ? ALERTS_FILE_NAME : FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FlightRecorder.sizeFor(CAPACITY));
+            recorder = new FlightRecorder(buffer);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "❌ Flight recorder unavailable: " + e.getMessage());
+            return;
+        }
+
+        record(FlightRecorder.EVENT_PROCESS_STARTED, null, android.os.Process.myPid());
+        installCrashHandler();
+        Log.d(TAG, "✈️ Flight recorder mapped: " + file.getPath());
+    }
+
+    public static void record(int event, String orderId, int arg) {
+        FlightRecorder target = recorder;
+        if (target != null) {
+            target.record(event, orderId, arg, System.currentTimeMillis());
+        }
+    }
+
+    public static void record(int event, String orderId) {
+        record(event, orderId, 0);
+    }
+
+    /** The recent window as JSON, oldest record first. */
+    public static String exportJson(int limit) {
+        FlightRecorder target = recorder;
+        JSONObject out = new JSONObject();
+        try {
+            out.put("available", target != null);
+            if (target != null) {
+                out.put("capacity", target.capacity());
+                out.put("records", target.export(limit > 0 ? limit : DEFAULT_EXPORT));
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Flight recorder export failed: " + e.getMessage());
+        }
+        return out.toString();
+    }
+
+    private static void installCrashHandler() {
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, error) -> {
+            // 1 when the main thread died, so the app went down with it
+            record(FlightRecorder.EVENT_CRASH, null, thread == Looper.getMainLooper().getThread() ? 1 : 0);
+            if (previous != null) {
+                previous.uncaughtException(thread, error);
+            }
+        });
+    }
+}
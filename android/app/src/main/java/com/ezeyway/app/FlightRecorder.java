@@ -0,0 +1,185 @@
+package com.ezeyway.app;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Fixed-size ring of binary event records, meant to live in a memory-mapped
+ * file so the last few thousand native events survive process death.
+ *
+ * Each record is {@value #RECORD_BYTES} bytes: sequence number, wall time,
+ * order key, event and one int argument. Writers claim a sequence number
+ * with a single atomic increment and write their slot with absolute puts, so
+ * recording takes no lock and allocates nothing. The sequence is written
+ * last, after the slot was first marked invalid, so a record torn by a crash
+ * mid-write is skipped on export instead of decoded as garbage.
+ *
+ * Order ids that are plain numbers are stored as-is; anything else is stored
+ * as its hash and exported as {@code "#<hash>"}.
+ */
+public final class FlightRecorder {
+    public static final int EVENT_PROCESS_STARTED = 0;
+    public static final int EVENT_MESSAGE_RECEIVED = 1;
+    public static final int EVENT_DUPLICATE_DROPPED = 2;
+    public static final int EVENT_NOTIFICATION_POSTED = 3;
+    public static final int EVENT_JOB_STARTED = 4;
+    public static final int EVENT_JOB_FINISHED = 5;
+    public static final int EVENT_SERVICE_CREATED = 6;
+    public static final int EVENT_SERVICE_DESTROYED = 7;
+    public static final int EVENT_OVERLAY_SHOWN = 8;
+    public static final int EVENT_OVERLAY_FAILED = 9;
+    public static final int EVENT_AUDIO_STARTED = 10;
+    public static final int EVENT_AUDIO_STOPPED = 11;
+    public static final int EVENT_AUDIO_FAILED = 12;
+    public static final int EVENT_BRIDGE_DISPATCHED = 13;
+    public static final int EVENT_ESCALATED = 14;
+    public static final int EVENT_ACKNOWLEDGED = 15;
+    public static final int EVENT_CRASH = 16;
+    public static final int EVENT_MEMORY_TRIM = 17;
+
+    static final String[] EVENT_NAMES = {
+        "processStarted", "messageReceived", "duplicateDropped", "notificationPosted",
+        "jobStarted", "jobFinished", "serviceCreated", "serviceDestroyed",
+        "overlayShown", "overlayFailed", "audioStarted", "audioStopped", "audioFailed",
+        "bridgeDispatched", "escalated", "acknowledged", "crash", "memoryTrim"
+    };
+
+    /** Argument of the service events. */
+    public static final int SERVICE_FCM = 0;
+    public static final int SERVICE_OVERLAY = 1;
+    public static final int SERVICE_ORDER_STREAM = 2;
+    public static final int SERVICE_LOCATION = 3;
+    static final String[] SERVICE_NAMES = {"fcm", "overlay", "orderStream", "location"};
+
+    /** Argument of {@link #EVENT_MESSAGE_RECEIVED}. */
+    public static final int SOURCE_FCM = 0;
+    public static final int SOURCE_SOCKET = 1;
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 32;
+    private static final int MAGIC = 0x455a4652; // "EZFR"
+    private static final int VERSION = 1;
+
+    private static final int OFFSET_SEQ = 0;
+    private static final int OFFSET_WALL = 8;
+    private static final int OFFSET_ORDER = 16;
+    private static final int OFFSET_EVENT = 24;
+    private static final int OFFSET_ARG = 28;
+
+    private static final long NO_ORDER = Long.MIN_VALUE;
+    /** Set on order keys that hold a hash rather than the numeric id. */
+    private static final long HASHED = 1L << 62;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong nextSeq;
+
+    /** Bytes needed for {@code capacity} records. */
+    public static int sizeFor(int capacity) {
+        return HEADER_BYTES + capacity * RECORD_BYTES;
+    }
+
+    /**
+     * Opens the ring in {@code buffer}, continuing after the newest record if
+     * it already holds one with the same geometry, or formatting it otherwise.
+     */
+    public FlightRecorder(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.capacity = (buffer.capacity() - HEADER_BYTES) / RECORD_BYTES;
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer too small for a record");
+        }
+
+        long newest = -1;
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getInt(8) == capacity) {
+            for (int slot = 0; slot < capacity; slot++) {
+                newest = Math.max(newest, buffer.getLong(offset(slot) + OFFSET_SEQ));
+            }
+        } else {
+            for (int slot = 0; slot < capacity; slot++) {
+                buffer.putLong(offset(slot) + OFFSET_SEQ, -1);
+            }
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, capacity);
+            buffer.putInt(0, MAGIC);
+        }
+        nextSeq = new AtomicLong(newest + 1);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void record(int event, String orderId, int arg, long wallMs) {
+        long seq = nextSeq.getAndIncrement();
+        int base = offset((int) (seq % capacity));
+        buffer.putLong(base + OFFSET_SEQ, -1);
+        buffer.putLong(base + OFFSET_WALL, wallMs);
+        buffer.putLong(base + OFFSET_ORDER, orderKey(orderId));
+        buffer.putInt(base + OFFSET_EVENT, event);
+        buffer.putInt(base + OFFSET_ARG, arg);
+        buffer.putLong(base + OFFSET_SEQ, seq);
+    }
+
+    /** Numeric order ids as their value, others as a flagged hash; no allocation either way. */
+    static long orderKey(String orderId) {
+        if (orderId == null || orderId.isEmpty()) return NO_ORDER;
+        int length = orderId.length();
+        if (length <= 18) {
+            long value = 0;
+            int i = 0;
+            for (; i < length; i++) {
+                char c = orderId.charAt(i);
+                if (c < '0' || c > '9') break;
+                value = value * 10 + (c - '0');
+            }
+            if (i == length) return value;
+        }
+        return HASHED | (orderId.hashCode() & 0xffffffffL);
+    }
+
+    static String orderIdFor(long key) {
+        if (key == NO_ORDER) return null;
+        if ((key & HASHED) != 0) return "#" + Integer.toHexString((int) key);
+        return Long.toString(key);
+    }
+
+    /** The newest {@code limit} intact records, oldest first. */
+    public JSONArray export(int limit) throws JSONException {
+        long newest = nextSeq.get() - 1;
+        long oldest = Math.max(0, newest - Math.min(limit, capacity) + 1);
+        JSONArray records = new JSONArray();
+        for (long seq = oldest; seq <= newest; seq++) {
+            int base = offset((int) (seq % capacity));
+            // A slot being rewritten, or torn by a crash, no longer holds this sequence
+            if (buffer.getLong(base + OFFSET_SEQ) != seq) continue;
+
+            int event = buffer.getInt(base + OFFSET_EVENT);
+            int arg = buffer.getInt(base + OFFSET_ARG);
+            JSONObject record = new JSONObject();
+            record.put("seq", seq);
+            record.put("at", buffer.getLong(base + OFFSET_WALL));
+            record.put("event", event >= 0 && event < EVENT_NAMES.length ? EVENT_NAMES[event] : Integer.toString(event));
+            String orderId = orderIdFor(buffer.getLong(base + OFFSET_ORDER));
+            if (orderId != null) record.put("orderId", orderId);
+            if ((event == EVENT_SERVICE_CREATED || event == EVENT_SERVICE_DESTROYED)
+                    && arg >= 0 && arg < SERVICE_NAMES.length) {
+                record.put("service", SERVICE_NAMES[arg]);
+            } else if (event == EVENT_ESCALATED || event == EVENT_ACKNOWLEDGED) {
+                record.put("tier", arg >= 0 && arg < AlertEscalation.TIER_NAMES.length
+                    ? AlertEscalation.TIER_NAMES[arg] : Integer.toString(arg));
+            } else {
+                record.put("arg", arg);
+            }
+            records.put(record);
+        }
+        return records;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * RECORD_BYTES;
+    }
+}
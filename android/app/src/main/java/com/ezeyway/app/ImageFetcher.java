@@ -0,0 +1,68 @@
+package com.ezeyway.app;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Downloads image bytes with hard timeouts and a size limit, going through a
+ * {@link DiskLruCache} so the same image is only downloaded once.
+ */
+public class ImageFetcher {
+    private final DiskLruCache diskCache;
+    private final int timeoutMs;
+    private final int maxBytes;
+
+    public ImageFetcher(DiskLruCache diskCache, int timeoutMs, int maxBytes) {
+        this.diskCache = diskCache;
+        this.timeoutMs = timeoutMs;
+        this.maxBytes = maxBytes;
+    }
+
+    /** @return the image bytes, or null if the download failed */
+    public byte[] fetch(String url) {
+        byte[] cached = diskCache != null ? diskCache.get(url) : null;
+        if (cached != null) return cached;
+
+        byte[] data = download(url);
+        if (data != null && diskCache != null) {
+            diskCache.put(url, data);
+        }
+        return data;
+    }
+
+    private byte[] download(String url) {
+        HttpURLConnection connection = null;
+        byte[] data = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setInstanceFollowRedirects(true);
+
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) return null;
+            int length = connection.getContentLength();
+            if (length > maxBytes) return null;
+
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(length > 0 ? length : 16 * 1024);
+                byte[] buffer = new byte[8 * 1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    if (out.size() + n > maxBytes) return null;
+                    out.write(buffer, 0, n);
+                }
+                data = out.toByteArray();
+                return data;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            // Only a fully read body leaves the socket reusable; error statuses,
+            // oversized bodies and failures would otherwise leak it
+            if (data == null && connection != null) connection.disconnect();
+        }
+    }
+}
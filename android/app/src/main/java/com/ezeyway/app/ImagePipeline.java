@@ -0,0 +1,238 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.Log;
+import android.util.LruCache;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves product images at the size the WebView actually draws them.
+ *
+ * The original is downloaded once through {@link ImageFetcher}, decoded with
+ * a subsample (and a region decode when a crop is asked for), scaled to the
+ * bucketed width and re-encoded as WebP. Encoded variants are kept in memory
+ * and on disk keyed by URL and size, so a catalog page never decodes the same
+ * photo twice.
+ *
+ * Calls block and are made from WebView's IO threads; at most two decodes run
+ * at once to cap bitmap memory on low-RAM phones.
+ */
+public class ImagePipeline {
+    private static final String TAG = "ImagePipeline";
+    private static final int TIMEOUT_MS = 15000;
+    private static final int MAX_DOWNLOAD_BYTES = 10 * 1024 * 1024;
+    private static final long ORIGINALS_DISK_BYTES = 40L * 1024 * 1024;
+    private static final long VARIANTS_DISK_BYTES = 30L * 1024 * 1024;
+    private static final int WEBP_QUALITY = 80;
+    private static final String MIME_WEBP = "image/webp";
+
+    private static ImagePipeline instance;
+
+    public static final class Image {
+        public final byte[] data;
+        public final String mimeType;
+
+        Image(byte[] data, String mimeType) {
+            this.data = data;
+            this.mimeType = mimeType;
+        }
+    }
+
+    private final ImageFetcher fetcher;
+    private final DiskLruCache variants;
+    private final LruCache<String, byte[]> memoryCache;
+    private final Semaphore decodePermits = new Semaphore(2);
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong decoded = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong servedBytes = new AtomicLong();
+
+    public static synchronized ImagePipeline get(Context context) {
+        if (instance == null) {
+            instance = new ImagePipeline(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Gives back variant bytes held in memory: half of them, or all with
+     * {@code all}. Does nothing if the pipeline was never used.
+     */
+    public static synchronized void trimMemory(boolean all) {
+        if (instance == null) return;
+        if (all) {
+            instance.memoryCache.evictAll();
+        } else {
+            instance.memoryCache.trimToSize(instance.memoryCache.size() / 2);
+        }
+    }
+
+    private ImagePipeline(Context context) {
+        File cacheDir = context.getCacheDir();
+        fetcher = new ImageFetcher(new DiskLruCache(new File(cacheDir, "image_originals"), ORIGINALS_DISK_BYTES),
+            TIMEOUT_MS, MAX_DOWNLOAD_BYTES);
+        variants = new DiskLruCache(new File(cacheDir, "image_variants"), VARIANTS_DISK_BYTES);
+
+        int memoryBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 32, 8L * 1024 * 1024);
+        memoryCache = new LruCache<String, byte[]>(memoryBytes) {
+            @Override
+            protected int sizeOf(String key, byte[] value) {
+                return value.length;
+            }
+        };
+    }
+
+    /**
+     * @param width  CSS width times device pixel ratio; rounded up to a bucket
+     * @param height 0 to keep the source aspect ratio, otherwise centre-cropped to width:height
+     * @return the image, or null if the original could not be downloaded
+     */
+    public Image load(String url, int width, int height) {
+        int bucketWidth = ImageSizing.bucketWidth(width);
+        int bucketHeight = ImageSizing.bucketHeight(width, height, bucketWidth);
+        String key = url + "@" + bucketWidth + "x" + bucketHeight;
+
+        byte[] cached = memoryCache.get(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return serve(cached, MIME_WEBP);
+        }
+        cached = variants.get(key);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            memoryCache.put(key, cached);
+            return serve(cached, MIME_WEBP);
+        }
+
+        byte[] original = fetcher.fetch(url);
+        if (original == null) {
+            failures.incrementAndGet();
+            return null;
+        }
+        originalBytes.addAndGet(original.length);
+
+        byte[] resized;
+        decodePermits.acquireUninterruptibly();
+        try {
+            resized = resize(original, bucketWidth, bucketHeight);
+        } finally {
+            decodePermits.release();
+        }
+        if (resized == null) {
+            // Undecodable here (e.g. SVG); let the WebView try the original bytes
+            failures.incrementAndGet();
+            return serve(original, "application/octet-stream");
+        }
+
+        decoded.incrementAndGet();
+        memoryCache.put(key, resized);
+        variants.put(key, resized);
+        return serve(resized, MIME_WEBP);
+    }
+
+    private Image serve(byte[] data, String mimeType) {
+        servedBytes.addAndGet(data.length);
+        return new Image(data, mimeType);
+    }
+
+    private static byte[] resize(byte[] original, int width, int height) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(original, 0, original.length, bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null;
+
+        int[] crop = ImageSizing.centerCrop(bounds.outWidth, bounds.outHeight, width, height);
+        int cropWidth = crop[2] - crop[0];
+        int cropHeight = crop[3] - crop[1];
+        // Never upscale
+        int targetWidth = Math.min(width, cropWidth);
+        int targetHeight = Math.max(1, Math.round(cropHeight * (float) targetWidth / cropWidth));
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = ImageSizing.sampleSize(cropWidth, cropHeight, targetWidth, targetHeight);
+        if ("image/jpeg".equals(bounds.outMimeType)) {
+            // No alpha to keep; half the bitmap memory
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+        }
+
+        Bitmap bitmap = null;
+        boolean cropped = cropWidth != bounds.outWidth || cropHeight != bounds.outHeight;
+        try {
+            if (cropped) {
+                bitmap = decodeRegion(original, new Rect(crop[0], crop[1], crop[2], crop[3]), options);
+            }
+            if (bitmap == null) {
+                bitmap = BitmapFactory.decodeByteArray(original, 0, original.length, options);
+                if (bitmap == null) return null;
+                if (cropped) {
+                    float scale = bitmap.getWidth() / (float) bounds.outWidth;
+                    int left = Math.round(crop[0] * scale);
+                    int top = Math.round(crop[1] * scale);
+                    Bitmap region = Bitmap.createBitmap(bitmap, left, top,
+                        Math.max(1, Math.min(bitmap.getWidth() - left, Math.round(cropWidth * scale))),
+                        Math.max(1, Math.min(bitmap.getHeight() - top, Math.round(cropHeight * scale))));
+                    if (region != bitmap) bitmap.recycle();
+                    bitmap = region;
+                }
+            }
+
+            if (bitmap.getWidth() != targetWidth || bitmap.getHeight() != targetHeight) {
+                Bitmap scaled = Bitmap.createScaledBitmap(bitmap, targetWidth, targetHeight, true);
+                if (scaled != bitmap) bitmap.recycle();
+                bitmap = scaled;
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(targetWidth * targetHeight / 4);
+            @SuppressWarnings("deprecation")
+            Bitmap.CompressFormat format = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+            if (!bitmap.compress(format, WEBP_QUALITY, out)) return null;
+            return out.toByteArray();
+        } catch (OutOfMemoryError e) {
+            Log.w(TAG, "⚠️ Out of memory resizing image to " + width + "px");
+            return null;
+        } finally {
+            if (bitmap != null) bitmap.recycle();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap decodeRegion(byte[] data, Rect region, BitmapFactory.Options options) {
+        BitmapRegionDecoder decoder = null;
+        try {
+            decoder = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                ? BitmapRegionDecoder.newInstance(data, 0, data.length)
+                : BitmapRegionDecoder.newInstance(data, 0, data.length, false);
+            return decoder.decodeRegion(region, options);
+        } catch (IOException | IllegalArgumentException e) {
+            // Formats without region support (GIF) fall back to a full decode
+            return null;
+        } finally {
+            if (decoder != null) decoder.recycle();
+        }
+    }
+
+    public String statsJson() {
+        return "{\"memoryHits\":" + memoryHits.get()
+            + ",\"diskHits\":" + diskHits.get()
+            + ",\"decoded\":" + decoded.get()
+            + ",\"failures\":" + failures.get()
+            + ",\"originalBytes\":" + originalBytes.get()
+            + ",\"servedBytes\":" + servedBytes.get()
+            + ",\"memoryCacheBytes\":" + memoryCache.size()
+            + ",\"diskCacheBytes\":" + variants.size() + "}";
+    }
+}
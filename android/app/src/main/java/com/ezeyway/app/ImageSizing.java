@@ -0,0 +1,53 @@
+package com.ezeyway.app;
+
+/**
+ * Size arithmetic for {@link ImagePipeline}: which width bucket to produce,
+ * the centre crop that matches CSS {@code object-cover}, and the largest
+ * power-of-two subsample that still covers the target.
+ */
+public final class ImageSizing {
+    /** Requested widths are rounded up to one of these so variants are shared between layouts. */
+    static final int[] WIDTH_BUCKETS = {64, 128, 192, 256, 384, 512, 768, 1024, 1536};
+
+    private ImageSizing() {}
+
+    public static int bucketWidth(int width) {
+        for (int bucket : WIDTH_BUCKETS) {
+            if (width <= bucket) return bucket;
+        }
+        return WIDTH_BUCKETS[WIDTH_BUCKETS.length - 1];
+    }
+
+    /** Height for {@code bucketWidth} that keeps the requested aspect ratio, or 0 to keep the source's. */
+    public static int bucketHeight(int width, int height, int bucketWidth) {
+        if (height <= 0 || width <= 0) return 0;
+        return Math.max(1, Math.round(height * (float) bucketWidth / width));
+    }
+
+    /**
+     * Largest centred {@code left, top, right, bottom} rect of the source with
+     * the target's aspect ratio.
+     */
+    public static int[] centerCrop(int srcWidth, int srcHeight, int width, int height) {
+        if (height <= 0 || (long) srcWidth * height == (long) srcHeight * width) {
+            return new int[] {0, 0, srcWidth, srcHeight};
+        }
+        if ((long) srcWidth * height > (long) srcHeight * width) {
+            int cropWidth = (int) ((long) srcHeight * width / height);
+            int left = (srcWidth - cropWidth) / 2;
+            return new int[] {left, 0, left + cropWidth, srcHeight};
+        }
+        int cropHeight = (int) ((long) srcWidth * height / width);
+        int top = (srcHeight - cropHeight) / 2;
+        return new int[] {0, top, srcWidth, top + cropHeight};
+    }
+
+    /** Largest power of two that keeps the decoded size at or above the target. */
+    public static int sampleSize(int srcWidth, int srcHeight, int width, int height) {
+        int sample = 1;
+        while (srcWidth / (sample * 2) >= width && srcHeight / (sample * 2) >= height) {
+            sample *= 2;
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Brings MainActivity to the front for an order without blocking the main looper.
+ *
+ * Launch attempts are posted to the main Handler at increasing offsets and stop
+ * as soon as MainActivity reports onResume, or once the deadline passes. The
+ * caller's wake lock is released at that moment instead of running out its
+ * full timeout. Only one launch is in flight at a time; a new order arriving
+ * mid-flight just refreshes the intent that the next attempt will use.
+ */
+public class LaunchScheduler {
+    private static final String TAG = "LaunchScheduler";
+    private static final long[] ATTEMPT_OFFSETS_MS = {0, 400, 1200, 2500};
+    static final long DEADLINE_MS = 4000;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private static Context appContext;
+    private static Intent pendingIntent;
+    private static PowerBudgetManager.Lease heldWakeLock;
+    private static Callback callback;
+    private static long startedAt;
+    private static int attempt;
+    private static boolean active;
+
+    private static long totalLaunches;
+    private static long totalStartActivityCalls;
+    private static long totalWakeLockMs;
+    private static long confirmedLaunches;
+
+    public interface Callback {
+        void onFinished(boolean confirmed);
+    }
+
+    private static final Runnable attemptRunnable = LaunchScheduler::runAttempt;
+    private static final Runnable deadlineRunnable = () -> finish(false);
+
+    /**
+     * Must be called on the main thread.
+     *
+     * @param wakeLock optional, already acquired; released when the launch finishes
+     */
+    public static void launch(Context context, Intent intent, PowerBudgetManager.Lease wakeLock, Callback onFinished) {
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+        if (active) {
+            // Already launching; send the newest order with the next attempt
+            pendingIntent = intent;
+            releaseWakeLock(wakeLock);
+            if (onFinished != null) onFinished.onFinished(false);
+            Log.d(TAG, "🔁 Launch already in flight, intent refreshed");
+            return;
+        }
+
+        appContext = context.getApplicationContext();
+        pendingIntent = intent;
+        heldWakeLock = wakeLock;
+        callback = onFinished;
+        startedAt = SystemClock.elapsedRealtime();
+        attempt = 0;
+        active = true;
+        totalLaunches++;
+
+        mainHandler.post(attemptRunnable);
+        mainHandler.postDelayed(deadlineRunnable, DEADLINE_MS);
+    }
+
+    /** Called when MainActivity reports onResume over {@link AlertsProvider}. */
+    public static void onActivityResumed() {
+        if (active) {
+            finish(true);
+        }
+    }
+
+    private static void runAttempt() {
+        if (!active) return;
+
+        try {
+            appContext.startActivity(pendingIntent);
+            totalStartActivityCalls++;
+            Log.d(TAG, "✅ Launch attempt " + (attempt + 1));
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Launch attempt " + (attempt + 1) + " failed: " + e.getMessage());
+        }
+
+        attempt++;
+        if (attempt < ATTEMPT_OFFSETS_MS.length) {
+            long nextAt = startedAt + ATTEMPT_OFFSETS_MS[attempt];
+            mainHandler.postDelayed(attemptRunnable, Math.max(0, nextAt - SystemClock.elapsedRealtime()));
+        }
+    }
+
+    private static void finish(boolean confirmed) {
+        if (!active) return;
+        active = false;
+        mainHandler.removeCallbacks(attemptRunnable);
+        mainHandler.removeCallbacks(deadlineRunnable);
+
+        long elapsed = SystemClock.elapsedRealtime() - startedAt;
+        if (heldWakeLock != null) {
+            totalWakeLockMs += elapsed;
+        }
+        releaseWakeLock(heldWakeLock);
+        heldWakeLock = null;
+        if (confirmed) confirmedLaunches++;
+
+        Log.d(TAG, (confirmed ? "✅ Activity resumed" : "⌛ Launch deadline reached") +
+            " after " + attempt + " attempt(s), " + elapsed + "ms");
+
+        Callback done = callback;
+        callback = null;
+        pendingIntent = null;
+        if (done != null) done.onFinished(confirmed);
+    }
+
+    private static void releaseWakeLock(PowerBudgetManager.Lease wakeLock) {
+        if (wakeLock != null) {
+            wakeLock.release();
+        }
+    }
+
+    public static String statsJson() {
+        return "{\"launches\":" + totalLaunches +
+               ",\"confirmed\":" + confirmedLaunches +
+               ",\"startActivityCalls\":" + totalStartActivityCalls +
+               ",\"wakeLockMs\":" + totalWakeLockMs + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package com.ezeyway.app;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffers accepted fixes between uploads and encodes them as one compressed
+ * request.
+ *
+ * The body is gzipped JSON with coordinates delta-encoded in micro-degrees
+ * against the first fix, so a typical row is a handful of small integers:
+ * <pre>
+ * {"t0":1712345678000,"lat0":12971599,"lon0":77594566,
+ *  "fixes":[[0,0,0,8,42],[-113,87,10,6,45],...]}
+ * </pre>
+ * Each row is {@code [dLatE6, dLonE6, dtSeconds, accuracyM, speedDmPerS]},
+ * with deltas relative to the previous row and speed -1 when unknown.
+ */
+public class LocationBatch {
+    public static final int MAX_BUFFERED = 500;
+
+    private final ArrayDeque<LocationFix> buffer = new ArrayDeque<>();
+    private final int maxBuffered;
+
+    public LocationBatch() {
+        this(MAX_BUFFERED);
+    }
+
+    public LocationBatch(int maxBuffered) {
+        this.maxBuffered = maxBuffered;
+    }
+
+    /** Adds a fix, dropping the oldest once the buffer is full (e.g. offline for hours). */
+    public synchronized void add(LocationFix fix) {
+        if (buffer.size() == maxBuffered) {
+            buffer.pollFirst();
+        }
+        buffer.addLast(fix);
+    }
+
+    /** Removes and returns everything buffered, oldest first. */
+    public synchronized List<LocationFix> drain() {
+        List<LocationFix> fixes = new ArrayList<>(buffer);
+        buffer.clear();
+        return fixes;
+    }
+
+    /** Puts an unsent batch back in front of fixes that arrived meanwhile. */
+    public synchronized void requeue(List<LocationFix> fixes) {
+        for (int i = fixes.size() - 1; i >= 0; i--) {
+            if (buffer.size() == maxBuffered) break;
+            buffer.addFirst(fixes.get(i));
+        }
+    }
+
+    public synchronized int size() {
+        return buffer.size();
+    }
+
+    static String encodeJson(List<LocationFix> fixes) {
+        StringBuilder sb = new StringBuilder(64 + fixes.size() * 24);
+        if (fixes.isEmpty()) {
+            return sb.append("{\"fixes\":[]}").toString();
+        }
+
+        LocationFix first = fixes.get(0);
+        long prevLat = toE6(first.latitude);
+        long prevLon = toE6(first.longitude);
+        long prevSec = first.time / 1000;
+        sb.append("{\"t0\":").append(first.time)
+            .append(",\"lat0\":").append(prevLat)
+            .append(",\"lon0\":").append(prevLon)
+            .append(",\"fixes\":[");
+
+        for (int i = 0; i < fixes.size(); i++) {
+            LocationFix fix = fixes.get(i);
+            long lat = toE6(fix.latitude);
+            long lon = toE6(fix.longitude);
+            long sec = fix.time / 1000;
+            if (i > 0) sb.append(',');
+            sb.append('[').append(lat - prevLat)
+                .append(',').append(lon - prevLon)
+                .append(',').append(sec - prevSec)
+                .append(',').append(Math.round(fix.accuracy))
+                .append(',').append(fix.hasSpeed() ? Math.round(fix.speed * 10) : -1)
+                .append(']');
+            prevLat = lat;
+            prevLon = lon;
+            prevSec = sec;
+        }
+        return sb.append("]}").toString();
+    }
+
+    public static byte[] encode(List<LocationFix> fixes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(encodeJson(fixes).getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long toE6(double degrees) {
+        return Math.round(degrees * 1_000_000);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ezeyway.app;
+
+/**
+ * One device location sample, decoupled from {@code android.location.Location}
+ * so filtering and batching can run (and be tested) on the plain JVM.
+ */
+public final class LocationFix {
+    public final double latitude;
+    public final double longitude;
+    /** Horizontal accuracy radius in meters. */
+    public final float accuracy;
+    /** Ground speed in m/s, or -1 when the provider did not report one. */
+    public final float speed;
+    /** Wall-clock time of the fix in milliseconds. */
+    public final long time;
+
+    public LocationFix(double latitude, double longitude, float accuracy, float speed, long time) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.accuracy = accuracy;
+        this.speed = speed;
+        this.time = time;
+    }
+
+    public boolean hasSpeed() {
+        return speed >= 0;
+    }
+
+    /** Great-circle distance in meters. */
+    public static double distanceMeters(LocationFix a, LocationFix b) {
+        double lat1 = Math.toRadians(a.latitude);
+        double lat2 = Math.toRadians(b.latitude);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(b.longitude - a.longitude);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6_371_000 * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    @Override
+    public String toString() {
+        return "LocationFix{" + latitude + "," + longitude + " ±" + accuracy + "m @" + time + "}";
+    }
+}
@@ -0,0 +1,94 @@
+package com.ezeyway.app;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * JS control for {@link LocationTrackingService}. Fixes are only pushed to the
+ * WebView while the web app reports a visible map and the activity is in the
+ * foreground; otherwise the service tracks and uploads without waking JS.
+ */
+@CapacitorPlugin(name = "NativeLocation")
+public class LocationPlugin extends Plugin {
+    static final String EVENT_LOCATION_FIX = "locationFix";
+
+    private boolean mapVisible;
+
+    @PluginMethod
+    public void start(PluginCall call) {
+        if (!LocationTrackingService.hasPermission(getContext())) {
+            call.reject("Location permission not granted");
+            return;
+        }
+        int uploadIntervalSec = call.getInt("uploadIntervalSec",
+            (int) (LocationTrackingService.DEFAULT_UPLOAD_INTERVAL_MS / 1000));
+        LocationTrackingService.start(getContext(),
+            call.getBoolean("activeOrder", false), uploadIntervalSec * 1000L);
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void stop(PluginCall call) {
+        LocationTrackingService.stop(getContext());
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void setOrderActive(PluginCall call) {
+        LocationTrackingService.setOrderActive(getContext(), call.getBoolean("active", false));
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void setMapVisible(PluginCall call) {
+        mapVisible = call.getBoolean("visible", false);
+        updateStreaming();
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void getLastFix(PluginCall call) {
+        LocationFix fix = LocationTrackingService.getLastFix();
+        JSObject ret = new JSObject();
+        if (fix != null) {
+            ret.put("fix", toJs(fix));
+        }
+        call.resolve(ret);
+    }
+
+    @Override
+    protected void handleOnResume() {
+        updateStreaming();
+    }
+
+    @Override
+    protected void handleOnPause() {
+        LocationTrackingService.setFixListener(null);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        LocationTrackingService.setFixListener(null);
+    }
+
+    private void updateStreaming() {
+        LocationTrackingService.setFixListener(mapVisible
+            ? fix -> notifyListeners(EVENT_LOCATION_FIX, toJs(fix))
+            : null);
+    }
+
+    private static JSObject toJs(LocationFix fix) {
+        JSObject js = new JSObject();
+        js.put("latitude", fix.latitude);
+        js.put("longitude", fix.longitude);
+        js.put("accuracy", fix.accuracy);
+        if (fix.hasSpeed()) {
+            js.put("speed", fix.speed);
+        }
+        js.put("time", fix.time);
+        return js;
+    }
+}
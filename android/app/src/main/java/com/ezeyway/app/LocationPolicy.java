@@ -0,0 +1,70 @@
+package com.ezeyway.app;
+
+/**
+ * Decides how often to sample the GPS and which fixes are worth keeping.
+ *
+ * The sampling interval follows what the fix is used for: tight while an
+ * order is out for delivery and the device is moving, relaxed when parked,
+ * and a slow heartbeat with no active order. Jitter is filtered on device:
+ * inaccurate fixes, implausible jumps and movement that stays inside the
+ * accuracy radius are dropped, except for a periodic stationary heartbeat so
+ * the server can tell "parked" from "gone".
+ */
+public class LocationPolicy {
+    public static final long ACTIVE_FAST_INTERVAL_MS = 5_000;
+    public static final long ACTIVE_MOVING_INTERVAL_MS = 10_000;
+    public static final long ACTIVE_STILL_INTERVAL_MS = 30_000;
+    public static final long IDLE_MOVING_INTERVAL_MS = 60_000;
+    public static final long IDLE_STILL_INTERVAL_MS = 5 * 60_000;
+
+    static final float MOVING_SPEED_MPS = 1.5f;
+    static final float FAST_SPEED_MPS = 8f;
+    static final float MAX_ACCURACY_M = 100f;
+    static final float MIN_MOVE_M = 15f;
+    /** Faster than any delivery vehicle; such jumps are GPS glitches. */
+    static final float MAX_PLAUSIBLE_SPEED_MPS = 70f;
+    static final long STATIONARY_HEARTBEAT_MS = 2 * 60_000;
+
+    private LocationFix lastAccepted;
+
+    public static long intervalFor(float speedMps, boolean activeOrder) {
+        boolean moving = speedMps >= MOVING_SPEED_MPS;
+        if (activeOrder) {
+            if (speedMps >= FAST_SPEED_MPS) return ACTIVE_FAST_INTERVAL_MS;
+            return moving ? ACTIVE_MOVING_INTERVAL_MS : ACTIVE_STILL_INTERVAL_MS;
+        }
+        return moving ? IDLE_MOVING_INTERVAL_MS : IDLE_STILL_INTERVAL_MS;
+    }
+
+    /** @return true if the fix should be kept, buffered and streamed */
+    public synchronized boolean accept(LocationFix fix) {
+        if (fix.accuracy > MAX_ACCURACY_M) return false;
+
+        LocationFix last = lastAccepted;
+        if (last != null) {
+            long elapsed = fix.time - last.time;
+            if (elapsed <= 0) return false;
+
+            double distance = LocationFix.distanceMeters(last, fix);
+            if (distance / (elapsed / 1000.0) > MAX_PLAUSIBLE_SPEED_MPS) return false;
+
+            double noise = Math.max(MIN_MOVE_M, Math.max(fix.accuracy, last.accuracy));
+            if (distance < noise && elapsed < STATIONARY_HEARTBEAT_MS) return false;
+        }
+
+        lastAccepted = fix;
+        return true;
+    }
+
+    /** Speed used for interval selection: reported speed, else derived from the last fix. */
+    public synchronized float estimateSpeed(LocationFix fix) {
+        if (fix.hasSpeed()) return fix.speed;
+        LocationFix last = lastAccepted;
+        if (last == null || last == fix || fix.time <= last.time) return 0f;
+        return (float) (LocationFix.distanceMeters(last, fix) / ((fix.time - last.time) / 1000.0));
+    }
+
+    public synchronized LocationFix getLastAccepted() {
+        return lastAccepted;
+    }
+}
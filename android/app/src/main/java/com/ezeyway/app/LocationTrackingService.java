@@ -0,0 +1,312 @@
+package com.ezeyway.app;
+
+import android.Manifest;
+import android.annotation.SuppressLint;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.pm.ServiceInfo;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.IBinder;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Foreground location tracking that keeps running while the WebView is in the
+ * background.
+ *
+ * Built on the platform {@link LocationManager}: GPS while an order is active,
+ * the network provider otherwise. The request interval is re-chosen by
+ * {@link LocationPolicy} from the current speed and order state, accepted
+ * fixes are buffered in a {@link LocationBatch} and uploaded as one gzipped
+ * request per upload window. All location and upload work runs on one
+ * background thread.
+ */
+public class LocationTrackingService extends Service {
+    private static final String TAG = "LocationTracking";
+    private static final String CHANNEL_ID = "LOCATION_TRACKING_CHANNEL";
+    private static final int NOTIFICATION_ID = 9997;
+    private static final String ACTION_START = "com.ezeyway.app.LOCATION_START";
+    private static final String ACTION_SET_ORDER_ACTIVE = "com.ezeyway.app.LOCATION_SET_ORDER_ACTIVE";
+    private static final String EXTRA_ACTIVE_ORDER = "activeOrder";
+    private static final String EXTRA_UPLOAD_INTERVAL_MS = "uploadIntervalMs";
+    public static final long DEFAULT_UPLOAD_INTERVAL_MS = 30_000;
+    private static final int UPLOAD_TIMEOUT_MS = 15_000;
+
+    /** Receives accepted fixes on the tracking thread. */
+    public interface FixListener {
+        void onFix(LocationFix fix);
+    }
+
+    private static volatile FixListener fixListener;
+    private static volatile LocationFix lastFix;
+    /** Set once a start has been accepted, until the service is destroyed. */
+    private static volatile boolean tracking;
+
+    private final LocationPolicy policy = new LocationPolicy();
+    private final LocationBatch batch = new LocationBatch();
+    private final LocationUploader uploader = new LocationUploader(VendorSession.API_BASE_URL, UPLOAD_TIMEOUT_MS);
+    private final Runnable uploadRunnable = this::uploadAndReschedule;
+
+    private HandlerThread thread;
+    private Handler handler;
+    private LocationManager locationManager;
+    private boolean activeOrder;
+    private long uploadIntervalMs = DEFAULT_UPLOAD_INTERVAL_MS;
+    private long requestedIntervalMs;
+    private String requestedProvider;
+
+    private final LocationListener listener = new LocationListener() {
+        @Override
+        public void onLocationChanged(Location location) {
+            onFix(new LocationFix(
+                location.getLatitude(),
+                location.getLongitude(),
+                location.hasAccuracy() ? location.getAccuracy() : LocationPolicy.MAX_ACCURACY_M,
+                location.hasSpeed() ? location.getSpeed() : -1f,
+                location.getTime()
+            ));
+        }
+
+        // Required before API 30, where these are not default methods
+        @Override
+        public void onStatusChanged(String provider, int status, Bundle extras) {
+        }
+
+        @Override
+        public void onProviderEnabled(String provider) {
+            handler.post(() -> requestUpdates(requestedIntervalMs, true));
+        }
+
+        @Override
+        public void onProviderDisabled(String provider) {
+            handler.post(() -> requestUpdates(requestedIntervalMs, true));
+        }
+    };
+
+    public static void start(Context context, boolean activeOrder, long uploadIntervalMs) {
+        if (!hasPermission(context)) {
+            Log.w(TAG, "⚠️ Location permission missing, not starting tracking");
+            return;
+        }
+        Intent intent = new Intent(context, LocationTrackingService.class)
+            .setAction(ACTION_START)
+            .putExtra(EXTRA_ACTIVE_ORDER, activeOrder)
+            .putExtra(EXTRA_UPLOAD_INTERVAL_MS, uploadIntervalMs);
+        ContextCompat.startForegroundService(context, intent);
+    }
+
+    /** Adjusts a running tracker; never starts one. {@link #start} carries the order state. */
+    public static void setOrderActive(Context context, boolean activeOrder) {
+        if (!tracking) return;
+        Intent intent = new Intent(context, LocationTrackingService.class)
+            .setAction(ACTION_SET_ORDER_ACTIVE)
+            .putExtra(EXTRA_ACTIVE_ORDER, activeOrder);
+        // Already in the foreground, so a plain start is allowed and needs no startForeground
+        context.startService(intent);
+    }
+
+    public static void stop(Context context) {
+        context.stopService(new Intent(context, LocationTrackingService.class));
+    }
+
+    /** Streams accepted fixes to {@code listener}; pass null to stop streaming. */
+    public static void setFixListener(FixListener listener) {
+        fixListener = listener;
+    }
+
+    public static LocationFix getLastFix() {
+        return lastFix;
+    }
+
+    public static boolean hasPermission(Context context) {
+        return ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED
+            || ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_COARSE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED;
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FlightLog.record(FlightRecorder.EVENT_SERVICE_CREATED, null, FlightRecorder.SERVICE_LOCATION);
+        createNotificationChannel();
+        locationManager = (LocationManager) getSystemService(Context.LOCATION_SERVICE);
+        thread = new HandlerThread("location-tracking");
+        thread.start();
+        handler = new Handler(thread.getLooper());
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        // Before startForeground: on API 34 a location-type foreground service
+        // without the permission throws SecurityException
+        if (!hasPermission(this)) {
+            Log.w(TAG, "⚠️ Location permission missing, stopping tracking");
+            stopSelf();
+            return START_NOT_STICKY;
+        }
+
+        boolean starting = intent == null || ACTION_START.equals(intent.getAction());
+        if (!starting && !tracking) {
+            // An order update raced a stop; it must not bring tracking back
+            stopSelf(startId);
+            return START_NOT_STICKY;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            startForeground(NOTIFICATION_ID, createNotification(), ServiceInfo.FOREGROUND_SERVICE_TYPE_LOCATION);
+        } else {
+            startForeground(NOTIFICATION_ID, createNotification());
+        }
+        tracking = true;
+
+        boolean active = intent != null && intent.getBooleanExtra(EXTRA_ACTIVE_ORDER, false);
+        long upload = intent != null
+            ? intent.getLongExtra(EXTRA_UPLOAD_INTERVAL_MS, uploadIntervalMs)
+            : uploadIntervalMs;
+
+        handler.post(() -> {
+            boolean changed = active != activeOrder;
+            activeOrder = active;
+            if (starting) {
+                uploadIntervalMs = upload;
+                handler.removeCallbacks(uploadRunnable);
+                handler.postDelayed(uploadRunnable, uploadIntervalMs);
+            }
+            LocationFix last = policy.getLastAccepted();
+            float speed = last != null && last.hasSpeed() ? last.speed : 0f;
+            requestUpdates(LocationPolicy.intervalFor(speed, activeOrder), changed || requestedProvider == null);
+        });
+        Log.d(TAG, "📍 Tracking " + (active ? "active order" : "idle") + ", upload every " + upload + "ms");
+        return START_STICKY;
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    @Override
+    public void onDestroy() {
+        tracking = false;
+        locationManager.removeUpdates(listener);
+        handler.removeCallbacksAndMessages(null);
+        // Flush what is buffered, then let the thread finish
+        handler.post(this::upload);
+        thread.quitSafely();
+        FlightLog.record(FlightRecorder.EVENT_SERVICE_DESTROYED, null, FlightRecorder.SERVICE_LOCATION);
+        super.onDestroy();
+    }
+
+    private void onFix(LocationFix fix) {
+        float speed = policy.estimateSpeed(fix);
+        if (!policy.accept(fix)) return;
+
+        lastFix = fix;
+        batch.add(fix);
+        FixListener streaming = fixListener;
+        if (streaming != null) {
+            streaming.onFix(fix);
+        }
+
+        long interval = LocationPolicy.intervalFor(speed, activeOrder);
+        if (interval != requestedIntervalMs) {
+            requestUpdates(interval, false);
+        }
+    }
+
+    @SuppressLint("MissingPermission")
+    private void requestUpdates(long intervalMs, boolean force) {
+        String provider = chooseProvider();
+        if (provider == null) {
+            Log.w(TAG, "⚠️ No location provider enabled");
+            return;
+        }
+        if (!force && intervalMs == requestedIntervalMs && provider.equals(requestedProvider)) return;
+
+        try {
+            locationManager.removeUpdates(listener);
+            // Distance filtering happens in LocationPolicy so stationary heartbeats still arrive
+            locationManager.requestLocationUpdates(provider, intervalMs, 0f, listener, thread.getLooper());
+            requestedIntervalMs = intervalMs;
+            requestedProvider = provider;
+            Log.d(TAG, "📍 Requesting " + provider + " every " + intervalMs + "ms");
+        } catch (SecurityException e) {
+            Log.e(TAG, "❌ Location permission revoked: " + e.getMessage());
+            stopSelf();
+        }
+    }
+
+    private String chooseProvider() {
+        boolean gps = locationManager.isProviderEnabled(LocationManager.GPS_PROVIDER);
+        boolean network = locationManager.isProviderEnabled(LocationManager.NETWORK_PROVIDER);
+        if (activeOrder && gps) return LocationManager.GPS_PROVIDER;
+        if (network) return LocationManager.NETWORK_PROVIDER;
+        return gps ? LocationManager.GPS_PROVIDER : null;
+    }
+
+    private void uploadAndReschedule() {
+        upload();
+        handler.postDelayed(uploadRunnable, uploadIntervalMs);
+    }
+
+    private void upload() {
+        List<LocationFix> fixes = batch.drain();
+        if (fixes.isEmpty()) return;
+
+        try {
+            byte[] body = LocationBatch.encode(fixes);
+            OrderActionClient.Result result = uploader.send(body, VendorSession.getAuthToken(this));
+            if (result == OrderActionClient.Result.RETRY) {
+                batch.requeue(fixes);
+            }
+            Log.d(TAG, "📤 Uploaded " + fixes.size() + " fixes in " + body.length + " bytes: " + result);
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Failed to encode location batch: " + e.getMessage());
+        }
+    }
+
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "Location Tracking",
+                NotificationManager.IMPORTANCE_LOW
+            );
+            channel.setDescription("Shares your location while you have deliveries");
+
+            NotificationManager manager = getSystemService(NotificationManager.class);
+            manager.createNotificationChannel(channel);
+        }
+    }
+
+    private Notification createNotification() {
+        Intent notificationIntent = new Intent(this, MainActivity.class);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            this, 0, notificationIntent, PendingIntent.FLAG_IMMUTABLE
+        );
+
+        return new NotificationCompat.Builder(this, CHANNEL_ID)
+            .setContentTitle("Sharing location")
+            .setContentText("Tracking your location for active deliveries")
+            .setSmallIcon(android.R.drawable.ic_menu_mylocation)
+            .setContentIntent(pendingIntent)
+            .setOngoing(true)
+            .build();
+    }
+}
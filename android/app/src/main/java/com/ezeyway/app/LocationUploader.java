@@ -0,0 +1,64 @@
+package com.ezeyway.app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Posts encoded {@link LocationBatch} bodies to the API, one request per
+ * upload window instead of one per fix. Responses are classified like
+ * {@link OrderActionClient} so callers know whether to keep the batch.
+ */
+public class LocationUploader {
+    private final String baseUrl;
+    private final int timeoutMs;
+
+    public LocationUploader(String baseUrl, int timeoutMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public OrderActionClient.Result send(byte[] gzippedBody, String authToken) {
+        if (authToken == null || authToken.isEmpty()) return OrderActionClient.Result.RETRY;
+
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + "/location/batch/").openConnection();
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setRequestProperty("Authorization", "Token " + authToken);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(gzippedBody.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(gzippedBody);
+            }
+
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+
+            if (status >= 200 && status < 300) return OrderActionClient.Result.SENT;
+            if (status == 401 || status == 403 || status == 408 || status == 429 || status >= 500) {
+                return OrderActionClient.Result.RETRY;
+            }
+            return OrderActionClient.Result.DROP;
+        } catch (IOException e) {
+            if (connection != null) connection.disconnect();
+            return OrderActionClient.Result.RETRY;
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) return;
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[1024];
+            while (stream.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.ezeyway.app;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Build;
@@ -13,55 +11,79 @@ import android.webkit.JavascriptInterface;
 import com.getcapacitor.BridgeActivity;
 import com.getcapacitor.community.fcm.FCMPlugin;
 import com.codetrixstudio.capacitor.GoogleAuth.GoogleAuth;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 public class MainActivity extends BridgeActivity {
     private static final String TAG = "MainActivity";
-    
+    private static final long SCREEN_ON_MS = 60_000;
     @Override
     public void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
+        MainThreadWatchdog.enter(MainThreadWatchdog.COMPONENT_MAIN_ACTIVITY);
+
+        // Plugins must be registered before the bridge is built in super.onCreate
+        AppStartup.measure("registerPlugins", this::registerPlugins);
+        AppStartup.measure("bridge", () -> super.onCreate(savedInstanceState));
+        AppStartup.markPhase(StartupTimeline.PHASE_ACTIVITY_CREATED);
+        AppStartup.watchFirstFrame(this);
+        // Bridge WebView exists now; drop any engine pre-warmed for an escalating order
+        WebViewPrewarmer.handOff(this);
         
+        // Only what the first frame or an auto-open order needs runs before the
+        // first draw; the rest waits for it
+        AppStartup.run(AppStartup.newGraph()
+            // Force app to show on top when auto-opened
+            .add("windowFlags", StartupGraph.ON_MAIN, 100, () ->
+                getWindow().addFlags(WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED |
+                                   WindowManager.LayoutParams.FLAG_DISMISS_KEYGUARD |
+                                   WindowManager.LayoutParams.FLAG_TURN_SCREEN_ON |
+                                   WindowManager.LayoutParams.FLAG_FULLSCREEN))
+            // Serve catalog API and media requests from the native cache
+            .add("webRequestCache", StartupGraph.ON_MAIN, 95, () ->
+                getBridge().setWebViewClient(new CachingWebViewClient(getBridge())))
+            // Add JavaScript interface for debugging
+            .add("javascriptInterface", StartupGraph.ON_MAIN, 90, () ->
+                getBridge().getWebView().addJavascriptInterface(new AndroidInterface(), "AndroidInterface"))
+            // Handle auto-opened intent
+            .add("autoOpenIntent", StartupGraph.ON_MAIN, 80, () -> handleAutoOpenIntent(getIntent()))
+            // Settings screen would cover the first frame; ask once the app is up
+            .add("overlayPermission", StartupGraph.AFTER_FIRST_FRAME, 10, this::requestOverlayPermission));
+    }
+    
+    private void registerPlugins() {
         // Register FCM plugin
         registerPlugin(FCMPlugin.class);
 
         // Register Google Auth plugin
         registerPlugin(GoogleAuth.class);
-        
-        // Create notification channel for orders
-        createNotificationChannel();
-        
-        // Force app to show on top when auto-opened
-        getWindow().addFlags(WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED |
-                           WindowManager.LayoutParams.FLAG_DISMISS_KEYGUARD |
-                           WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON |
-                           WindowManager.LayoutParams.FLAG_TURN_SCREEN_ON |
-                           WindowManager.LayoutParams.FLAG_FULLSCREEN);
-        
-        // Request overlay permission
-        requestOverlayPermission();
-        
-        // Add JavaScript interface for debugging
-        getBridge().getWebView().addJavascriptInterface(new AndroidInterface(), "AndroidInterface");
-        
-        // Handle auto-opened intent
-        handleAutoOpenIntent(getIntent());
+
+        // Register native order event channel
+        registerPlugin(OrderEventsPlugin.class);
+
+        // Register native location tracking
+        registerPlugin(LocationPlugin.class);
+
+        // Register opt-in order socket control
+        registerPlugin(OrderStreamPlugin.class);
+
+        // Register WebView request cache control
+        registerPlugin(WebCachePlugin.class);
+
+        // Register memory pressure events
+        registerPlugin(MemoryPlugin.class);
     }
     
-    private void createNotificationChannel() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(
-                "order_notifications",
-                "Order Notifications",
-                NotificationManager.IMPORTANCE_HIGH
-            );
-            channel.setDescription("Notifications for new orders");
-            channel.enableVibration(true);
-            channel.setShowBadge(true);
-            
-            NotificationManager manager = getSystemService(NotificationManager.class);
-            manager.createNotificationChannel(channel);
-            Log.d(TAG, "✅ Notification channel created");
-        }
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Holds back the overlay and launch tiers, and stops pending launch retries
+        AlertsClient.setAppInFront(this, true);
+    }
+    
+    @Override
+    public void onPause() {
+        AlertsClient.setAppInFront(this, false);
+        super.onPause();
     }
     
     @Override
@@ -83,35 +105,25 @@ public class MainActivity extends BridgeActivity {
                 // Bring app to front aggressively
                 getWindow().addFlags(WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED);
                 
-                String orderId = intent.getStringExtra("orderId");
-                String orderNumber = intent.getStringExtra("orderNumber");
-                String amount = intent.getStringExtra("amount");
+                OrderPayload order = intent.getParcelableExtra(OrderPayload.EXTRA);
                 boolean fromService = intent.getBooleanExtra("fromService", false);
                 boolean forceOpened = intent.getBooleanExtra("forceOpened", false);
                 
-                Log.d(TAG, "📊 Order data - ID: " + orderId + ", Number: " + orderNumber + ", Amount: " + amount + ", ForceOpened: " + forceOpened);
+                Log.d(TAG, "📊 Order data - " + order + ", ForceOpened: " + forceOpened);
                 
-                // Store data for web app to pick up
-                if (orderId != null) {
-                    String orderData = "{\"orderId\":" + orderId + 
-                                     ",\"orderNumber\":\"" + orderNumber + "\"" +
-                                     ",\"amount\":\"" + amount + "\"" +
-                                     ",\"autoOpened\":true" +
-                                     ",\"forceOpened\":" + forceOpened +
-                                     ",\"fromBackground\":true" +
-                                     ",\"fromService\":" + fromService +
-                                     ",\"timestamp\":" + System.currentTimeMillis() + "}";
-                    
-                    Log.d(TAG, "💾 Storing order data: " + orderData);
-                    
-                    // Execute JavaScript to handle auto-opened order
-                    getBridge().getWebView().post(() -> {
-                        String js = "localStorage.setItem('autoOpenOrder', '" + orderData + "'); " +
-                                   "window.dispatchEvent(new CustomEvent('autoOpenedFromBackground', {detail: " + orderData + "})); " +
-                                   "console.log('📱 FORCE AUTO-OPEN DATA RECEIVED:', " + orderData + ");";
-                        getBridge().getWebView().evaluateJavascript(js, null);
-                        Log.d(TAG, "✅ Order data sent to web app");
-                    });
+                // Queue data for the web app; delivered once its listeners are ready
+                if (order != null) {
+                    AlertsClient.trace(this, order.orderId, OrderTrace.STAGE_ACTIVITY_CREATED);
+                    AlertsClient.seen(this, order.orderId, "app opened");
+                    // Give the vendor a moment to act on it; handling it in the web app ends this early
+                    PowerBudgetManager.keepScreenOn(MainActivity.this, order.orderId, SCREEN_ON_MS);
+                    try {
+                        JSONObject orderData = order.toBridgeJson(forceOpened, fromService, System.currentTimeMillis());
+                        OrderEventChannel.post(orderData);
+                        Log.d(TAG, "✅ Order data queued for web app: " + orderData);
+                    } catch (JSONException e) {
+                        Log.e(TAG, "❌ Failed to encode order data: " + e.getMessage());
+                    }
                 } else {
                     Log.w(TAG, "⚠️ No orderId found in auto-open intent");
                 }
@@ -148,9 +160,7 @@ public class MainActivity extends BridgeActivity {
                 // Test launching overlay service directly
                 if (canDrawOverlays) {
                     Intent overlayIntent = new Intent(MainActivity.this, OverlayService.class);
-                    overlayIntent.putExtra("orderId", "999");
-                    overlayIntent.putExtra("orderNumber", "DEBUG-TEST");
-                    overlayIntent.putExtra("amount", "100");
+                    overlayIntent.putExtra(OrderPayload.EXTRA, OrderPayload.basic("999", "DEBUG-TEST", "100"));
                     startService(overlayIntent);
                     Log.d(TAG, "🚨 DEBUG: Overlay service launched directly!");
                 } else {
@@ -160,13 +170,84 @@ public class MainActivity extends BridgeActivity {
             }
         }
         
+        @JavascriptInterface
+        public String getAlertLatencyStats() {
+            return "{\"device\":" + JSONObject.quote(Build.MANUFACTURER + " " + Build.MODEL) +
+                   ",\"sdk\":" + Build.VERSION.SDK_INT +
+                   ",\"stages\":" + alertsStats(AlertsProvider.STATS_ALERT_LATENCY) + "}";
+        }
+        
+        @JavascriptInterface
+        public String getAlertsProcessStats() {
+            return "{\"ui\":{\"pssKb\":" + android.os.Debug.getPss() + "}" +
+                   ",\"alerts\":" + alertsStats(AlertsProvider.STATS_ALERTS_PROCESS) + "}";
+        }
+        
+        @JavascriptInterface
+        public String getLaunchStats() {
+            return alertsStats(AlertsProvider.STATS_LAUNCH);
+        }
+        
+        @JavascriptInterface
+        public String getMainThreadStats() {
+            return "{\"ui\":" + MainThreadWatchdog.statsJson() +
+                   ",\"alerts\":" + alertsStats(AlertsProvider.STATS_MAIN_THREAD) + "}";
+        }
+        
+        @JavascriptInterface
+        public String getOrderStreamStats() {
+            return alertsStats(AlertsProvider.STATS_ORDER_STREAM);
+        }
+        
+        @JavascriptInterface
+        public String exportFlightRecorder(int limit) {
+            Bundle extras = new Bundle();
+            extras.putInt(AlertsProvider.KEY_LIMIT, limit);
+            return "{\"ui\":" + FlightLog.exportJson(limit) +
+                   ",\"alerts\":" + AlertsClient.stats(MainActivity.this, AlertsProvider.STATS_FLIGHT_RECORDER, extras) + "}";
+        }
+        
+        @JavascriptInterface
+        public String getPowerBudgetStats() {
+            return "{\"ui\":" + PowerBudgetManager.statsJson(MainActivity.this) +
+                   ",\"alerts\":" + alertsStats(AlertsProvider.STATS_POWER_BUDGET) + "}";
+        }
+        
+        @JavascriptInterface
+        public String getMemoryStats() {
+            return "{\"ui\":" + MemoryGovernor.statsJson() +
+                   ",\"alerts\":" + alertsStats(AlertsProvider.STATS_MEMORY) + "}";
+        }
+        
+        @JavascriptInterface
+        public String getEscalationStats() {
+            return alertsStats(AlertsProvider.STATS_ESCALATION);
+        }
+        
+        @JavascriptInterface
+        public String getStartupStats() {
+            return AppStartup.statsJson();
+        }
+        
+        @JavascriptInterface
+        public String getWebCacheStats() {
+            return CachingWebViewClient.getCache(MainActivity.this).statsJson();
+        }
+        
+        @JavascriptInterface
+        public String getImagePipelineStats() {
+            return ImagePipeline.get(MainActivity.this).statsJson();
+        }
+        
+        private String alertsStats(String name) {
+            return AlertsClient.stats(MainActivity.this, name);
+        }
+        
         @JavascriptInterface
         public void testDirectOverlay() {
             Log.d(TAG, "🚨 Testing direct overlay launch...");
             Intent overlayIntent = new Intent(MainActivity.this, OverlayService.class);
-            overlayIntent.putExtra("orderId", "888");
-            overlayIntent.putExtra("orderNumber", "DIRECT-TEST");
-            overlayIntent.putExtra("amount", "200");
+            overlayIntent.putExtra(OrderPayload.EXTRA, OrderPayload.basic("888", "DIRECT-TEST", "200"));
             startService(overlayIntent);
         }
     }
@@ -0,0 +1,150 @@
+package com.ezeyway.app;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+import java.util.ArrayDeque;
+
+/**
+ * Detects main-thread stalls longer than {@link #STALL_THRESHOLD_MS} with a
+ * heartbeat and captures the main thread's stack while it is stuck.
+ *
+ * Every {@link #HEARTBEAT_MS} the watchdog thread posts a token to the main
+ * looper and checks {@link #STALL_THRESHOLD_MS} later that it was consumed.
+ * The main thread does no work for messages it dispatches in between, so the
+ * cost is one wakeup per thread per heartbeat whatever the message rate. The
+ * trade-off is coverage: a stall only counts if a token lands in it, so those
+ * shorter than the heartbeat are sampled, while longer ones are always caught.
+ *
+ * How long each token waited is recorded per component. Entry points call
+ * {@link #enter(int)} so a token delayed by the message they run in is
+ * attributed to them; everything else is counted as {@code other}.
+ */
+public final class MainThreadWatchdog {
+    private static final String TAG = "MainThreadWatchdog";
+
+    public static final int COMPONENT_MAIN_ACTIVITY = 0;
+    public static final int COMPONENT_AUTO_OPEN_JOB = 1;
+    public static final int COMPONENT_OVERLAY_SERVICE = 2;
+    public static final int COMPONENT_OTHER = 3;
+
+    private static final String[] COMPONENT_NAMES = {
+        "mainActivity", "autoOpenJob", "overlayService", "other"
+    };
+
+    static final long STALL_THRESHOLD_MS = 250;
+    static final long HEARTBEAT_MS = 1_000;
+    private static final int MAX_STALLS = 16;
+
+    private static final DispatchHistogram histogram = new DispatchHistogram(COMPONENT_NAMES);
+    private static final ArrayDeque<String> stalls = new ArrayDeque<>();
+
+    private static boolean installed;
+    private static Handler watchdogHandler;
+    private static Handler mainHandler;
+    private static volatile int dispatchComponent = COMPONENT_OTHER;
+    private static volatile int sentSeq;
+    private static volatile int ackedSeq;
+    private static volatile long sentAtNanos;
+    // Watchdog thread only
+    private static boolean stallReported;
+
+    // Main thread: the token made it through the queue
+    private static final Runnable ack = () -> {
+        histogram.record(dispatchComponent, System.nanoTime() - sentAtNanos);
+        dispatchComponent = COMPONENT_OTHER;
+        ackedSeq = sentSeq;
+    };
+
+    // Watchdog thread: send the next token
+    private static final Runnable beat = () -> {
+        stallReported = false;
+        sentAtNanos = System.nanoTime();
+        sentSeq++;
+        mainHandler.post(MainThreadWatchdog.ack);
+        watchdogHandler.postDelayed(MainThreadWatchdog.check, STALL_THRESHOLD_MS);
+    };
+
+    // Watchdog thread: was the token consumed in time?
+    private static final Runnable check = () -> {
+        if (ackedSeq == sentSeq) {
+            watchdogHandler.postDelayed(MainThreadWatchdog.beat, HEARTBEAT_MS - STALL_THRESHOLD_MS);
+            return;
+        }
+        if (!stallReported) {
+            stallReported = true;
+            onStall();
+        }
+        watchdogHandler.postDelayed(MainThreadWatchdog.check, STALL_THRESHOLD_MS);
+    };
+
+    private MainThreadWatchdog() {
+    }
+
+    /** Starts the heartbeat; must be called on the main thread. Safe to call repeatedly. */
+    public static void install() {
+        if (installed) return;
+        installed = true;
+
+        HandlerThread thread = new HandlerThread("main-watchdog");
+        thread.start();
+        watchdogHandler = new Handler(thread.getLooper());
+        mainHandler = new Handler(Looper.getMainLooper());
+        watchdogHandler.post(beat);
+        Log.d(TAG, "🐶 Main thread watchdog installed");
+    }
+
+    /**
+     * Attributes the current main-thread message to {@code component},
+     * installing the watchdog first if needed.
+     */
+    public static void enter(int component) {
+        if (!installed) {
+            install();
+        }
+        dispatchComponent = component;
+    }
+
+    private static void onStall() {
+        long stalledMs = (System.nanoTime() - sentAtNanos) / 1_000_000;
+        StackTraceElement[] stack = Looper.getMainLooper().getThread().getStackTrace();
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("{\"component\":\"").append(COMPONENT_NAMES[dispatchComponent])
+            .append("\",\"atMs\":").append(System.currentTimeMillis())
+            .append(",\"stalledMs\":").append(stalledMs)
+            .append(",\"thresholdMs\":").append(STALL_THRESHOLD_MS)
+            .append(",\"stack\":[");
+        for (int i = 0; i < Math.min(stack.length, 40); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(stack[i].toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        sb.append("]}");
+
+        synchronized (stalls) {
+            if (stalls.size() == MAX_STALLS) stalls.pollFirst();
+            stalls.addLast(sb.toString());
+        }
+        Log.w(TAG, "⚠️ Main thread stalled >" + stalledMs + "ms in "
+            + COMPONENT_NAMES[dispatchComponent] + " at " + (stack.length > 0 ? stack[0] : "?"));
+    }
+
+    /** Heartbeat delays per component plus the most recent stalls with stacks. */
+    public static String statsJson() {
+        StringBuilder sb = new StringBuilder(2048);
+        sb.append("{\"installed\":").append(installed)
+            .append(",\"stallThresholdMs\":").append(STALL_THRESHOLD_MS)
+            .append(",\"heartbeatMs\":").append(HEARTBEAT_MS)
+            .append(",\"heartbeatDelay\":").append(histogram.toJson())
+            .append(",\"stalls\":[");
+        synchronized (stalls) {
+            boolean first = true;
+            for (String stall : stalls) {
+                if (!first) sb.append(',');
+                sb.append(stall);
+                first = false;
+            }
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,127 @@
+package com.ezeyway.app;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trims the process under memory pressure, in the tiers {@link MemoryPressure}
+ * picks for each level, so the OS finds less to reclaim and is less likely to
+ * kill us mid-shift.
+ *
+ * In the UI process it shrinks or empties the image memory cache, pauses
+ * background refreshes of the WebView request cache, and tells the web app
+ * through {@link MemoryPlugin} to drop its own caches. In the {@code :alerts}
+ * process it empties the notification image cache and lets go of an idle
+ * alarm player; OverlayService trims its own row pool.
+ *
+ * Trims run on a background thread: measuring PSS takes tens of
+ * milliseconds. PSS after a trim is taken {@link #SETTLE_MS} later so the
+ * web app's cleanup counts too.
+ */
+public final class MemoryGovernor implements ComponentCallbacks2 {
+    private static final String TAG = "MemoryGovernor";
+    private static final long SETTLE_MS = 2_000;
+
+    private static final MemoryPressure pressure = new MemoryPressure();
+    private static final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(
+        r -> new Thread(r, "memory-governor"));
+    private static volatile MemoryPlugin webApp;
+
+    private final boolean alertsProcess;
+
+    private MemoryGovernor(boolean alertsProcess) {
+        this.alertsProcess = alertsProcess;
+    }
+
+    public static void install(Application application) {
+        application.registerComponentCallbacks(new MemoryGovernor(AlertsProcess.isCurrent(application)));
+    }
+
+    static void attach(MemoryPlugin plugin) {
+        webApp = plugin;
+    }
+
+    static void detach(MemoryPlugin plugin) {
+        if (webApp == plugin) {
+            webApp = null;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        worker.execute(() -> trim(level));
+    }
+
+    @Override
+    public void onLowMemory() {
+        worker.execute(() -> trim(MemoryPressure.LEVEL_COMPLETE));
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    private void trim(int level) {
+        MemoryPressure.Trim trim = pressure.begin(level, SystemClock.elapsedRealtime());
+        if (trim == null) return;
+
+        int tier = trim.tier();
+        long before = Debug.getPss();
+        FlightLog.record(FlightRecorder.EVENT_MEMORY_TRIM, null, level);
+        if (alertsProcess) {
+            trimAlerts(tier);
+        } else {
+            trimUi(tier, level);
+        }
+
+        worker.schedule(() -> {
+            long after = Debug.getPss();
+            pressure.finish(trim, before, after);
+            Log.d(TAG, "🧹 Trim level " + level + " (" + MemoryPressure.TIER_NAMES[tier] + "): PSS "
+                + before + "KB → " + after + "KB");
+        }, SETTLE_MS, TimeUnit.MILLISECONDS);
+        if (tier >= MemoryPressure.TIER_DROP) {
+            scheduleResume();
+        }
+    }
+
+    private static void trimUi(int tier, int level) {
+        ImagePipeline.trimMemory(tier >= MemoryPressure.TIER_DROP);
+        if (tier >= MemoryPressure.TIER_DROP) {
+            CachingWebViewClient.setRevalidationPaused(true);
+        }
+        MemoryPlugin plugin = webApp;
+        if (plugin != null) {
+            plugin.dispatchPressure(tier, level);
+        }
+    }
+
+    private static void trimAlerts(int tier) {
+        NotificationImageLoader.trimIfLoaded();
+        if (tier >= MemoryPressure.TIER_DROP) {
+            // Costs the next alert a prepare, so only once caches alone are not enough
+            AlertAudioEngine.trimIfLoaded();
+        }
+    }
+
+    private static void scheduleResume() {
+        long delay = pressure.pausedUntil() - SystemClock.elapsedRealtime();
+        worker.schedule(() -> {
+            // A later drop pushed the pause out and scheduled its own resume
+            if (pressure.isPaused(SystemClock.elapsedRealtime())) return;
+            CachingWebViewClient.setRevalidationPaused(false);
+            Log.d(TAG, "▶️ Memory pressure eased, background work resumed");
+        }, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    public static String statsJson() {
+        return pressure.toJson(SystemClock.elapsedRealtime());
+    }
+}
@@ -0,0 +1,47 @@
+package com.ezeyway.app;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONException;
+
+/**
+ * Tells the web app when the UI process is under memory pressure, so it can
+ * drop its own caches, and reports what {@link MemoryGovernor} has trimmed.
+ */
+@CapacitorPlugin(name = "Memory")
+public class MemoryPlugin extends Plugin {
+    static final String EVENT_MEMORY_PRESSURE = "memoryPressure";
+
+    @Override
+    public void load() {
+        MemoryGovernor.attach(this);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        MemoryGovernor.detach(this);
+    }
+
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        try {
+            call.resolve(new JSObject(MemoryGovernor.statsJson()));
+        } catch (JSONException e) {
+            call.reject("Failed to encode stats: " + e.getMessage());
+        }
+    }
+
+    void dispatchPressure(int tier, int level) {
+        if (tier >= MemoryPressure.TIER_CRITICAL && getActivity() != null) {
+            // Decoded resources the page can fetch again; the disk cache stays
+            getActivity().runOnUiThread(() -> getBridge().getWebView().clearCache(false));
+        }
+        JSObject event = new JSObject();
+        event.put("tier", MemoryPressure.TIER_NAMES[tier]);
+        event.put("level", level);
+        notifyListeners(EVENT_MEMORY_PRESSURE, event);
+    }
+}
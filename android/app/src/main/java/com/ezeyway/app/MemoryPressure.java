@@ -0,0 +1,153 @@
+package com.ezeyway.app;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import org.json.JSONObject;
+
+/**
+ * Decides how hard to trim for each {@code onTrimMemory} level, and keeps the
+ * PSS before and after every trim that was applied.
+ *
+ * Levels map to three tiers: {@link #TIER_SHRINK} halves in-memory caches,
+ * {@link #TIER_DROP} empties them and pauses background work that can wait,
+ * and {@link #TIER_CRITICAL} also asks the WebView to give back what it can.
+ * The system repeats a level for as long as the pressure lasts, so a signal
+ * no stronger than the last applied one within {@link #REPEAT_MS} is skipped.
+ * Paused work resumes once {@link #PAUSE_MS} passes without another drop.
+ *
+ * Times are in whatever monotonic clock the caller uses.
+ */
+public final class MemoryPressure {
+    // ComponentCallbacks2.TRIM_MEMORY_* values, so this class needs no Android classes
+    public static final int LEVEL_RUNNING_MODERATE = 5;
+    public static final int LEVEL_RUNNING_LOW = 10;
+    public static final int LEVEL_RUNNING_CRITICAL = 15;
+    public static final int LEVEL_UI_HIDDEN = 20;
+    public static final int LEVEL_BACKGROUND = 40;
+    public static final int LEVEL_MODERATE = 60;
+    public static final int LEVEL_COMPLETE = 80;
+
+    public static final int TIER_NONE = 0;
+    public static final int TIER_SHRINK = 1;
+    public static final int TIER_DROP = 2;
+    public static final int TIER_CRITICAL = 3;
+    static final String[] TIER_NAMES = {"none", "shrink", "drop", "critical"};
+
+    static final long REPEAT_MS = 30_000;
+    static final long PAUSE_MS = 2 * 60_000;
+    private static final int MAX_HISTORY = 20;
+
+    public static final class Trim {
+        final int level;
+        final int tier;
+        final long at;
+        long pssBeforeKb = -1;
+        long pssAfterKb = -1;
+
+        Trim(int level, int tier, long at) {
+            this.level = level;
+            this.tier = tier;
+            this.at = at;
+        }
+
+        public int tier() {
+            return tier;
+        }
+    }
+
+    private final ArrayDeque<Trim> history = new ArrayDeque<>();
+    private final int[] applied = new int[TIER_NAMES.length];
+    private int skipped;
+    private int lastTier = TIER_NONE;
+    private long lastAt;
+    private long pausedUntil;
+    private long freedKb;
+
+    static int tierFor(int level) {
+        switch (level) {
+            case LEVEL_RUNNING_MODERATE:
+            case LEVEL_UI_HIDDEN:
+                return TIER_SHRINK;
+            case LEVEL_RUNNING_LOW:
+            case LEVEL_BACKGROUND:
+            case LEVEL_MODERATE:
+                return TIER_DROP;
+            case LEVEL_RUNNING_CRITICAL:
+            case LEVEL_COMPLETE:
+                return TIER_CRITICAL;
+            default:
+                // Levels added by later releases; the background ones sit between the known ones
+                if (level >= LEVEL_COMPLETE) return TIER_CRITICAL;
+                if (level >= LEVEL_BACKGROUND) return TIER_DROP;
+                return level > 0 ? TIER_SHRINK : TIER_NONE;
+        }
+    }
+
+    /**
+     * @return the trim to apply for {@code level}, or null if it repeats one
+     *         applied moments ago
+     */
+    public synchronized Trim begin(int level, long now) {
+        int tier = tierFor(level);
+        if (tier == TIER_NONE) return null;
+        if (tier <= lastTier && now - lastAt < REPEAT_MS) {
+            skipped++;
+            return null;
+        }
+        lastTier = tier;
+        lastAt = now;
+        if (tier >= TIER_DROP) {
+            pausedUntil = now + PAUSE_MS;
+        }
+        applied[tier]++;
+
+        Trim trim = new Trim(level, tier, now);
+        history.addLast(trim);
+        if (history.size() > MAX_HISTORY) {
+            history.removeFirst();
+        }
+        return trim;
+    }
+
+    /** Records what the trim was worth once caches are gone and the web app has had its turn. */
+    public synchronized void finish(Trim trim, long pssBeforeKb, long pssAfterKb) {
+        trim.pssBeforeKb = pssBeforeKb;
+        trim.pssAfterKb = pssAfterKb;
+        if (pssBeforeKb > pssAfterKb) {
+            freedKb += pssBeforeKb - pssAfterKb;
+        }
+    }
+
+    /** Whether work that can wait should hold off. */
+    public synchronized boolean isPaused(long now) {
+        return now < pausedUntil;
+    }
+
+    public synchronized long pausedUntil() {
+        return pausedUntil;
+    }
+
+    public synchronized String toJson(long now) {
+        StringBuilder json = new StringBuilder("{\"applied\":{");
+        for (int tier = TIER_SHRINK; tier < TIER_NAMES.length; tier++) {
+            if (tier > TIER_SHRINK) json.append(',');
+            json.append(JSONObject.quote(TIER_NAMES[tier])).append(':').append(applied[tier]);
+        }
+        json.append("},\"skipped\":").append(skipped)
+            .append(",\"paused\":").append(now < pausedUntil)
+            .append(",\"freedKb\":").append(freedKb)
+            .append(",\"history\":[");
+        Iterator<Trim> trims = history.descendingIterator();
+        for (boolean first = true; trims.hasNext(); first = false) {
+            Trim trim = trims.next();
+            if (!first) json.append(',');
+            json.append("{\"level\":").append(trim.level)
+                .append(",\"tier\":").append(JSONObject.quote(TIER_NAMES[trim.tier]))
+                .append(",\"agoMs\":").append(now - trim.at)
+                .append(",\"pssBeforeKb\":").append(trim.pssBeforeKb)
+                .append(",\"pssAfterKb\":").append(trim.pssAfterKb)
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,154 @@
+package com.ezeyway.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands out stable, collision-free notification ids for order ids of any
+ * format. Each id also owns two PendingIntent request codes (accept/reject),
+ * derived from it so they can never collide either. Ids are persisted so a
+ * restarted process can still update or cancel notifications it posted
+ * earlier, and released ids are reused.
+ *
+ * Assignments and releases are appended to the file, which is rewritten with
+ * only the live ids once it holds {@link #COMPACT_LINES} lines. At most
+ * {@link #MAX_IDS} orders hold an id; past that the oldest assignment expires
+ * and its id is retired rather than reused, since its notification may still
+ * be showing.
+ */
+public class NotificationIdRegistry {
+    /** First id handed out; keeps clear of the fixed ids used by foreground services. */
+    static final int FIRST_ID = 100_000;
+    static final int MAX_IDS = 200;
+    static final int COMPACT_LINES = 4 * MAX_IDS;
+    private static final String RELEASED = "-";
+
+    private final File file;
+    // Oldest assignment first, so expiry drops the order least likely to still be showing
+    private final LinkedHashMap<String, Integer> ids = new LinkedHashMap<>();
+    private final ArrayDeque<Integer> released = new ArrayDeque<>();
+    private int nextId = FIRST_ID;
+    private int lines;
+
+    public NotificationIdRegistry(File file) {
+        this.file = file;
+        load();
+    }
+
+    public synchronized int idFor(String orderId) {
+        Integer id = ids.get(orderId);
+        if (id != null) return id;
+
+        id = released.isEmpty() ? nextId++ : released.poll();
+        ids.put(orderId, id);
+        append(orderId, Integer.toString(id));
+        if (ids.size() > MAX_IDS) {
+            Iterator<String> eldest = ids.keySet().iterator();
+            String expired = eldest.next();
+            eldest.remove();
+            append(expired, RELEASED);
+        }
+        compactIfNeeded();
+        return id;
+    }
+
+    /** @return the id that was assigned to the order, or -1 */
+    public synchronized int release(String orderId) {
+        Integer id = ids.remove(orderId);
+        if (id == null) return -1;
+        released.add(id);
+        append(orderId, RELEASED);
+        compactIfNeeded();
+        return id;
+    }
+
+    public synchronized boolean contains(String orderId) {
+        return ids.containsKey(orderId);
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    public static int acceptRequestCode(int notificationId) {
+        return notificationId * 2;
+    }
+
+    public static int rejectRequestCode(int notificationId) {
+        return notificationId * 2 + 1;
+    }
+
+    private void load() {
+        if (file == null || !file.exists()) return;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                int tab = line.lastIndexOf('\t');
+                if (tab <= 0) continue;
+                String orderId = line.substring(0, tab);
+                String value = line.substring(tab + 1);
+                if (RELEASED.equals(value)) {
+                    ids.remove(orderId);
+                    continue;
+                }
+                try {
+                    int id = Integer.parseInt(value);
+                    ids.put(orderId, id);
+                    nextId = Math.max(nextId, id + 1);
+                } catch (NumberFormatException ignored) {
+                    // Torn write
+                }
+            }
+        } catch (IOException e) {
+            ids.clear();
+        }
+        while (ids.size() > MAX_IDS) {
+            Iterator<String> eldest = ids.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void append(String orderId, String value) {
+        if (file == null) return;
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write(orderId);
+            writer.write('\t');
+            writer.write(value);
+            writer.write('\n');
+            lines++;
+        } catch (IOException ignored) {
+            // The id still holds for this process
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (file == null || lines < COMPACT_LINES) return;
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmp))) {
+            for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(Integer.toString(entry.getValue()));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (tmp.renameTo(file)) {
+            lines = ids.size();
+        } else {
+            tmp.delete();
+        }
+    }
+}
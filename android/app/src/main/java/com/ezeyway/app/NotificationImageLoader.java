@@ -0,0 +1,124 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads product/customer images for order notifications off the FCM thread.
+ *
+ * Images are fetched on a small bounded executor, downsampled to notification
+ * size while decoding, and kept in a memory LRU on top of a size-capped disk
+ * cache. Results are delivered on the main thread; failures are silent so the
+ * text-only notification simply stays as posted.
+ */
+public class NotificationImageLoader {
+    private static final String TAG = "NotificationImageLoader";
+    private static final int TARGET_WIDTH = 1024;
+    private static final int TARGET_HEIGHT = 512;
+    private static final int TIMEOUT_MS = 5000;
+    private static final int MAX_DOWNLOAD_BYTES = 4 * 1024 * 1024;
+    private static final long DISK_CACHE_BYTES = 20L * 1024 * 1024;
+
+    private static NotificationImageLoader instance;
+
+    private final ImageFetcher fetcher;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ThreadPoolExecutor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public interface Callback {
+        void onImageLoaded(Bitmap bitmap);
+    }
+
+    public static synchronized NotificationImageLoader get(Context context) {
+        if (instance == null) {
+            instance = new NotificationImageLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private NotificationImageLoader(Context context) {
+        File dir = new File(context.getCacheDir(), "notification_images");
+        fetcher = new ImageFetcher(new DiskLruCache(dir, DISK_CACHE_BYTES), TIMEOUT_MS, MAX_DOWNLOAD_BYTES);
+
+        int memoryBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 32, 8L * 1024 * 1024);
+        memoryCache = new LruCache<String, Bitmap>(memoryBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+
+        // Two workers and a short queue; under a burst the oldest work is not worth waiting for
+        executor = new ThreadPoolExecutor(
+            2, 2, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(16),
+            new ThreadPoolExecutor.DiscardOldestPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void load(String url, Callback callback) {
+        if (url == null || url.isEmpty()) return;
+
+        Bitmap cached = memoryCache.get(url);
+        if (cached != null) {
+            mainHandler.post(() -> callback.onImageLoaded(cached));
+            return;
+        }
+
+        executor.execute(() -> {
+            byte[] data = fetcher.fetch(url);
+            if (data == null) {
+                Log.w(TAG, "⚠️ Image unavailable: " + url);
+                return;
+            }
+            Bitmap bitmap = decodeSampled(data, TARGET_WIDTH, TARGET_HEIGHT);
+            if (bitmap == null) return;
+
+            memoryCache.put(url, bitmap);
+            mainHandler.post(() -> callback.onImageLoaded(bitmap));
+        });
+    }
+
+    /** Drops decoded bitmaps; the disk cache is kept. */
+    public void trimMemory() {
+        memoryCache.evictAll();
+    }
+
+    /** {@link #trimMemory} without creating the loader if it was never used. */
+    public static synchronized void trimIfLoaded() {
+        if (instance != null) {
+            instance.trimMemory();
+        }
+    }
+
+    static Bitmap decodeSampled(byte[] data, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+    }
+
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        while (width / (inSampleSize * 2) >= reqWidth && height / (inSampleSize * 2) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ezeyway.app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends vendor order actions straight to the API. Connections are left to
+ * HttpURLConnection's keep-alive pool so consecutive actions reuse one socket.
+ */
+public class OrderActionClient {
+    public static final String ACTION_ACCEPT = "accept";
+    public static final String ACTION_REJECT = "reject";
+
+    /** Outcome of one call. */
+    public enum Result {
+        SENT,
+        /** Network error, server error or expired session; worth retrying. */
+        RETRY,
+        /** Rejected by the server (e.g. order already handled); retrying will not help. */
+        DROP
+    }
+
+    private final String baseUrl;
+    private final int timeoutMs;
+
+    public OrderActionClient(String baseUrl, int timeoutMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public Result send(String orderId, String action, String authToken) {
+        if (authToken == null || authToken.isEmpty()) return Result.RETRY;
+
+        HttpURLConnection connection = null;
+        try {
+            URL url = new URL(baseUrl + "/orders/" + orderId + "/" + action + "/");
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setRequestProperty("Authorization", "Token " + authToken);
+            connection.setRequestProperty("Content-Type", "application/json");
+
+            byte[] body = ACTION_REJECT.equals(action)
+                ? "{\"reason\":\"Rejected by vendor\"}".getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+
+            if (status >= 200 && status < 300) return Result.SENT;
+            if (status == 401 || status == 403 || status == 408 || status == 429 || status >= 500) {
+                return Result.RETRY;
+            }
+            return Result.DROP;
+        } catch (IOException e) {
+            if (connection != null) connection.disconnect();
+            return Result.RETRY;
+        }
+    }
+
+    // Reading the body to the end lets the socket go back to the keep-alive pool
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) return;
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[1024];
+            while (stream.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+}
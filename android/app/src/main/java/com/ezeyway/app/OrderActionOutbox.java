@@ -0,0 +1,135 @@
+package com.ezeyway.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Durable queue of order actions that could not be delivered yet.
+ *
+ * Each pending action is retried with exponential backoff until it is sent,
+ * the server refuses it, or it runs out of attempts. The whole queue is
+ * rewritten on every change; it only ever holds a handful of entries.
+ */
+public class OrderActionOutbox {
+    static final long BASE_BACKOFF_MS = 5_000;
+    static final long MAX_BACKOFF_MS = 10 * 60 * 1000L;
+    static final int MAX_ATTEMPTS = 20;
+
+    public static final class Action {
+        public final String orderId;
+        public final String action;
+        int attempts;
+        long nextAttemptAt;
+
+        Action(String orderId, String action, int attempts, long nextAttemptAt) {
+            this.orderId = orderId;
+            this.action = action;
+            this.attempts = attempts;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    private final File file;
+    private final List<Action> actions = new ArrayList<>();
+
+    public OrderActionOutbox(File file) {
+        this.file = file;
+        load();
+    }
+
+    /** Queues an action that just failed once; a newer action for the same order replaces it. */
+    public synchronized void enqueue(String orderId, String action, long now) {
+        removeOrder(orderId);
+        actions.add(new Action(orderId, action, 1, now + backoff(1)));
+        save();
+    }
+
+    /** Actions whose retry time has come, oldest first. */
+    public synchronized List<Action> due(long now) {
+        List<Action> due = new ArrayList<>();
+        for (Action action : actions) {
+            if (action.nextAttemptAt <= now) due.add(action);
+        }
+        return due;
+    }
+
+    public synchronized void complete(Action action) {
+        actions.remove(action);
+        save();
+    }
+
+    public synchronized void retryLater(Action action, long now) {
+        action.attempts++;
+        if (action.attempts >= MAX_ATTEMPTS) {
+            actions.remove(action);
+        } else {
+            action.nextAttemptAt = now + backoff(action.attempts);
+        }
+        save();
+    }
+
+    /** Earliest pending retry time, or -1 when the outbox is empty. */
+    public synchronized long nextAttemptAt() {
+        long next = -1;
+        for (Action action : actions) {
+            if (next < 0 || action.nextAttemptAt < next) next = action.nextAttemptAt;
+        }
+        return next;
+    }
+
+    public synchronized int size() {
+        return actions.size();
+    }
+
+    static long backoff(int attempts) {
+        long delay = BASE_BACKOFF_MS << Math.min(attempts - 1, 16);
+        return Math.min(delay, MAX_BACKOFF_MS);
+    }
+
+    private void removeOrder(String orderId) {
+        Iterator<Action> it = actions.iterator();
+        while (it.hasNext()) {
+            if (it.next().orderId.equals(orderId)) it.remove();
+        }
+    }
+
+    private void load() {
+        if (file == null || !file.exists()) return;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length != 4) continue;
+                try {
+                    actions.add(new Action(parts[0], parts[1], Integer.parseInt(parts[2]), Long.parseLong(parts[3])));
+                } catch (NumberFormatException ignored) {
+                    // Torn write
+                }
+            }
+        } catch (IOException e) {
+            actions.clear();
+        }
+    }
+
+    private void save() {
+        if (file == null) return;
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmp))) {
+            for (Action action : actions) {
+                writer.write(action.orderId + '\t' + action.action + '\t' + action.attempts + '\t' + action.nextAttemptAt);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) tmp.delete();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ezeyway.app;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.util.Log;
+
+public class OrderActionOutboxJob extends JobService {
+    private static final String TAG = "OrderActionOutboxJob";
+    static final int JOB_ID = 12346;
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        Log.d(TAG, "🔁 Retrying queued order actions");
+        OrderActions.flush(this, () -> jobFinished(params, false));
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Unsent actions stay in the outbox and are rescheduled on the next flush
+        return true;
+    }
+}
@@ -0,0 +1,115 @@
+package com.ezeyway.app;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delivers accept/reject actions from native code without starting the WebView.
+ *
+ * Each action is one request, sent immediately on a single worker thread.
+ * When the server answers it, queued actions that are due for a retry are
+ * sent right after, one request each, so they can reuse the keep-alive
+ * connection. Nothing is batched into a shared request. Whatever cannot be
+ * delivered is parked in the {@link OrderActionOutbox} and retried one by one
+ * by {@link OrderActionOutboxJob} once the network is available.
+ */
+public class OrderActions {
+    private static final String TAG = "OrderActions";
+    private static final int TIMEOUT_MS = 8000;
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private static OrderActionOutbox outbox;
+    private static OrderActionClient client;
+
+    static synchronized OrderActionOutbox getOutbox(Context context) {
+        if (outbox == null) {
+            outbox = new OrderActionOutbox(new File(context.getApplicationContext().getFilesDir(), "order_actions.outbox"));
+        }
+        return outbox;
+    }
+
+    private static synchronized OrderActionClient getClient() {
+        if (client == null) {
+            client = new OrderActionClient(VendorSession.API_BASE_URL, TIMEOUT_MS);
+        }
+        return client;
+    }
+
+    /**
+     * Sends the action on a background thread and runs {@code onDone} when it
+     * has either been delivered or safely queued.
+     */
+    public static void submit(Context context, String orderId, String action, Runnable onDone) {
+        Context appContext = context.getApplicationContext();
+        // Handled: frees its slot among the visible notifications and its id
+        OrderNotificationPresenter.get(appContext).dismiss(orderId);
+        worker.execute(() -> {
+            try {
+                String token = VendorSession.getAuthToken(appContext);
+                OrderActionClient.Result result = getClient().send(orderId, action, token);
+                Log.d(TAG, "📤 " + action + " order " + orderId + ": " + result);
+
+                if (result == OrderActionClient.Result.RETRY) {
+                    getOutbox(appContext).enqueue(orderId, action, System.currentTimeMillis());
+                } else {
+                    // Piggyback any queued retries on the connection that just worked
+                    sendDue(appContext, token);
+                }
+                scheduleRetry(appContext);
+            } finally {
+                if (onDone != null) onDone.run();
+            }
+        });
+    }
+
+    /** Retries every due action; called from {@link OrderActionOutboxJob}. */
+    static void flush(Context context, Runnable onDone) {
+        Context appContext = context.getApplicationContext();
+        worker.execute(() -> {
+            try {
+                sendDue(appContext, VendorSession.getAuthToken(appContext));
+                scheduleRetry(appContext);
+            } finally {
+                onDone.run();
+            }
+        });
+    }
+
+    private static void sendDue(Context context, String token) {
+        OrderActionOutbox box = getOutbox(context);
+        List<OrderActionOutbox.Action> due = box.due(System.currentTimeMillis());
+        for (OrderActionOutbox.Action action : due) {
+            OrderActionClient.Result result = getClient().send(action.orderId, action.action, token);
+            Log.d(TAG, "🔁 Retried " + action.action + " order " + action.orderId + ": " + result);
+            if (result == OrderActionClient.Result.RETRY) {
+                box.retryLater(action, System.currentTimeMillis());
+            } else {
+                box.complete(action);
+            }
+        }
+    }
+
+    private static void scheduleRetry(Context context) {
+        long next = getOutbox(context).nextAttemptAt();
+        JobScheduler jobScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (next < 0) {
+            jobScheduler.cancel(OrderActionOutboxJob.JOB_ID);
+            return;
+        }
+
+        JobInfo jobInfo = new JobInfo.Builder(OrderActionOutboxJob.JOB_ID, new ComponentName(context, OrderActionOutboxJob.class))
+            .setMinimumLatency(Math.max(0, next - System.currentTimeMillis()))
+            .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+            .setPersisted(true)
+            .build();
+        jobScheduler.schedule(jobInfo);
+        Log.d(TAG, "⏰ " + getOutbox(context).size() + " order action(s) queued for retry");
+    }
+}
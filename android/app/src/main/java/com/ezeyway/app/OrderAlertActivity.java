@@ -2,11 +2,7 @@ package com.ezeyway.app;
 
 import android.app.Activity;
 import android.content.Intent;
-import android.media.MediaPlayer;
-import android.media.RingtoneManager;
-import android.net.Uri;
 import android.os.Bundle;
-import android.os.Handler;
 import android.util.Log;
 import android.view.View;
 import android.view.WindowManager;
@@ -15,9 +11,10 @@ import android.widget.TextView;
 
 public class OrderAlertActivity extends Activity {
     private static final String TAG = "OrderAlertActivity";
-    private MediaPlayer mediaPlayer;
-    private Handler handler = new Handler();
-    private Runnable ringRunnable;
+    private static final long SCREEN_ON_MS = 60_000;
+    private String ringingOrderId;
+    private OrderPayload order;
+    private PowerBudgetManager.Lease screenOn;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -27,7 +24,6 @@ public class OrderAlertActivity extends Activity {
         getWindow().addFlags(
             WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED |
             WindowManager.LayoutParams.FLAG_DISMISS_KEYGUARD |
-            WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON |
             WindowManager.LayoutParams.FLAG_TURN_SCREEN_ON |
             WindowManager.LayoutParams.FLAG_FULLSCREEN
         );
@@ -35,6 +31,9 @@ public class OrderAlertActivity extends Activity {
         // Create simple layout programmatically
         createLayout();
         
+        // Screen stays on within the order's budget; accepting or dismissing ends it
+        screenOn = PowerBudgetManager.keepScreenOn(this, order != null ? order.orderId : null, SCREEN_ON_MS);
+        
         // Start continuous ringing
         startContinuousRinging();
         
@@ -59,12 +58,13 @@ public class OrderAlertActivity extends Activity {
         layout.addView(title);
         
         // Order details
-        String orderId = getIntent().getStringExtra("orderId");
-        String orderNumber = getIntent().getStringExtra("orderNumber");
-        String amount = getIntent().getStringExtra("amount");
+        order = getIntent().getParcelableExtra(OrderPayload.EXTRA);
         
         TextView details = new TextView(this);
-        details.setText("Order #" + orderNumber + "\nAmount: $" + amount + "\n\nTAP TO ACCEPT!");
+        details.setText(order == null ? "TAP TO ACCEPT!"
+            : "Order #" + order.orderNumber + "\nAmount: $" + order.amount
+              + "\n\n" + order.customerName + "\n" + order.items + "\n" + order.address
+              + "\n\nTAP TO ACCEPT!");
         details.setTextSize(20);
         details.setTextColor(0xFFFFFFFF);
         details.setGravity(android.view.Gravity.CENTER);
@@ -95,46 +95,41 @@ public class OrderAlertActivity extends Activity {
     }
     
     private void startContinuousRinging() {
-        try {
-            Uri alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
-            mediaPlayer = MediaPlayer.create(this, alarmUri);
-            mediaPlayer.setLooping(true);
-            mediaPlayer.start();
-            
-            Log.d(TAG, "🔊 Continuous ringing started");
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to start ringing: " + e.getMessage());
-        }
+        ringingOrderId = order != null ? order.orderId : null;
+        AlertAudioEngine.get(this).startAlert(ringingOrderId);
     }
     
     private void acceptOrder() {
+        OrderTrace.get().mark(ringingOrderId, OrderTrace.STAGE_ACCEPT_TAPPED);
+        acknowledge();
         stopRinging();
         
         // Launch main app with order data
-        Intent intent = new Intent(this, MainActivity.class);
+        Intent intent = AlertsProcess.mainActivityIntent(this);
         intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
         intent.putExtra("autoOpened", true);
-        intent.putExtra("orderId", getIntent().getStringExtra("orderId"));
-        intent.putExtra("orderNumber", getIntent().getStringExtra("orderNumber"));
-        intent.putExtra("amount", getIntent().getStringExtra("amount"));
+        intent.putExtra(OrderPayload.EXTRA, order);
         
         startActivity(intent);
         finish();
     }
     
     private void dismissAlert() {
+        acknowledge();
         stopRinging();
         finish();
     }
     
-    private void stopRinging() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.release();
-            mediaPlayer = null;
+    private void acknowledge() {
+        if (order != null) {
+            AlertEscalator.acknowledge(this, order.orderId, "alert activity");
         }
-        if (handler != null && ringRunnable != null) {
-            handler.removeCallbacks(ringRunnable);
+    }
+    
+    private void stopRinging() {
+        if (ringingOrderId != null) {
+            AlertAudioEngine.get(this).stopAlert(ringingOrderId);
+            ringingOrderId = null;
         }
     }
     
@@ -142,6 +137,9 @@ public class OrderAlertActivity extends Activity {
     protected void onDestroy() {
         super.onDestroy();
         stopRinging();
+        if (screenOn != null) {
+            screenOn.release();
+        }
     }
     
     @Override
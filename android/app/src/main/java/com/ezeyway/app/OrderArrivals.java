@@ -0,0 +1,94 @@
+package com.ezeyway.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares when the same order arrived over the socket and over FCM.
+ *
+ * Every ingestion attempt records its channel and arrival time, duplicates
+ * included, so the second channel to deliver an order is still counted. The
+ * report gives how often each channel won and how far ahead the socket was.
+ */
+public class OrderArrivals {
+    public static final String SOURCE_FCM = "fcm";
+    public static final String SOURCE_SOCKET = "socket";
+
+    private static final int MAX_ORDERS = 512;
+    private static final OrderArrivals instance = new OrderArrivals();
+
+    private static final class Arrival {
+        long fcmAt = -1;
+        long socketAt = -1;
+    }
+
+    private final LinkedHashMap<String, Arrival> arrivals = new LinkedHashMap<String, Arrival>(64, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Arrival> eldest) {
+            return size() > MAX_ORDERS;
+        }
+    };
+
+    public static OrderArrivals get() {
+        return instance;
+    }
+
+    OrderArrivals() {
+    }
+
+    public synchronized void record(String orderId, String source, long wallMs) {
+        if (orderId == null) return;
+        Arrival arrival = arrivals.get(orderId);
+        if (arrival == null) {
+            arrival = new Arrival();
+            arrivals.put(orderId, arrival);
+        }
+        if (SOURCE_SOCKET.equals(source)) {
+            if (arrival.socketAt < 0) arrival.socketAt = wallMs;
+        } else if (arrival.fcmAt < 0) {
+            arrival.fcmAt = wallMs;
+        }
+    }
+
+    public synchronized String toJson() {
+        int socketOnly = 0;
+        int fcmOnly = 0;
+        int socketFirst = 0;
+        int fcmFirst = 0;
+        // Positive when the socket delivered first
+        List<Long> leads = new ArrayList<>();
+        for (Arrival arrival : arrivals.values()) {
+            if (arrival.fcmAt < 0) {
+                socketOnly++;
+            } else if (arrival.socketAt < 0) {
+                fcmOnly++;
+            } else {
+                long lead = arrival.fcmAt - arrival.socketAt;
+                leads.add(lead);
+                if (lead >= 0) socketFirst++; else fcmFirst++;
+            }
+        }
+        Collections.sort(leads);
+
+        return "{\"orders\":" + arrivals.size()
+            + ",\"both\":" + leads.size()
+            + ",\"socketOnly\":" + socketOnly
+            + ",\"fcmOnly\":" + fcmOnly
+            + ",\"socketFirst\":" + socketFirst
+            + ",\"fcmFirst\":" + fcmFirst
+            + ",\"socketLeadMs\":{\"p50\":" + percentile(leads, 0.50)
+            + ",\"p95\":" + percentile(leads, 0.95)
+            + ",\"min\":" + (leads.isEmpty() ? 0 : leads.get(0))
+            + ",\"max\":" + (leads.isEmpty() ? 0 : leads.get(leads.size() - 1))
+            + "}}";
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return 0;
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+}
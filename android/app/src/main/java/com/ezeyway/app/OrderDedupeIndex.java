@@ -0,0 +1,137 @@
+package com.ezeyway.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, persisted index of recently seen order messages.
+ *
+ * FCM redelivers high-priority messages and the backend occasionally sends the
+ * same order twice, so each message is keyed both by its FCM message id and by
+ * its order id. Lookups are O(1); the index never holds more than
+ * {@code capacity} keys and entries older than the TTL count as unseen.
+ * New keys are appended to a journal file that is compacted once it grows to
+ * twice the capacity, so the file stays bounded too.
+ */
+public class OrderDedupeIndex {
+    public static final int DEFAULT_CAPACITY = 512;
+    public static final long DEFAULT_TTL_MS = 30 * 60 * 1000L;
+
+    private final File file;
+    private final int capacity;
+    private final long ttlMs;
+    private final LinkedHashMap<String, Long> seen;
+    private int journalLines;
+
+    public OrderDedupeIndex(File file, int capacity, long ttlMs) {
+        this.file = file;
+        this.capacity = capacity;
+        this.ttlMs = ttlMs;
+        this.seen = new LinkedHashMap<String, Long>(capacity * 4 / 3 + 1, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > OrderDedupeIndex.this.capacity;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Records the message if it has not been seen within the TTL.
+     *
+     * @return true if the message is new and its side effects should run
+     */
+    public synchronized boolean markIfNew(String orderId, String messageId, long now) {
+        String orderKey = orderId != null ? "o:" + orderId : null;
+        String messageKey = messageId != null ? "m:" + messageId : null;
+
+        if (isFresh(messageKey, now) || isFresh(orderKey, now)) {
+            return false;
+        }
+
+        if (orderKey != null) {
+            seen.put(orderKey, now);
+            append(orderKey, now);
+        }
+        if (messageKey != null) {
+            seen.put(messageKey, now);
+            append(messageKey, now);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return seen.size();
+    }
+
+    private boolean isFresh(String key, long now) {
+        if (key == null) return false;
+        Long seenAt = seen.get(key);
+        return seenAt != null && now - seenAt < ttlMs;
+    }
+
+    private void load() {
+        if (file == null || !file.exists()) return;
+
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalLines++;
+                int tab = line.indexOf('\t');
+                if (tab <= 0) continue;
+                try {
+                    long seenAt = Long.parseLong(line.substring(tab + 1));
+                    if (now - seenAt < ttlMs) {
+                        seen.put(line.substring(0, tab), seenAt);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Skip a torn line from an interrupted write
+                }
+            }
+        } catch (IOException e) {
+            seen.clear();
+        }
+    }
+
+    private void append(String key, long seenAt) {
+        if (file == null) return;
+
+        if (journalLines >= capacity * 2) {
+            compact();
+            return;
+        }
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write(key + '\t' + seenAt + '\n');
+            journalLines++;
+        } catch (IOException ignored) {
+            // The in-memory index still dedupes for the life of the process
+        }
+    }
+
+    private void compact() {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmp))) {
+            for (Map.Entry<String, Long> entry : seen.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(Long.toString(entry.getValue()));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (tmp.renameTo(file)) {
+            journalLines = seen.size();
+        } else {
+            tmp.delete();
+        }
+    }
+}
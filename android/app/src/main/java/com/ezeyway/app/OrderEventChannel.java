@@ -0,0 +1,88 @@
+package com.ezeyway.app;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+import java.util.ArrayList;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Buffers order events until the web app is listening and coalesces bursts
+ * into at most one bridge dispatch per frame.
+ */
+public class OrderEventChannel {
+    private static final String TAG = "OrderEventChannel";
+    private static final Object lock = new Object();
+    private static final ArrayList<JSONObject> pending = new ArrayList<>();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final Choreographer.FrameCallback flushCallback = frameTimeNanos -> flush();
+
+    private static OrderEventsPlugin plugin;
+    private static boolean webReady;
+    private static boolean flushScheduled;
+
+    public static void post(JSONObject event) {
+        synchronized (lock) {
+            pending.add(event);
+        }
+        scheduleFlush();
+    }
+
+    static void attach(OrderEventsPlugin instance) {
+        synchronized (lock) {
+            plugin = instance;
+            webReady = false;
+        }
+    }
+
+    static void detach(OrderEventsPlugin instance) {
+        synchronized (lock) {
+            if (plugin == instance) {
+                plugin = null;
+                webReady = false;
+            }
+        }
+    }
+
+    static void markReady() {
+        synchronized (lock) {
+            webReady = true;
+        }
+        Log.d(TAG, "✅ Web app ready for order events");
+        AppStartup.markInteractive();
+        scheduleFlush();
+    }
+
+    private static void scheduleFlush() {
+        synchronized (lock) {
+            if (!webReady || plugin == null || flushScheduled || pending.isEmpty()) return;
+            flushScheduled = true;
+        }
+        mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(flushCallback));
+    }
+
+    private static void flush() {
+        OrderEventsPlugin target;
+        JSONArray batch = new JSONArray();
+        synchronized (lock) {
+            flushScheduled = false;
+            if (!webReady || plugin == null || pending.isEmpty()) return;
+            for (int i = 0; i < pending.size(); i++) {
+                batch.put(pending.get(i));
+            }
+            pending.clear();
+            target = plugin;
+        }
+        target.dispatch(batch);
+        FlightLog.record(FlightRecorder.EVENT_BRIDGE_DISPATCHED, null, batch.length());
+        for (int i = 0; i < batch.length(); i++) {
+            JSONObject event = batch.optJSONObject(i);
+            if (event != null) {
+                AlertsClient.trace(target.getContext(), String.valueOf(event.opt("orderId")), OrderTrace.STAGE_JS_DISPATCHED);
+            }
+        }
+        Log.d(TAG, "📤 Dispatched " + batch.length() + " order event(s) to web app");
+    }
+}
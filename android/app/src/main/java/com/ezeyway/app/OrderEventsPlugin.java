@@ -0,0 +1,107 @@
+package com.ezeyway.app;
+
+import android.os.Bundle;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * Native → WebView channel for order events. The web app calls {@code ready()}
+ * once its listeners are attached; events queued before that are delivered in
+ * the first batch.
+ */
+@CapacitorPlugin(name = "OrderEvents")
+public class OrderEventsPlugin extends Plugin {
+    static final String EVENT_ORDER_EVENTS = "orderEvents";
+
+    @Override
+    public void load() {
+        OrderEventChannel.attach(this);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        OrderEventChannel.detach(this);
+    }
+
+    @PluginMethod
+    public void ready(PluginCall call) {
+        OrderEventChannel.markReady();
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void getInbox(PluginCall call) {
+        long cursor = call.getLong("cursor", 0L);
+        int limit = call.getInt("limit", 50);
+
+        // The inbox is owned by the alerts process
+        Bundle page = AlertsClient.inboxPage(getContext(), cursor, limit);
+        if (page == null || page.containsKey(AlertsProvider.KEY_ERROR)) {
+            call.reject(page == null ? "Alerts process unavailable" : page.getString(AlertsProvider.KEY_ERROR));
+            return;
+        }
+
+        JSObject ret = new JSObject();
+        try {
+            ret.put("orders", new JSONArray(page.getString(AlertsProvider.KEY_ORDERS)));
+        } catch (JSONException e) {
+            call.reject("Failed to decode inbox: " + e.getMessage());
+            return;
+        }
+        ret.put("nextCursor", page.getLong(AlertsProvider.KEY_NEXT_CURSOR));
+        ret.put("hasMore", page.getBoolean(AlertsProvider.KEY_HAS_MORE));
+        call.resolve(ret);
+    }
+
+    @PluginMethod
+    public void ackInbox(PluginCall call) {
+        String orderId = call.getString("orderId");
+        if (orderId == null) {
+            call.reject("orderId is required");
+            return;
+        }
+
+        // Handled in the web app, so it has certainly been seen; the screen
+        // can go back to sleep and the alerts process stops escalating it
+        PowerBudgetManager.releaseOrder(orderId);
+        int removed = AlertsClient.ack(getContext(), orderId, "web app");
+        if (removed < 0) {
+            call.reject("Alerts process unavailable");
+            return;
+        }
+
+        JSObject ret = new JSObject();
+        ret.put("removed", removed);
+        call.resolve(ret);
+    }
+
+    /** Seconds from arrival until each louder tier, while the order is unseen. */
+    @PluginMethod
+    public void setEscalationDeadlines(PluginCall call) {
+        Integer fullScreen = call.getInt("fullScreenSec");
+        Integer overlay = call.getInt("overlaySec");
+        Integer launch = call.getInt("launchSec");
+        if (fullScreen == null || overlay == null || launch == null) {
+            call.reject("fullScreenSec, overlaySec and launchSec are required");
+            return;
+        }
+        String error = AlertsClient.setEscalationDeadlines(
+            getContext(), fullScreen * 1000L, overlay * 1000L, launch * 1000L);
+        if (error != null) {
+            call.reject(error);
+            return;
+        }
+        call.resolve();
+    }
+
+    void dispatch(JSONArray events) {
+        JSObject batch = new JSObject();
+        batch.put("events", events);
+        notifyListeners(EVENT_ORDER_EVENTS, batch, true);
+    }
+}
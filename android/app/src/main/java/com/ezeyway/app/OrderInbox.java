@@ -0,0 +1,304 @@
+package com.ezeyway.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Append-only, file-backed log of received orders so a cold-started web app
+ * can render every pending order without waiting on the network.
+ *
+ * Each order is one tab-separated line prefixed with a sequence number that
+ * doubles as the paging cursor. Acknowledgements, and orders the vendor has
+ * seen but not yet handled, are appended as marker lines.
+ * When the log outgrows {@code maxBytes} it is rewritten with only the pending,
+ * unexpired orders (at most {@code maxPending} of them), headed by the next
+ * sequence number so cursors never go backwards once everything is acked.
+ */
+public class OrderInbox {
+    public static final long DEFAULT_MAX_BYTES = 256 * 1024;
+    public static final int DEFAULT_MAX_PENDING = 200;
+    public static final long DEFAULT_MAX_AGE_MS = 24 * 60 * 60 * 1000L;
+
+    private static final String ACK_PREFIX = "A\t";
+    private static final String NEXT_SEQ_PREFIX = "N\t";
+    private static final String SEEN_PREFIX = "S\t";
+
+    private final File file;
+    private final long maxBytes;
+    private final int maxPending;
+    private final long maxAgeMs;
+    private final TreeMap<Long, OrderPayload> pending = new TreeMap<>();
+    // Pending sequence numbers whose alerts the vendor has already seen
+    private final Set<Long> seen = new HashSet<>();
+    private long nextSeq = 1;
+
+    public static final class Page {
+        public final List<Entry> entries;
+        public final long nextCursor;
+        public final boolean hasMore;
+
+        Page(List<Entry> entries, long nextCursor, boolean hasMore) {
+            this.entries = entries;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+    }
+
+    public static final class Entry {
+        public final long seq;
+        public final OrderPayload event;
+        /** The vendor has seen the alert, so it must not escalate again. */
+        public final boolean seen;
+
+        Entry(long seq, OrderPayload event, boolean seen) {
+            this.seq = seq;
+            this.event = event;
+            this.seen = seen;
+        }
+    }
+
+    public OrderInbox(File file, long maxBytes, int maxPending, long maxAgeMs) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxPending = maxPending;
+        this.maxAgeMs = maxAgeMs;
+        load();
+    }
+
+    public synchronized long append(OrderPayload event) {
+        long seq = nextSeq++;
+        pending.put(seq, event);
+        while (pending.size() > maxPending) {
+            seen.remove(pending.pollFirstEntry().getKey());
+        }
+        writeLine(encode(seq, event));
+        compactIfNeeded();
+        return seq;
+    }
+
+    /**
+     * Returns up to {@code limit} pending orders with a sequence number greater
+     * than {@code afterCursor}, oldest first. Pass 0 to start from the beginning.
+     */
+    public synchronized Page page(long afterCursor, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, pending.size()));
+        long cursor = afterCursor;
+        for (Map.Entry<Long, OrderPayload> e : pending.tailMap(afterCursor, false).entrySet()) {
+            if (entries.size() == limit) break;
+            entries.add(new Entry(e.getKey(), e.getValue(), seen.contains(e.getKey())));
+            cursor = e.getKey();
+        }
+        boolean hasMore = pending.higherKey(cursor) != null;
+        return new Page(entries, cursor, hasMore);
+    }
+
+    /**
+     * Marks every pending entry for the order as handled.
+     */
+    public synchronized int ack(String orderId) {
+        int removed = 0;
+        Iterator<Map.Entry<Long, OrderPayload>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, OrderPayload> e = it.next();
+            if (e.getValue().orderId.equals(orderId)) {
+                it.remove();
+                seen.remove(e.getKey());
+                writeLine(ACK_PREFIX + e.getKey());
+                removed++;
+            }
+        }
+        if (removed > 0) compactIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Records that the vendor has seen the order's alert; it stays pending
+     * until acknowledged.
+     */
+    public synchronized int markSeen(String orderId) {
+        int marked = 0;
+        for (Map.Entry<Long, OrderPayload> e : pending.entrySet()) {
+            if (e.getValue().orderId.equals(orderId) && seen.add(e.getKey())) {
+                writeLine(SEEN_PREFIX + e.getKey());
+                marked++;
+            }
+        }
+        if (marked > 0) compactIfNeeded();
+        return marked;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    long fileSize() {
+        return file != null ? file.length() : 0;
+    }
+
+    private void load() {
+        if (file == null || !file.exists()) return;
+
+        long cutoff = System.currentTimeMillis() - maxAgeMs;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ACK_PREFIX)) {
+                    try {
+                        pending.remove(Long.parseLong(line.substring(ACK_PREFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                        // Torn write
+                    }
+                    continue;
+                }
+                if (line.startsWith(SEEN_PREFIX)) {
+                    try {
+                        seen.add(Long.parseLong(line.substring(SEEN_PREFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                        // Torn write
+                    }
+                    continue;
+                }
+                if (line.startsWith(NEXT_SEQ_PREFIX)) {
+                    try {
+                        nextSeq = Math.max(nextSeq, Long.parseLong(line.substring(NEXT_SEQ_PREFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                        // Torn write
+                    }
+                    continue;
+                }
+                Entry entry = decode(line);
+                if (entry == null) continue;
+                nextSeq = Math.max(nextSeq, entry.seq + 1);
+                if (entry.event.receivedAt >= cutoff) {
+                    pending.put(entry.seq, entry.event);
+                }
+            }
+        } catch (IOException e) {
+            pending.clear();
+        }
+        while (pending.size() > maxPending) {
+            pending.pollFirstEntry();
+        }
+        seen.retainAll(pending.keySet());
+    }
+
+    private void writeLine(String line) {
+        if (file == null) return;
+        try (FileWriter writer = new FileWriter(file, true)) {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException ignored) {
+            // Pending orders are still served from memory for this process
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (file == null || file.length() <= maxBytes) return;
+
+        long cutoff = System.currentTimeMillis() - maxAgeMs;
+        pending.values().removeIf(event -> event.receivedAt < cutoff);
+        seen.retainAll(pending.keySet());
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmp))) {
+            writer.write(NEXT_SEQ_PREFIX + nextSeq);
+            writer.write('\n');
+            for (Map.Entry<Long, OrderPayload> e : pending.entrySet()) {
+                writer.write(encode(e.getKey(), e.getValue()));
+                writer.write('\n');
+                if (seen.contains(e.getKey())) {
+                    writer.write(SEEN_PREFIX + e.getKey());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    static String encode(long seq, OrderPayload event) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(seq).append('\t').append(event.receivedAt).append('\t').append(event.hasOrderId ? '1' : '0');
+        appendField(sb, event.messageId);
+        appendField(sb, event.orderId);
+        appendField(sb, event.orderNumber);
+        appendField(sb, event.customerName);
+        appendField(sb, event.amount);
+        appendField(sb, event.items);
+        appendField(sb, event.address);
+        appendField(sb, event.imageUrl);
+        return sb.toString();
+    }
+
+    static Entry decode(String line) {
+        String[] parts = line.split("\t", -1);
+        if (parts.length != 11) return null;
+        try {
+            long seq = Long.parseLong(parts[0]);
+            long receivedAt = Long.parseLong(parts[1]);
+            OrderPayload event = new OrderPayload(
+                unescape(parts[3]), unescape(parts[4]), unescape(parts[5]), unescape(parts[6]),
+                unescape(parts[7]), unescape(parts[8]), unescape(parts[9]), unescape(parts[10]),
+                receivedAt, "1".equals(parts[2])
+            );
+            return new Entry(seq, event, false);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void appendField(StringBuilder sb, String value) {
+        sb.append('\t');
+        if (value == null) {
+            sb.append("\\0");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if ("\\0".equals(value)) return null;
+        if (value.indexOf('\\') < 0) return value;
+
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
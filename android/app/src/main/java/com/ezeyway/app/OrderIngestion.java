@@ -0,0 +1,65 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.util.Log;
+import java.io.File;
+
+/**
+ * Single entry point for incoming orders. Drops duplicates before any
+ * notification, sound or launch job is triggered.
+ */
+public class OrderIngestion {
+    private static final String TAG = "OrderIngestion";
+    private static OrderDedupeIndex dedupeIndex;
+    private static OrderInbox inbox;
+
+    public static synchronized OrderDedupeIndex getDedupeIndex(Context context) {
+        if (dedupeIndex == null) {
+            File file = new File(context.getApplicationContext().getFilesDir(), "order_dedupe.idx");
+            dedupeIndex = new OrderDedupeIndex(
+                file, OrderDedupeIndex.DEFAULT_CAPACITY, OrderDedupeIndex.DEFAULT_TTL_MS
+            );
+        }
+        return dedupeIndex;
+    }
+
+    public static synchronized OrderInbox getInbox(Context context) {
+        if (inbox == null) {
+            File file = new File(context.getApplicationContext().getFilesDir(), "order_inbox.log");
+            inbox = new OrderInbox(
+                file, OrderInbox.DEFAULT_MAX_BYTES, OrderInbox.DEFAULT_MAX_PENDING, OrderInbox.DEFAULT_MAX_AGE_MS
+            );
+        }
+        return inbox;
+    }
+
+    /**
+     * @param source {@link OrderArrivals#SOURCE_FCM} or {@link OrderArrivals#SOURCE_SOCKET}
+     * @return true if the order was new and alerts were triggered
+     */
+    public static boolean ingest(Context context, OrderPayload order, String source) {
+        AlertsProcess.onMessageReceived();
+        // The player may have been idle-released; prepare it while dedupe and the inbox hit the disk
+        AlertAudioEngine.get(context).preload();
+        // Recorded before dedupe so the slower channel's arrival is measured too
+        OrderArrivals.get().record(order.dedupeOrderKey(), source, System.currentTimeMillis());
+        FlightLog.record(FlightRecorder.EVENT_MESSAGE_RECEIVED, order.orderId,
+            OrderArrivals.SOURCE_SOCKET.equals(source) ? FlightRecorder.SOURCE_SOCKET : FlightRecorder.SOURCE_FCM);
+
+        if (!getDedupeIndex(context).markIfNew(order.dedupeOrderKey(), order.messageId, System.currentTimeMillis())) {
+            Log.d(TAG, "♻️ Duplicate order message dropped: " + order);
+            FlightLog.record(FlightRecorder.EVENT_DUPLICATE_DROPPED, order.orderId);
+            return false;
+        }
+
+        Log.d(TAG, "📥 New order ingested: " + order);
+        OrderTrace.get().mark(order.orderId, OrderTrace.STAGE_RECEIVED);
+
+        // Persist first so the web app can hydrate it even if alerting fails
+        getInbox(context).append(order);
+
+        // Notification and sound now; louder tiers only if the order goes unseen
+        AlertEscalator.start(context, order);
+        return true;
+    }
+}
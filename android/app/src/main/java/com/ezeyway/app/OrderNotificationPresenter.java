@@ -0,0 +1,253 @@
+package com.ezeyway.app;
+
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posts order notifications as one group under an InboxStyle summary.
+ *
+ * Android silently drops notification updates once a package enqueues more
+ * than about five per second, and caps a package at 50 live notifications.
+ * All posts therefore go through a token bucket (four per second) and are
+ * coalesced per order, the summary is refreshed at most once per flush, and
+ * only the oldest {@link #MAX_VISIBLE} orders get their own notification; the
+ * rest are listed in the summary until a slot frees up.
+ *
+ * A slot frees up when the order is handled, wherever that happens: the
+ * notification's own actions, native accept/reject through
+ * {@link OrderActions}, or an ack from the web app through
+ * {@link AlertsProvider}. Each of those calls {@link #dismiss}.
+ */
+public class OrderNotificationPresenter {
+    private static final String TAG = "OrderNotifications";
+    private static final String CHANNEL_ID = "order_notifications";
+    private static final String GROUP_KEY = "com.ezeyway.app.ORDERS";
+    private static final int SUMMARY_ID = 99_999;
+    static final int MAX_VISIBLE = 20;
+    private static final int SUMMARY_LINES = 6;
+    private static final double POSTS_PER_SECOND = 4;
+    private static final double BURST = 4;
+
+    private static OrderNotificationPresenter instance;
+
+    private final Context context;
+    private final NotificationManager notificationManager;
+    private final NotificationIdRegistry registry;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LinkedHashMap<String, Pending> orders = new LinkedHashMap<>();
+    private final LinkedHashSet<String> dirty = new LinkedHashSet<>();
+    private final Runnable flushRunnable = this::flush;
+
+    private boolean summaryDirty;
+    private boolean summaryPosted;
+    private boolean flushScheduled;
+    private int postCount;
+    private double tokens = BURST;
+    private long lastRefill = SystemClock.elapsedRealtime();
+
+    private static final class Pending {
+        final String summaryLine;
+        NotificationCompat.Builder builder;
+        boolean posted;
+
+        Pending(String summaryLine, NotificationCompat.Builder builder) {
+            this.summaryLine = summaryLine;
+            this.builder = builder;
+        }
+    }
+
+    public static synchronized OrderNotificationPresenter get(Context context) {
+        if (instance == null) {
+            instance = new OrderNotificationPresenter(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /** Lets the next {@link #get} bind to a new application; Robolectric keeps statics across tests. */
+    static synchronized void reset() {
+        instance = null;
+    }
+
+    private OrderNotificationPresenter(Context context) {
+        this.context = context;
+        this.notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        this.registry = new NotificationIdRegistry(new File(context.getFilesDir(), "notification_ids.txt"));
+    }
+
+    /** Stable notification id for the order; request codes derive from it. */
+    public int notificationIdFor(String orderId) {
+        return registry.idFor(orderId);
+    }
+
+    public void show(String orderId, String summaryLine, NotificationCompat.Builder builder) {
+        builder.setGroup(GROUP_KEY).setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_CHILDREN);
+        mainHandler.post(() -> {
+            orders.put(orderId, new Pending(summaryLine, builder));
+            dirty.add(orderId);
+            summaryDirty = true;
+            scheduleFlush();
+        });
+    }
+
+    /** Re-posts a pending order quietly, e.g. once its image has loaded. */
+    public void update(String orderId, NotificationCompat.Builder builder) {
+        mainHandler.post(() -> {
+            Pending pending = orders.get(orderId);
+            if (pending == null) return;
+            pending.builder = builder.setOnlyAlertOnce(true);
+            dirty.add(orderId);
+            scheduleFlush();
+        });
+    }
+
+    /** Re-posts an order so it alerts again, this time with a full-screen intent. */
+    public void escalate(String orderId, PendingIntent fullScreenIntent) {
+        mainHandler.post(() -> {
+            Pending pending = orders.get(orderId);
+            if (pending == null) return;
+            pending.builder = pending.builder.setFullScreenIntent(fullScreenIntent, true).setOnlyAlertOnce(false);
+            dirty.add(orderId);
+            scheduleFlush();
+        });
+    }
+
+    public void dismiss(String orderId) {
+        mainHandler.post(() -> {
+            if (orders.remove(orderId) == null && !registry.contains(orderId)) return;
+            dirty.remove(orderId);
+            int id = registry.release(orderId);
+            if (id >= 0) {
+                // Cancels are not rate limited
+                notificationManager.cancel(id);
+            }
+            promoteHidden();
+            summaryDirty = true;
+            scheduleFlush();
+        });
+    }
+
+    private void promoteHidden() {
+        int index = 0;
+        for (Map.Entry<String, Pending> entry : orders.entrySet()) {
+            if (index++ >= MAX_VISIBLE) break;
+            if (!entry.getValue().posted) dirty.add(entry.getKey());
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        mainHandler.postDelayed(flushRunnable, millisUntilToken());
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        refill();
+
+        List<String> visible = visibleOrders();
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext() && tokens >= 1) {
+            String orderId = it.next();
+            it.remove();
+            Pending pending = orders.get(orderId);
+            if (pending == null || !visible.contains(orderId)) continue;
+
+            notificationManager.notify(registry.idFor(orderId), pending.builder.build());
+            FlightLog.record(FlightRecorder.EVENT_NOTIFICATION_POSTED, orderId);
+            postCount++;
+            tokens--;
+            if (!pending.posted) {
+                pending.posted = true;
+                OrderTrace.get().mark(orderId, OrderTrace.STAGE_NOTIFY_POSTED);
+                AlertsProcess.onAlertPosted();
+            }
+        }
+
+        if (summaryDirty && tokens >= 1) {
+            postSummary();
+        }
+
+        if (!dirty.isEmpty() || summaryDirty) {
+            scheduleFlush();
+        }
+    }
+
+    private void postSummary() {
+        summaryDirty = false;
+        if (orders.size() < 2) {
+            if (summaryPosted) {
+                notificationManager.cancel(SUMMARY_ID);
+                summaryPosted = false;
+            }
+            return;
+        }
+
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        List<Pending> pending = new ArrayList<>(orders.values());
+        for (int i = pending.size() - 1; i >= 0 && i >= pending.size() - SUMMARY_LINES; i--) {
+            style.addLine(pending.get(i).summaryLine);
+        }
+        if (pending.size() > SUMMARY_LINES) {
+            style.setSummaryText("+" + (pending.size() - SUMMARY_LINES) + " more");
+        }
+
+        NotificationCompat.Builder summary = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(android.R.drawable.ic_dialog_alert)
+            .setContentTitle("🔥 " + orders.size() + " pending orders")
+            .setContentText(pending.get(pending.size() - 1).summaryLine)
+            .setStyle(style)
+            .setNumber(orders.size())
+            .setPriority(NotificationCompat.PRIORITY_MAX)
+            .setCategory(NotificationCompat.CATEGORY_CALL)
+            .setGroup(GROUP_KEY)
+            .setGroupSummary(true)
+            .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_CHILDREN)
+            .setOnlyAlertOnce(true)
+            .setOngoing(true);
+
+        notificationManager.notify(SUMMARY_ID, summary.build());
+        postCount++;
+        summaryPosted = true;
+        tokens--;
+        Log.d(TAG, "📚 Summary updated: " + orders.size() + " pending order(s)");
+    }
+
+    /** Notifications actually handed to the system, summaries included. */
+    public int getPostCount() {
+        return postCount;
+    }
+
+    private List<String> visibleOrders() {
+        List<String> visible = new ArrayList<>(Math.min(orders.size(), MAX_VISIBLE));
+        for (String orderId : orders.keySet()) {
+            if (visible.size() == MAX_VISIBLE) break;
+            visible.add(orderId);
+        }
+        return visible;
+    }
+
+    private void refill() {
+        long now = SystemClock.elapsedRealtime();
+        tokens = Math.min(BURST, tokens + (now - lastRefill) * POSTS_PER_SECOND / 1000.0);
+        lastRefill = now;
+    }
+
+    private long millisUntilToken() {
+        refill();
+        if (tokens >= 1) return 0;
+        return (long) Math.ceil((1 - tokens) * 1000.0 / POSTS_PER_SECOND);
+    }
+}
@@ -0,0 +1,193 @@
+package com.ezeyway.app;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.PersistableBundle;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The full order as received, parsed once at ingestion and then carried
+ * through every native component: as a single Parcelable intent extra
+ * ({@link #EXTRA}) between activities and services, and as a
+ * {@link PersistableBundle} for JobScheduler.
+ */
+public final class OrderPayload implements Parcelable {
+    public static final String EXTRA = "com.ezeyway.app.ORDER";
+
+    public final String messageId;
+    public final String orderId;
+    public final String orderNumber;
+    public final String customerName;
+    public final String amount;
+    public final String items;
+    public final String address;
+    public final String imageUrl;
+    public final long receivedAt;
+    /** False when the payload had no orderId and the test placeholder was used. */
+    public final boolean hasOrderId;
+
+    public OrderPayload(String messageId, String orderId, String orderNumber, String customerName,
+                        String amount, String items, String address, String imageUrl, long receivedAt,
+                        boolean hasOrderId) {
+        this.messageId = messageId;
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.customerName = customerName;
+        this.amount = amount;
+        this.items = items;
+        this.address = address;
+        this.imageUrl = imageUrl;
+        this.receivedAt = receivedAt;
+        this.hasOrderId = hasOrderId;
+    }
+
+    public static OrderPayload fromData(String messageId, Map<String, String> data, long receivedAt) {
+        return new OrderPayload(
+            messageId,
+            valueOr(data, "orderId", "999"),
+            valueOr(data, "orderNumber", "TEST-ORDER"),
+            valueOr(data, "customerName", "Customer"),
+            valueOr(data, "amount", "100"),
+            valueOr(data, "items", "Order items"),
+            valueOr(data, "address", "Delivery address"),
+            valueOr(data, "imageUrl", ""),
+            receivedAt,
+            data.get("orderId") != null && !data.get("orderId").isEmpty()
+        );
+    }
+
+    /** Minimal payload for debug and test launches that only know the basics. */
+    public static OrderPayload basic(String orderId, String orderNumber, String amount) {
+        return new OrderPayload(null, orderId, orderNumber, "Customer", amount,
+            "Order items", "Delivery address", "", System.currentTimeMillis(), true);
+    }
+
+    private static String valueOr(Map<String, String> data, String key, String fallback) {
+        String value = data.get(key);
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+
+    /** Order id to dedupe on, or null when the payload did not carry one. */
+    public String dedupeOrderKey() {
+        return hasOrderId ? orderId : null;
+    }
+
+    public JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("orderId", orderId);
+        json.put("orderNumber", orderNumber);
+        json.put("customerName", customerName);
+        json.put("amount", amount);
+        json.put("items", items);
+        json.put("address", address);
+        json.put("imageUrl", imageUrl);
+        json.put("messageId", messageId);
+        json.put("receivedAt", receivedAt);
+        return json;
+    }
+
+    /**
+     * Event shape the web app expects for an auto-opened order: the payload
+     * plus launch flags, with a numeric orderId when the id is numeric.
+     */
+    public JSONObject toBridgeJson(boolean forceOpened, boolean fromService, long now) throws JSONException {
+        JSONObject json = toJson();
+        json.put("orderId", parseOrderId(orderId));
+        json.put("autoOpened", true);
+        json.put("forceOpened", forceOpened);
+        json.put("fromBackground", true);
+        json.put("fromService", fromService);
+        json.put("timestamp", now);
+        return json;
+    }
+
+    private static Object parseOrderId(String orderId) {
+        try {
+            return Long.parseLong(orderId);
+        } catch (NumberFormatException e) {
+            return orderId;
+        }
+    }
+
+    public PersistableBundle toPersistableBundle() {
+        PersistableBundle bundle = new PersistableBundle();
+        bundle.putString("messageId", messageId);
+        bundle.putString("orderId", orderId);
+        bundle.putString("orderNumber", orderNumber);
+        bundle.putString("customerName", customerName);
+        bundle.putString("amount", amount);
+        bundle.putString("items", items);
+        bundle.putString("address", address);
+        bundle.putString("imageUrl", imageUrl);
+        bundle.putLong("receivedAt", receivedAt);
+        bundle.putInt("hasOrderId", hasOrderId ? 1 : 0);
+        return bundle;
+    }
+
+    public static OrderPayload fromPersistableBundle(PersistableBundle bundle) {
+        if (bundle == null || bundle.getString("orderId") == null) return null;
+        return new OrderPayload(
+            bundle.getString("messageId"),
+            bundle.getString("orderId"),
+            bundle.getString("orderNumber"),
+            bundle.getString("customerName"),
+            bundle.getString("amount"),
+            bundle.getString("items"),
+            bundle.getString("address"),
+            bundle.getString("imageUrl"),
+            bundle.getLong("receivedAt"),
+            bundle.getInt("hasOrderId") == 1
+        );
+    }
+
+    private OrderPayload(Parcel in) {
+        messageId = in.readString();
+        orderId = in.readString();
+        orderNumber = in.readString();
+        customerName = in.readString();
+        amount = in.readString();
+        items = in.readString();
+        address = in.readString();
+        imageUrl = in.readString();
+        receivedAt = in.readLong();
+        hasOrderId = in.readInt() == 1;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(messageId);
+        dest.writeString(orderId);
+        dest.writeString(orderNumber);
+        dest.writeString(customerName);
+        dest.writeString(amount);
+        dest.writeString(items);
+        dest.writeString(address);
+        dest.writeString(imageUrl);
+        dest.writeLong(receivedAt);
+        dest.writeInt(hasOrderId ? 1 : 0);
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    public static final Creator<OrderPayload> CREATOR = new Creator<OrderPayload>() {
+        @Override
+        public OrderPayload createFromParcel(Parcel in) {
+            return new OrderPayload(in);
+        }
+
+        @Override
+        public OrderPayload[] newArray(int size) {
+            return new OrderPayload[size];
+        }
+    };
+
+    @Override
+    public String toString() {
+        return "OrderPayload{orderId=" + orderId + ", orderNumber=" + orderNumber + ", messageId=" + messageId + "}";
+    }
+}
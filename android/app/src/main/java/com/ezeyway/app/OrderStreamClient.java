@@ -0,0 +1,265 @@
+package com.ezeyway.app;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * One long-lived WebSocket to the order server's notification endpoint, the
+ * same one the web app's {@code useNotificationWebSocket} uses.
+ *
+ * Sends the JSON {@code ping} the server answers with {@code pong}, on the
+ * {@link StreamHeartbeat} interval, and treats a missing pong as a dead
+ * connection. Drops are retried with {@link ReconnectBackoff} for as long as
+ * the client is started. Order notifications are flattened into the same
+ * string map FCM delivers and handed to the {@link Listener}.
+ *
+ * All state changes run on the single-threaded {@code scheduler}.
+ */
+public class OrderStreamClient {
+    /** Supplies the current auth token, or null when logged out. */
+    public interface TokenSource {
+        String get();
+    }
+
+    public interface Listener {
+        void onOrder(String messageId, Map<String, String> data);
+
+        void onConnectionChanged(boolean connected);
+    }
+
+    private final OkHttpClient http;
+    private final String url;
+    private final TokenSource tokens;
+    private final Listener listener;
+    private final ScheduledExecutorService scheduler;
+    private final StreamHeartbeat heartbeat = new StreamHeartbeat();
+    private final ReconnectBackoff backoff = new ReconnectBackoff(new Random());
+
+    private WebSocket socket;
+    private boolean started;
+    private boolean connected;
+    private int generation;
+    private int reconnects;
+    private ScheduledFuture<?> pingTask;
+    private ScheduledFuture<?> pongTimeout;
+    private ScheduledFuture<?> reconnectTask;
+
+    public OrderStreamClient(OkHttpClient http, String url, TokenSource tokens, Listener listener,
+                             ScheduledExecutorService scheduler) {
+        this.http = http;
+        this.url = url;
+        this.tokens = tokens;
+        this.listener = listener;
+        this.scheduler = scheduler;
+    }
+
+    public void start() {
+        scheduler.execute(() -> {
+            if (started) return;
+            started = true;
+            backoff.reset();
+            connect();
+        });
+    }
+
+    public void stop() {
+        scheduler.execute(() -> {
+            started = false;
+            cancelTimers();
+            if (reconnectTask != null) reconnectTask.cancel(false);
+            if (socket != null) {
+                socket.close(1000, "Shop closed");
+                socket = null;
+            }
+            setConnected(false);
+        });
+    }
+
+    /** Drops the current connection and reconnects now, e.g. after a network change. */
+    public void reconnectNow() {
+        scheduler.execute(() -> {
+            if (!started) return;
+            heartbeat.reset();
+            backoff.reset();
+            if (socket != null) socket.cancel();
+            dropAndReconnect(0);
+        });
+    }
+
+    public int getReconnects() {
+        return reconnects;
+    }
+
+    public long getHeartbeatIntervalMs() {
+        return heartbeat.intervalMs();
+    }
+
+    private void connect() {
+        String token = tokens.get();
+        if (token == null || token.isEmpty()) {
+            scheduleReconnect(backoff.nextDelayMs());
+            return;
+        }
+
+        int gen = ++generation;
+        Request request = new Request.Builder().url(url + "?token=" + token).build();
+        socket = http.newWebSocket(request, new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                post(() -> {
+                    if (gen != generation) return;
+                    backoff.reset();
+                    setConnected(true);
+                    send(webSocket, "{\"type\":\"authenticate\",\"token\":" + JSONObject.quote(token) + "}");
+                    schedulePing();
+                });
+            }
+
+            @Override
+            public void onMessage(WebSocket webSocket, String text) {
+                post(() -> {
+                    if (gen == generation) handleMessage(text);
+                });
+            }
+
+            @Override
+            public void onClosing(WebSocket webSocket, int code, String reason) {
+                // Server-initiated close; finish the handshake and reconnect
+                webSocket.close(1000, null);
+                post(() -> {
+                    if (gen == generation) dropAndReconnect(backoff.nextDelayMs());
+                });
+            }
+
+            @Override
+            public void onClosed(WebSocket webSocket, int code, String reason) {
+                post(() -> {
+                    if (gen == generation) dropAndReconnect(backoff.nextDelayMs());
+                });
+            }
+
+            @Override
+            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+                post(() -> {
+                    if (gen == generation) dropAndReconnect(backoff.nextDelayMs());
+                });
+            }
+        });
+    }
+
+    private void handleMessage(String text) {
+        JSONObject message;
+        try {
+            message = new JSONObject(text);
+        } catch (JSONException e) {
+            return;
+        }
+
+        String type = message.optString("type");
+        if ("pong".equals(type)) {
+            if (pongTimeout != null) {
+                pongTimeout.cancel(false);
+                pongTimeout = null;
+                heartbeat.onPong();
+            }
+            schedulePing();
+            return;
+        }
+
+        if (!"order_notification".equals(type) && !"new_order".equals(type)) return;
+
+        JSONObject notification = message.optJSONObject("notification");
+        if (notification == null) notification = message;
+        JSONObject data = notification.optJSONObject("data");
+        if (data == null) data = notification;
+
+        Map<String, String> flat = new HashMap<>();
+        Iterator<String> keys = data.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            Object value = data.opt(key);
+            if (value != null && value != JSONObject.NULL && !(value instanceof JSONObject)) {
+                flat.put(key, String.valueOf(value));
+            }
+        }
+        if (!flat.containsKey("orderId") && flat.containsKey("order_id")) {
+            flat.put("orderId", flat.get("order_id"));
+        }
+        if (!flat.containsKey("orderId")) return;
+
+        String id = notification.optString("id", null);
+        listener.onOrder(id != null ? "ws:" + id : null, flat);
+    }
+
+    private void schedulePing() {
+        if (pingTask != null) pingTask.cancel(false);
+        pingTask = scheduler.schedule(() -> {
+            if (socket == null) return;
+            send(socket, "{\"type\":\"ping\"}");
+            pongTimeout = scheduler.schedule(() -> {
+                // No pong: the NAT mapping or the server is gone
+                heartbeat.onTimeout();
+                if (socket != null) socket.cancel();
+                dropAndReconnect(0);
+            }, StreamHeartbeat.PONG_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }, heartbeat.intervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    // OkHttp threads may still call back after the owner shut the scheduler down
+    private void post(Runnable task) {
+        try {
+            scheduler.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Client is gone; nothing left to update
+        }
+    }
+
+    private void send(WebSocket webSocket, String text) {
+        if (!webSocket.send(text)) {
+            dropAndReconnect(backoff.nextDelayMs());
+        }
+    }
+
+    private void dropAndReconnect(long delayMs) {
+        generation++;
+        socket = null;
+        cancelTimers();
+        setConnected(false);
+        if (started) scheduleReconnect(delayMs);
+    }
+
+    private void scheduleReconnect(long delayMs) {
+        if (reconnectTask != null) reconnectTask.cancel(false);
+        reconnectTask = scheduler.schedule(() -> {
+            if (!started || socket != null) return;
+            reconnects++;
+            connect();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelTimers() {
+        if (pingTask != null) pingTask.cancel(false);
+        if (pongTimeout != null) pongTimeout.cancel(false);
+        pingTask = null;
+        pongTimeout = null;
+    }
+
+    private void setConnected(boolean value) {
+        if (connected == value) return;
+        connected = value;
+        listener.onConnectionChanged(value);
+    }
+}
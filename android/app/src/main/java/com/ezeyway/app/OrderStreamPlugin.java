@@ -0,0 +1,41 @@
+package com.ezeyway.app;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import org.json.JSONException;
+
+/**
+ * JS control for {@link OrderStreamService}: the vendor's opt-in, the shop's
+ * open state, and the socket-versus-FCM latency report.
+ */
+@CapacitorPlugin(name = "OrderStream")
+public class OrderStreamPlugin extends Plugin {
+
+    @PluginMethod
+    public void setEnabled(PluginCall call) {
+        OrderStreamService.setEnabled(getContext(), call.getBoolean("enabled", false));
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void setShopOpen(PluginCall call) {
+        OrderStreamService.setShopOpen(getContext(), call.getBoolean("open", false));
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void getStatus(PluginCall call) {
+        try {
+            // The service runs in the alerts process
+            String stats = AlertsClient.stats(getContext(), AlertsProvider.STATS_ORDER_STREAM);
+            JSObject ret = new JSObject("null".equals(stats) ? "{\"running\":false}" : stats);
+            ret.put("enabled", OrderStreamService.isEnabled(getContext()));
+            call.resolve(ret);
+        } catch (JSONException e) {
+            call.reject("Failed to encode status: " + e.getMessage());
+        }
+    }
+}
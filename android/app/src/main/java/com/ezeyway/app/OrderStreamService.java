@@ -0,0 +1,195 @@
+package com.ezeyway.app;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.pm.ServiceInfo;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Build;
+import android.os.IBinder;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+
+/**
+ * Opt-in foreground service that keeps the order socket open while the shop
+ * is open, so orders arrive even when FCM is held back by Doze or an OEM
+ * battery manager. Orders go through {@link OrderIngestion} exactly like FCM
+ * messages; whichever channel delivers first wins and the other is deduped,
+ * and {@link OrderArrivals} records both arrivals for comparison.
+ */
+public class OrderStreamService extends Service {
+    private static final String TAG = "OrderStreamService";
+    private static final String CHANNEL_ID = "ORDER_STREAM_CHANNEL";
+    private static final int NOTIFICATION_ID = 9996;
+    private static final String PREFS = "order_stream";
+    private static final String KEY_ENABLED = "enabled";
+    private static final String KEY_SHOP_OPEN = "shopOpen";
+
+    private static volatile OrderStreamClient activeClient;
+    private static volatile boolean connected;
+
+    private ScheduledExecutorService scheduler;
+    private OrderStreamClient client;
+    private ConnectivityManager.NetworkCallback networkCallback;
+
+    /** Vendor opt-in; the socket only runs while this is on and the shop is open. */
+    public static void setEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(KEY_ENABLED, enabled).apply();
+        apply(context);
+    }
+
+    public static void setShopOpen(Context context, boolean open) {
+        prefs(context).edit().putBoolean(KEY_SHOP_OPEN, open).apply();
+        apply(context);
+    }
+
+    public static boolean isEnabled(Context context) {
+        return prefs(context).getBoolean(KEY_ENABLED, false);
+    }
+
+    private static void apply(Context context) {
+        SharedPreferences prefs = prefs(context);
+        Intent intent = new Intent(context, OrderStreamService.class);
+        if (prefs.getBoolean(KEY_ENABLED, false) && prefs.getBoolean(KEY_SHOP_OPEN, false)) {
+            ContextCompat.startForegroundService(context, intent);
+        } else {
+            context.stopService(intent);
+        }
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    public static String statsJson() {
+        OrderStreamClient client = activeClient;
+        return "{\"running\":" + (client != null)
+            + ",\"connected\":" + connected
+            + ",\"heartbeatMs\":" + (client != null ? client.getHeartbeatIntervalMs() : 0)
+            + ",\"reconnects\":" + (client != null ? client.getReconnects() : 0)
+            + ",\"arrivals\":" + OrderArrivals.get().toJson() + "}";
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FlightLog.record(FlightRecorder.EVENT_SERVICE_CREATED, null, FlightRecorder.SERVICE_ORDER_STREAM);
+        createNotificationChannel();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        OkHttpClient http = new OkHttpClient.Builder()
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .build();
+        client = new OrderStreamClient(http, VendorSession.NOTIFICATIONS_WS_URL,
+            () -> VendorSession.getAuthToken(this),
+            new OrderStreamClient.Listener() {
+                @Override
+                public void onOrder(String messageId, Map<String, String> data) {
+                    OrderPayload order = OrderPayload.fromData(messageId, data, System.currentTimeMillis());
+                    Log.d(TAG, "⚡ Order over socket: " + order);
+                    OrderIngestion.ingest(OrderStreamService.this, order, OrderArrivals.SOURCE_SOCKET);
+                }
+
+                @Override
+                public void onConnectionChanged(boolean isConnected) {
+                    connected = isConnected;
+                    Log.d(TAG, isConnected ? "🔌 Order socket connected" : "🔌 Order socket disconnected");
+                    NotificationManager manager = getSystemService(NotificationManager.class);
+                    manager.notify(NOTIFICATION_ID, createNotification());
+                }
+            },
+            scheduler);
+        activeClient = client;
+        registerNetworkCallback();
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        if (Build.VERSION.SDK_INT >= 34) {
+            startForeground(NOTIFICATION_ID, createNotification(), ServiceInfo.FOREGROUND_SERVICE_TYPE_REMOTE_MESSAGING);
+        } else {
+            startForeground(NOTIFICATION_ID, createNotification());
+        }
+        client.start();
+        Log.d(TAG, "🚀 Order stream started");
+        return START_STICKY;
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    @Override
+    public void onDestroy() {
+        if (networkCallback != null) {
+            ConnectivityManager cm = getSystemService(ConnectivityManager.class);
+            cm.unregisterNetworkCallback(networkCallback);
+        }
+        client.stop();
+        scheduler.shutdown();
+        activeClient = null;
+        connected = false;
+        Log.d(TAG, "🛑 Order stream stopped");
+        FlightLog.record(FlightRecorder.EVENT_SERVICE_DESTROYED, null, FlightRecorder.SERVICE_ORDER_STREAM);
+        super.onDestroy();
+    }
+
+    private void registerNetworkCallback() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) return;
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            private Network current;
+
+            @Override
+            public void onAvailable(Network network) {
+                // A new default network means new NAT behaviour and a dead socket
+                if (current != null && !current.equals(network)) {
+                    client.reconnectNow();
+                }
+                current = network;
+            }
+        };
+        getSystemService(ConnectivityManager.class).registerDefaultNetworkCallback(networkCallback);
+    }
+
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "Live Order Connection",
+                NotificationManager.IMPORTANCE_MIN
+            );
+            channel.setDescription("Keeps a live connection for instant orders while your shop is open");
+
+            NotificationManager manager = getSystemService(NotificationManager.class);
+            manager.createNotificationChannel(channel);
+        }
+    }
+
+    private Notification createNotification() {
+        Intent notificationIntent = AlertsProcess.mainActivityIntent(this);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            this, 0, notificationIntent, PendingIntent.FLAG_IMMUTABLE
+        );
+
+        return new NotificationCompat.Builder(this, CHANNEL_ID)
+            .setContentTitle("Shop is open")
+            .setContentText(connected ? "Receiving orders instantly" : "Connecting to order server...")
+            .setSmallIcon(android.R.drawable.stat_notify_sync)
+            .setContentIntent(pendingIntent)
+            .setOngoing(true)
+            .build();
+    }
+}
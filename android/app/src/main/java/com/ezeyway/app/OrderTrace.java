@@ -0,0 +1,137 @@
+package com.ezeyway.app;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Records per-order alert latency spans into a fixed ring buffer.
+ *
+ * Every order gets a trace id at receipt (derived from its order id, so any
+ * component that knows the order can record against it without extra
+ * plumbing). Recording a span only writes three primitives into preallocated
+ * arrays; percentiles are computed on demand when a report is requested.
+ */
+public final class OrderTrace {
+    public static final int STAGE_RECEIVED = 0;
+    public static final int STAGE_NOTIFY_POSTED = 1;
+    public static final int STAGE_JOB_STARTED = 2;
+    public static final int STAGE_ACTIVITY_CREATED = 3;
+    public static final int STAGE_JS_DISPATCHED = 4;
+    public static final int STAGE_ACCEPT_TAPPED = 5;
+
+    static final String[] STAGE_NAMES = {
+        "received", "notifyPosted", "jobStarted", "activityCreated", "jsDispatched", "acceptTapped"
+    };
+
+    private static final int DEFAULT_CAPACITY = 2048;
+    private static final OrderTrace instance = new OrderTrace(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final int[] traceIds;
+    private final byte[] stages;
+    private final long[] timestamps;
+    private long written;
+
+    public static OrderTrace get() {
+        return instance;
+    }
+
+    OrderTrace(int capacity) {
+        this.capacity = capacity;
+        this.traceIds = new int[capacity];
+        this.stages = new byte[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    public static int traceIdFor(String orderId) {
+        return orderId != null ? orderId.hashCode() : 0;
+    }
+
+    /** Records a stage for the order at the current monotonic time. */
+    public void mark(String orderId, int stage) {
+        record(traceIdFor(orderId), stage, System.nanoTime());
+    }
+
+    public synchronized void record(int traceId, int stage, long nanoTime) {
+        int slot = (int) (written % capacity);
+        traceIds[slot] = traceId;
+        stages[slot] = (byte) stage;
+        timestamps[slot] = nanoTime;
+        written++;
+    }
+
+    /**
+     * Latency percentiles in milliseconds from receipt to {@code stage}, as
+     * {p50, p95, p99, count}. Only traces whose receipt is still in the buffer count.
+     */
+    public double[] percentiles(int stage) {
+        long[] latencies = latenciesFor(stage);
+        if (latencies.length == 0) {
+            return new double[] {0, 0, 0, 0};
+        }
+        Arrays.sort(latencies);
+        return new double[] {
+            percentile(latencies, 0.50) / 1e6,
+            percentile(latencies, 0.95) / 1e6,
+            percentile(latencies, 0.99) / 1e6,
+            latencies.length
+        };
+    }
+
+    /** JSON histogram summary for every stage after receipt. */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append('{');
+        for (int stage = STAGE_NOTIFY_POSTED; stage < STAGE_NAMES.length; stage++) {
+            double[] p = percentiles(stage);
+            if (stage > STAGE_NOTIFY_POSTED) sb.append(',');
+            sb.append('"').append(STAGE_NAMES[stage]).append("\":{")
+                .append("\"p50\":").append(round(p[0]))
+                .append(",\"p95\":").append(round(p[1]))
+                .append(",\"p99\":").append(round(p[2]))
+                .append(",\"count\":").append((long) p[3])
+                .append('}');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private synchronized long[] latenciesFor(int stage) {
+        int size = (int) Math.min(written, capacity);
+        long start = written - size;
+
+        HashMap<Integer, Long> receivedAt = new HashMap<>();
+        for (long i = start; i < written; i++) {
+            int slot = (int) (i % capacity);
+            if (stages[slot] == STAGE_RECEIVED) {
+                receivedAt.put(traceIds[slot], timestamps[slot]);
+            }
+        }
+
+        // First occurrence of the stage after the most recent receipt for each trace
+        HashMap<Integer, Long> latencies = new HashMap<>();
+        for (long i = start; i < written; i++) {
+            int slot = (int) (i % capacity);
+            if (stages[slot] != stage) continue;
+            Long received = receivedAt.get(traceIds[slot]);
+            if (received == null || timestamps[slot] < received) continue;
+            latencies.putIfAbsent(traceIds[slot], timestamps[slot] - received);
+        }
+
+        long[] result = new long[latencies.size()];
+        int i = 0;
+        for (Long latency : latencies.values()) {
+            result[i++] = latency;
+        }
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ezeyway.app;
+
+import java.util.ArrayList;
+
+/**
+ * Ordered list of orders waiting in the overlay, oldest first. Re-adding an
+ * order that is already queued updates it in place instead of duplicating it.
+ */
+public class OverlayQueue {
+    public static final class Entry {
+        public final String orderId;
+        public final String orderNumber;
+        public final String amount;
+
+        public Entry(String orderId, String orderNumber, String amount) {
+            this.orderId = orderId;
+            this.orderNumber = orderNumber;
+            this.amount = amount;
+        }
+    }
+
+    private final ArrayList<Entry> entries = new ArrayList<>();
+
+    /**
+     * @return the index of the entry, and whether it was newly inserted
+     *         (encoded as {@code index} for inserts and {@code -index - 1} for updates)
+     */
+    public int put(Entry entry) {
+        int existing = indexOf(entry.orderId);
+        if (existing >= 0) {
+            entries.set(existing, entry);
+            return -existing - 1;
+        }
+        entries.add(entry);
+        return entries.size() - 1;
+    }
+
+    /** @return the index the entry was removed from, or -1 if it was not queued */
+    public int remove(String orderId) {
+        int index = indexOf(orderId);
+        if (index >= 0) {
+            entries.remove(index);
+        }
+        return index;
+    }
+
+    public int indexOf(String orderId) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).orderId.equals(orderId)) return i;
+        }
+        return -1;
+    }
+
+    public Entry get(int index) {
+        return entries.get(index);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -3,25 +3,59 @@ package com.ezeyway.app;
 import android.app.Service;
 import android.content.Intent;
 import android.graphics.PixelFormat;
-import android.media.MediaPlayer;
-import android.media.RingtoneManager;
-import android.net.Uri;
 import android.os.Build;
 import android.os.IBinder;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.Gravity;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.WindowManager;
 import android.widget.Button;
 import android.widget.LinearLayout;
+import android.widget.ScrollView;
 import android.widget.TextView;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * System-wide overlay listing every pending order.
+ *
+ * All orders share a single window: a header, a scrollable stack of rows and a
+ * dismiss-all button. Row views come from a small pool and are rebound in
+ * place, so a burst of orders adds rows instead of new windows.
+ */
 public class OverlayService extends Service {
     private static final String TAG = "OverlayService";
+    static final String ACTION_REMOVE_ORDER = "com.ezeyway.app.OVERLAY_REMOVE_ORDER";
+    private static final int PREBUILT_ROWS = 4;
+    static final int MAX_POOLED_ROWS = 8;
+    private static final long FRAME_MONITOR_MS = 1000;
+    private static final long JANK_FRAME_NANOS = 32_000_000L;
+
+    private final OverlayQueue queue = new OverlayQueue();
+    private final ArrayDeque<OrderRow> rowPool = new ArrayDeque<>();
+    private final Map<String, OrderPayload> payloads = new HashMap<>();
+
     private WindowManager windowManager;
-    private View overlayView;
-    private MediaPlayer mediaPlayer;
+    private LinearLayout overlayView;
+    private LinearLayout rowsContainer;
+    private TextView header;
+    private boolean attached;
+    private int rowsCreated;
+
+    private long lastChangeAt;
+    private long lastFrameNanos;
+    private int monitoredFrames;
+    private int jankFrames;
+    private long worstFrameNanos;
+    private boolean monitoringFrames;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FlightLog.record(FlightRecorder.EVENT_SERVICE_CREATED, null, FlightRecorder.SERVICE_OVERLAY);
+    }
 
     @Override
     public IBinder onBind(Intent intent) {
@@ -30,137 +64,300 @@ public class OverlayService extends Service {
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
-        if (intent != null) {
-            String orderId = intent.getStringExtra("orderId");
-            String orderNumber = intent.getStringExtra("orderNumber");
-            String amount = intent.getStringExtra("amount");
+        MainThreadWatchdog.enter(MainThreadWatchdog.COMPONENT_OVERLAY_SERVICE);
+        if (intent != null && ACTION_REMOVE_ORDER.equals(intent.getAction())) {
+            // The order was seen elsewhere
+            removeOrder(intent.getStringExtra("orderId"));
+            if (queue.isEmpty()) {
+                detachWindow();
+                stopSelf();
+            }
+        } else if (intent != null) {
+            OrderPayload order = intent.getParcelableExtra(OrderPayload.EXTRA);
             
-            showOverlay(orderId, orderNumber, amount);
-            startRinging();
+            if (order != null) {
+                payloads.put(order.orderId, order);
+                showOverlay(order.orderId, order.orderNumber, order.amount);
+                AlertAudioEngine.get(this).startAlert(order.orderId);
+            }
         }
         return START_NOT_STICKY;
     }
 
     private void showOverlay(String orderId, String orderNumber, String amount) {
         try {
-            windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
-
-            // Create overlay layout
-            LinearLayout layout = new LinearLayout(this);
-            layout.setOrientation(LinearLayout.VERTICAL);
-            layout.setBackgroundColor(0xFFFF4444);
-            layout.setPadding(50, 50, 50, 50);
-            layout.setGravity(Gravity.CENTER);
-
-            // Title
-            TextView title = new TextView(this);
-            title.setText("🚨 NEW ORDER ALERT! 🚨");
-            title.setTextSize(24);
-            title.setTextColor(0xFFFFFFFF);
-            title.setGravity(Gravity.CENTER);
-            layout.addView(title);
+            ensureWindow();
 
-            // Order details
-            TextView details = new TextView(this);
-            details.setText("Order #" + orderNumber + "\nAmount: $" + amount + "\n\nTAP TO ACCEPT!");
-            details.setTextSize(18);
-            details.setTextColor(0xFFFFFFFF);
-            details.setGravity(Gravity.CENTER);
-            layout.addView(details);
+            int result = queue.put(new OverlayQueue.Entry(orderId, orderNumber, amount));
+            if (result >= 0) {
+                OrderRow row = obtainRow();
+                row.bind(queue.get(result));
+                rowsContainer.addView(row.view);
+            } else {
+                int index = -result - 1;
+                ((OrderRow) rowsContainer.getChildAt(index).getTag()).bind(queue.get(index));
+            }
+            updateHeader();
+            onQueueChanged();
+            
+            Log.d(TAG, "🚨 OVERLAY DISPLAYED! " + queue.size() + " order(s) pending");
+            FlightLog.record(FlightRecorder.EVENT_OVERLAY_SHOWN, orderId, queue.size());
 
-            // Accept button
-            Button acceptBtn = new Button(this);
-            acceptBtn.setText("ACCEPT ORDER");
-            acceptBtn.setBackgroundColor(0xFF00AA00);
-            acceptBtn.setTextColor(0xFFFFFFFF);
-            acceptBtn.setOnClickListener(v -> {
-                acceptOrder(orderId, orderNumber, amount);
-            });
-            layout.addView(acceptBtn);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to show overlay: " + e.getMessage());
+            FlightLog.record(FlightRecorder.EVENT_OVERLAY_FAILED, orderId);
+        }
+    }
 
-            // Dismiss button
-            Button dismissBtn = new Button(this);
-            dismissBtn.setText("DISMISS");
-            dismissBtn.setBackgroundColor(0xFF666666);
-            dismissBtn.setTextColor(0xFFFFFFFF);
-            dismissBtn.setOnClickListener(v -> {
-                dismissOverlay();
-            });
-            layout.addView(dismissBtn);
+    private void ensureWindow() {
+        if (overlayView == null) {
+            buildWindow();
+        }
+        if (attached) return;
 
-            overlayView = layout;
+        // Window parameters for overlay
+        int layoutFlag;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            layoutFlag = WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY;
+        } else {
+            layoutFlag = WindowManager.LayoutParams.TYPE_PHONE;
+        }
 
-            // Window parameters for overlay
-            int layoutFlag;
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                layoutFlag = WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY;
-            } else {
-                layoutFlag = WindowManager.LayoutParams.TYPE_PHONE;
+        WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+            WindowManager.LayoutParams.MATCH_PARENT,
+            WindowManager.LayoutParams.WRAP_CONTENT,
+            layoutFlag,
+            WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE |
+            WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED |
+            WindowManager.LayoutParams.FLAG_DISMISS_KEYGUARD |
+            WindowManager.LayoutParams.FLAG_TURN_SCREEN_ON,
+            PixelFormat.TRANSLUCENT
+        );
+
+        params.gravity = Gravity.CENTER;
+        windowManager.addView(overlayView, params);
+        attached = true;
+    }
+
+    private void buildWindow() {
+        windowManager = (WindowManager) getSystemService(WINDOW_SERVICE);
+        int maxListHeight = getResources().getDisplayMetrics().heightPixels * 45 / 100;
+
+        // Create overlay layout
+        LinearLayout layout = new LinearLayout(this);
+        layout.setOrientation(LinearLayout.VERTICAL);
+        layout.setBackgroundColor(0xFFFF4444);
+        layout.setPadding(50, 50, 50, 50);
+        layout.setGravity(Gravity.CENTER);
+
+        // Title
+        header = new TextView(this);
+        header.setTextSize(24);
+        header.setTextColor(0xFFFFFFFF);
+        header.setGravity(Gravity.CENTER);
+        layout.addView(header);
+
+        // Pending orders, scrollable once they outgrow the screen
+        ScrollView scroll = new ScrollView(this) {
+            @Override
+            protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+                super.onMeasure(widthMeasureSpec,
+                    MeasureSpec.makeMeasureSpec(maxListHeight, MeasureSpec.AT_MOST));
             }
+        };
+        rowsContainer = new LinearLayout(this);
+        rowsContainer.setOrientation(LinearLayout.VERTICAL);
+        scroll.addView(rowsContainer);
+        layout.addView(scroll);
 
-            WindowManager.LayoutParams params = new WindowManager.LayoutParams(
-                WindowManager.LayoutParams.MATCH_PARENT,
-                WindowManager.LayoutParams.WRAP_CONTENT,
-                layoutFlag,
-                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE |
-                WindowManager.LayoutParams.FLAG_SHOW_WHEN_LOCKED |
-                WindowManager.LayoutParams.FLAG_DISMISS_KEYGUARD |
-                WindowManager.LayoutParams.FLAG_TURN_SCREEN_ON,
-                PixelFormat.TRANSLUCENT
-            );
-
-            params.gravity = Gravity.CENTER;
-            windowManager.addView(overlayView, params);
-            
-            Log.d(TAG, "🚨 OVERLAY DISPLAYED!");
+        // Dismiss button
+        Button dismissBtn = new Button(this);
+        dismissBtn.setText("DISMISS ALL");
+        dismissBtn.setBackgroundColor(0xFF666666);
+        dismissBtn.setTextColor(0xFFFFFFFF);
+        dismissBtn.setOnClickListener(v -> dismissAll());
+        layout.addView(dismissBtn);
 
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to show overlay: " + e.getMessage());
+        overlayView = layout;
+
+        for (int i = 0; i < PREBUILT_ROWS; i++) {
+            rowPool.push(new OrderRow());
         }
     }
 
-    private void startRinging() {
-        try {
-            Uri alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
-            mediaPlayer = MediaPlayer.create(this, alarmUri);
-            mediaPlayer.setLooping(true);
-            mediaPlayer.start();
-            Log.d(TAG, "🔊 Ringing started");
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to start ringing: " + e.getMessage());
+    private OrderRow obtainRow() {
+        OrderRow row = rowPool.poll();
+        return row != null ? row : new OrderRow();
+    }
+
+    private void removeOrder(String orderId) {
+        if (orderId == null) return;
+        payloads.remove(orderId);
+        int index = queue.remove(orderId);
+        if (index < 0) return;
+
+        View view = rowsContainer.getChildAt(index);
+        rowsContainer.removeViewAt(index);
+        if (rowPool.size() < MAX_POOLED_ROWS) {
+            rowPool.push((OrderRow) view.getTag());
+        }
+        AlertAudioEngine.get(this).stopAlert(orderId);
+
+        if (queue.isEmpty()) {
+            detachWindow();
+            stopSelf();
+        } else {
+            updateHeader();
+            onQueueChanged();
         }
     }
 
-    private void acceptOrder(String orderId, String orderNumber, String amount) {
-        stopRinging();
-        dismissOverlay();
+    private void updateHeader() {
+        header.setText(queue.size() == 1
+            ? "🚨 NEW ORDER ALERT! 🚨"
+            : "🚨 " + queue.size() + " NEW ORDERS! 🚨");
+    }
+
+    private void acceptOrder(String orderId) {
+        OrderTrace.get().mark(orderId, OrderTrace.STAGE_ACCEPT_TAPPED);
+        OrderPayload order = payloads.get(orderId);
+        AlertEscalator.acknowledge(this, orderId, AlertEscalator.VIA_OVERLAY);
+        removeOrder(orderId);
 
         // Launch main app
-        Intent intent = new Intent(this, MainActivity.class);
+        Intent intent = AlertsProcess.mainActivityIntent(this);
         intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
         intent.putExtra("autoOpened", true);
-        intent.putExtra("orderId", orderId);
-        intent.putExtra("orderNumber", orderNumber);
-        intent.putExtra("amount", amount);
+        intent.putExtra(OrderPayload.EXTRA, order);
         startActivity(intent);
+    }
+
+    private void dismissOverlay() {
+        AlertAudioEngine engine = AlertAudioEngine.get(this);
+        for (int i = 0; i < queue.size(); i++) {
+            engine.stopAlert(queue.get(i).orderId);
+        }
+        queue.clear();
+        payloads.clear();
+        if (rowsContainer != null) {
+            for (int i = 0; i < rowsContainer.getChildCount() && rowPool.size() < MAX_POOLED_ROWS; i++) {
+                rowPool.push((OrderRow) rowsContainer.getChildAt(i).getTag());
+            }
+            rowsContainer.removeAllViews();
+        }
+        detachWindow();
+    }
 
+    void dismissAll() {
+        for (int i = queue.size() - 1; i >= 0; i--) {
+            AlertEscalator.acknowledge(this, queue.get(i).orderId, AlertEscalator.VIA_OVERLAY);
+        }
+        dismissOverlay();
         stopSelf();
     }
 
-    private void dismissOverlay() {
-        stopRinging();
-        if (overlayView != null && windowManager != null) {
+    private void detachWindow() {
+        if (attached && overlayView != null && windowManager != null) {
             windowManager.removeView(overlayView);
-            overlayView = null;
         }
-        stopSelf();
+        attached = false;
+    }
+
+    int getRowsCreated() {
+        return rowsCreated;
+    }
+
+    // Frame timing while the list is changing, to keep bursts of orders smooth
+
+    private final Choreographer.FrameCallback frameMonitor = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (lastFrameNanos != 0) {
+                long frameNanos = frameTimeNanos - lastFrameNanos;
+                monitoredFrames++;
+                if (frameNanos > JANK_FRAME_NANOS) jankFrames++;
+                if (frameNanos > worstFrameNanos) worstFrameNanos = frameNanos;
+            }
+            lastFrameNanos = frameTimeNanos;
+
+            if (System.currentTimeMillis() - lastChangeAt < FRAME_MONITOR_MS) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                monitoringFrames = false;
+                Log.d(TAG, "🎞️ Overlay frames: " + monitoredFrames + " monitored, " + jankFrames +
+                    " janky, worst " + (worstFrameNanos / 1_000_000) + "ms, " + queue.size() + " rows");
+            }
+        }
+    };
+
+    private void onQueueChanged() {
+        lastChangeAt = System.currentTimeMillis();
+        if (!monitoringFrames) {
+            monitoringFrames = true;
+            lastFrameNanos = 0;
+            monitoredFrames = 0;
+            jankFrames = 0;
+            worstFrameNanos = 0;
+            Choreographer.getInstance().postFrameCallback(frameMonitor);
+        }
+    }
+
+    /** One reusable pending-order row. */
+    private final class OrderRow {
+        final LinearLayout view;
+        final TextView details;
+        OverlayQueue.Entry entry;
+
+        OrderRow() {
+            view = new LinearLayout(OverlayService.this);
+            view.setOrientation(LinearLayout.HORIZONTAL);
+            view.setGravity(Gravity.CENTER_VERTICAL);
+            view.setPadding(0, 16, 0, 16);
+            view.setTag(this);
+            rowsCreated++;
+
+            // Order details
+            details = new TextView(OverlayService.this);
+            details.setTextSize(18);
+            details.setTextColor(0xFFFFFFFF);
+            view.addView(details, new LinearLayout.LayoutParams(0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+
+            // Accept button
+            Button acceptBtn = new Button(OverlayService.this);
+            acceptBtn.setText("ACCEPT");
+            acceptBtn.setBackgroundColor(0xFF00AA00);
+            acceptBtn.setTextColor(0xFFFFFFFF);
+            acceptBtn.setOnClickListener(v -> {
+                if (entry != null) acceptOrder(entry.orderId);
+            });
+            view.addView(acceptBtn);
+
+            // Dismiss button
+            Button dismissBtn = new Button(OverlayService.this);
+            dismissBtn.setText("✕");
+            dismissBtn.setBackgroundColor(0xFF666666);
+            dismissBtn.setTextColor(0xFFFFFFFF);
+            dismissBtn.setOnClickListener(v -> {
+                if (entry == null) return;
+                String orderId = entry.orderId;
+                AlertEscalator.acknowledge(OverlayService.this, orderId, AlertEscalator.VIA_OVERLAY);
+                removeOrder(orderId);
+            });
+            view.addView(dismissBtn);
+        }
+
+        void bind(OverlayQueue.Entry entry) {
+            this.entry = entry;
+            details.setText("Order #" + entry.orderNumber + "\nAmount: $" + entry.amount);
+        }
     }
 
-    private void stopRinging() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.release();
-            mediaPlayer = null;
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // Spare rows only save an inflate; the ones on screen stay
+        if (MemoryPressure.tierFor(level) >= MemoryPressure.TIER_DROP) {
+            rowPool.clear();
         }
     }
 
@@ -168,5 +365,6 @@ public class OverlayService extends Service {
     public void onDestroy() {
         super.onDestroy();
         dismissOverlay();
+        FlightLog.record(FlightRecorder.EVENT_SERVICE_DESTROYED, null, FlightRecorder.SERVICE_OVERLAY);
     }
-}
\ No newline at end of file
+}
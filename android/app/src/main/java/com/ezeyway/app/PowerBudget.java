@@ -0,0 +1,249 @@
+package com.ezeyway.app;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONObject;
+
+/**
+ * Per-order and per-hour accounting for everything that keeps the phone awake.
+ *
+ * Wake locks and screen-on time are handed out as leases: {@link #open}
+ * grants at most what is left of both the order's and the current hour's
+ * budget (reserving it while the lease is open), and {@link #close} charges
+ * what was actually held. Alarm wakeups are counted separately. Everything is
+ * attributed to the order it was requested for, so the report shows what each
+ * order cost.
+ *
+ * Times are in whatever monotonic clock the caller uses; the hour budget
+ * resets on hour boundaries of that clock.
+ */
+public final class PowerBudget {
+    public static final int KIND_WAKE_LOCK = 0;
+    public static final int KIND_SCREEN_ON = 1;
+    static final String[] KIND_NAMES = {"wakeLock", "screenOn"};
+
+    static final long HOUR_MS = 60L * 60 * 1000;
+    private static final int MAX_ORDERS = 100;
+    private static final String UNTAGGED = "untagged";
+
+    public static final class Limits {
+        final long[] perOrderMs;
+        final long[] perHourMs;
+        final int perOrderWakeups;
+        final int perHourWakeups;
+
+        /**
+         * @param perOrderMs wake-lock and screen-on milliseconds per order, by kind
+         * @param perHourMs  the same, across all orders per hour
+         */
+        public Limits(long[] perOrderMs, long[] perHourMs, int perOrderWakeups, int perHourWakeups) {
+            if (perOrderMs.length != KIND_NAMES.length || perHourMs.length != KIND_NAMES.length) {
+                throw new IllegalArgumentException("Need one limit per kind");
+            }
+            this.perOrderMs = perOrderMs.clone();
+            this.perHourMs = perHourMs.clone();
+            this.perOrderWakeups = perOrderWakeups;
+            this.perHourWakeups = perHourWakeups;
+        }
+
+        /** A launch and an alert screen per order; a busy lunch hour of them at most. */
+        public static Limits defaults() {
+            return new Limits(
+                new long[] {10_000, 60_000},
+                new long[] {120_000, 10 * 60_000},
+                4, 30
+            );
+        }
+    }
+
+    private static final class Usage {
+        final long[] usedMs = new long[KIND_NAMES.length];
+        final long[] reservedMs = new long[KIND_NAMES.length];
+        final long[] savedMs = new long[KIND_NAMES.length];
+        int wakeups;
+        int releasedEarly;
+        int denied;
+    }
+
+    private static final class Lease {
+        final String orderId;
+        final int kind;
+        final long grantedMs;
+        final long openedAt;
+
+        Lease(String orderId, int kind, long grantedMs, long openedAt) {
+            this.orderId = orderId;
+            this.kind = kind;
+            this.grantedMs = grantedMs;
+            this.openedAt = openedAt;
+        }
+    }
+
+    private final Limits limits;
+    private final LinkedHashMap<String, Usage> orders = new LinkedHashMap<String, Usage>(32, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Usage> eldest) {
+            return size() > MAX_ORDERS;
+        }
+    };
+    private final Map<Integer, Lease> open = new HashMap<>();
+    private int nextLeaseId = 1;
+
+    private long hour = -1;
+    private Usage hourUsage = new Usage();
+    private final Usage totals = new Usage();
+
+    public PowerBudget(Limits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * @return a lease id, or -1 if the order or the hour has no budget left.
+     *         {@link #grantedMs} tells how long the lease may be held.
+     */
+    public synchronized int open(String orderId, int kind, long requestedMs, long now) {
+        orderId = tag(orderId);
+        rollHour(now);
+        Usage order = usage(orderId);
+        long granted = Math.min(requestedMs, Math.min(
+            remaining(order, kind, limits.perOrderMs[kind]),
+            remaining(hourUsage, kind, limits.perHourMs[kind])));
+        if (granted <= 0) {
+            order.denied++;
+            hourUsage.denied++;
+            totals.denied++;
+            return -1;
+        }
+
+        order.reservedMs[kind] += granted;
+        hourUsage.reservedMs[kind] += granted;
+        int id = nextLeaseId++;
+        open.put(id, new Lease(orderId, kind, granted, now));
+        return id;
+    }
+
+    public synchronized long grantedMs(int leaseId) {
+        Lease lease = open.get(leaseId);
+        return lease == null ? 0 : lease.grantedMs;
+    }
+
+    /** Charges what the lease actually held; closing twice is harmless. */
+    public synchronized void close(int leaseId, long now) {
+        Lease lease = open.remove(leaseId);
+        if (lease == null) return;
+        rollHour(now);
+
+        long held = Math.max(0, Math.min(now - lease.openedAt, lease.grantedMs));
+        long saved = lease.grantedMs - held;
+        Usage order = usage(lease.orderId);
+        order.reservedMs[lease.kind] = Math.max(0, order.reservedMs[lease.kind] - lease.grantedMs);
+        hourUsage.reservedMs[lease.kind] = Math.max(0, hourUsage.reservedMs[lease.kind] - lease.grantedMs);
+        for (Usage usage : new Usage[] {order, hourUsage, totals}) {
+            usage.usedMs[lease.kind] += held;
+            usage.savedMs[lease.kind] += saved;
+            if (saved > 0) usage.releasedEarly++;
+        }
+    }
+
+    /** @return whether another alarm may wake the device for this order */
+    public synchronized boolean allowWakeup(String orderId, long now) {
+        rollHour(now);
+        Usage order = usage(tag(orderId));
+        return order.wakeups < limits.perOrderWakeups && hourUsage.wakeups < limits.perHourWakeups;
+    }
+
+    public synchronized void recordWakeup(String orderId, long now) {
+        rollHour(now);
+        usage(tag(orderId)).wakeups++;
+        hourUsage.wakeups++;
+        totals.wakeups++;
+    }
+
+    /** Counts a wakeup that was downgraded to a non-waking alarm. */
+    public synchronized void recordDeniedWakeup(String orderId, long now) {
+        rollHour(now);
+        usage(tag(orderId)).denied++;
+        hourUsage.denied++;
+        totals.denied++;
+    }
+
+    /** Current hour index and its wake-lock ms, screen-on ms and wakeups. */
+    public synchronized long[] hourSnapshot(long now) {
+        rollHour(now);
+        return new long[] {hour, hourUsage.usedMs[KIND_WAKE_LOCK], hourUsage.usedMs[KIND_SCREEN_ON], hourUsage.wakeups};
+    }
+
+    /** Carries the hour budget over a process restart; ignored once that hour has passed. */
+    public synchronized void restoreHour(long[] snapshot, long now) {
+        rollHour(now);
+        if (snapshot == null || snapshot.length < 4 || snapshot[0] != hour) return;
+        hourUsage.usedMs[KIND_WAKE_LOCK] = Math.max(hourUsage.usedMs[KIND_WAKE_LOCK], snapshot[1]);
+        hourUsage.usedMs[KIND_SCREEN_ON] = Math.max(hourUsage.usedMs[KIND_SCREEN_ON], snapshot[2]);
+        hourUsage.wakeups = (int) Math.max(hourUsage.wakeups, snapshot[3]);
+    }
+
+    private void rollHour(long now) {
+        long current = now / HOUR_MS;
+        if (current == hour) return;
+        Usage previous = hourUsage;
+        hour = current;
+        hourUsage = new Usage();
+        // Leases still open were reserved against the old hour; carry them over
+        System.arraycopy(previous.reservedMs, 0, hourUsage.reservedMs, 0, KIND_NAMES.length);
+    }
+
+    private Usage usage(String orderId) {
+        Usage usage = orders.get(orderId);
+        if (usage == null) {
+            usage = new Usage();
+            orders.put(orderId, usage);
+        }
+        return usage;
+    }
+
+    private static long remaining(Usage usage, int kind, long limit) {
+        return limit - usage.usedMs[kind] - usage.reservedMs[kind];
+    }
+
+    private static String tag(String orderId) {
+        return orderId == null ? UNTAGGED : orderId;
+    }
+
+    public synchronized String toJson(long now) {
+        rollHour(now);
+        StringBuilder sb = new StringBuilder("{\"limits\":{");
+        for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+            sb.append('"').append(KIND_NAMES[kind]).append("MsPerOrder\":").append(limits.perOrderMs[kind]).append(',');
+            sb.append('"').append(KIND_NAMES[kind]).append("MsPerHour\":").append(limits.perHourMs[kind]).append(',');
+        }
+        sb.append("\"wakeupsPerOrder\":").append(limits.perOrderWakeups)
+          .append(",\"wakeupsPerHour\":").append(limits.perHourWakeups)
+          .append("},\"openLeases\":").append(open.size())
+          .append(",\"hour\":");
+        appendUsage(sb, hourUsage);
+        sb.append(",\"total\":");
+        appendUsage(sb, totals);
+        sb.append(",\"orders\":{");
+        boolean first = true;
+        for (Map.Entry<String, Usage> entry : orders.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(JSONObject.quote(entry.getKey())).append(':');
+            appendUsage(sb, entry.getValue());
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static void appendUsage(StringBuilder sb, Usage usage) {
+        sb.append('{');
+        for (int kind = 0; kind < KIND_NAMES.length; kind++) {
+            sb.append('"').append(KIND_NAMES[kind]).append("Ms\":").append(usage.usedMs[kind]).append(',');
+            sb.append('"').append(KIND_NAMES[kind]).append("SavedMs\":").append(usage.savedMs[kind]).append(',');
+        }
+        sb.append("\"wakeups\":").append(usage.wakeups)
+          .append(",\"releasedEarly\":").append(usage.releasedEarly)
+          .append(",\"denied\":").append(usage.denied)
+          .append('}');
+    }
+}
@@ -0,0 +1,244 @@
+package com.ezeyway.app;
+
+import android.app.Activity;
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.WindowManager;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The only place that keeps the phone awake for an order.
+ *
+ * Wake locks and the keep-screen-on flag are issued as {@link Lease}s tagged
+ * with an order id and capped by {@link PowerBudget}; a lease ends when its
+ * grant runs out, when the holder releases it, or as soon as the order is
+ * acknowledged. Alarm wakeups go through {@link #scheduleWakeup}, which falls
+ * back to a non-waking alarm once the order or the hour is out of wakeups.
+ * The current hour's usage is kept in prefs so a restarted process cannot
+ * start the hour over.
+ */
+public final class PowerBudgetManager {
+    private static final String TAG = "PowerBudgetManager";
+    private static final String PREFS = "power_budget";
+    private static final String EXTRA_WAKEUP_ORDER = "powerBudgetOrderId";
+    private static final String EXTRA_WAKES = "powerBudgetWakes";
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final List<Lease> leases = new ArrayList<>();
+    private static PowerBudget budget;
+    private static Context appContext;
+
+    private PowerBudgetManager() {}
+
+    public static final class Lease {
+        private final int id;
+        private final String orderId;
+        private PowerManager.WakeLock wakeLock;
+        private WeakReference<Activity> activity;
+        private final Runnable expiry = this::release;
+        private boolean released;
+
+        private Lease(int id, String orderId) {
+            this.id = id;
+            this.orderId = orderId;
+        }
+
+        /** Safe to call from any thread, and more than once. */
+        public void release() {
+            Activity holder = activity != null ? activity.get() : null;
+            synchronized (PowerBudgetManager.class) {
+                if (released) return;
+                released = true;
+                leases.remove(this);
+                budget.close(id, SystemClock.elapsedRealtime());
+                saveHour();
+                // Another order may still be keeping the same window on
+                for (Lease other : leases) {
+                    if (other.activity != null && other.activity.get() == holder) {
+                        holder = null;
+                        break;
+                    }
+                }
+            }
+            mainHandler.removeCallbacks(expiry);
+            if (wakeLock != null && wakeLock.isHeld()) {
+                wakeLock.release();
+            }
+            if (holder != null) {
+                Activity window = holder;
+                window.runOnUiThread(() ->
+                    window.getWindow().clearFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON));
+            }
+        }
+    }
+
+    private static synchronized PowerBudget budget(Context context) {
+        if (budget == null) {
+            appContext = context.getApplicationContext();
+            budget = new PowerBudget(PowerBudget.Limits.defaults());
+            SharedPreferences prefs = appContext.getSharedPreferences(prefsName(), Context.MODE_PRIVATE);
+            budget.restoreHour(new long[] {
+                prefs.getLong("hour", -1),
+                prefs.getLong("wakeLockMs", 0),
+                prefs.getLong("screenOnMs", 0),
+                prefs.getLong("wakeups", 0)
+            }, SystemClock.elapsedRealtime());
+        }
+        return budget;
+    }
+
+    /**
+     * A partial wake lock for at most {@code maxMs}, or less if the budget is
+     * nearly spent.
+     *
+     * @return the lease, or null if the budget does not allow one
+     */
+    public static Lease acquireWakeLock(Context context, String orderId, String tag, long maxMs) {
+        Lease lease = open(context, orderId, PowerBudget.KIND_WAKE_LOCK, maxMs);
+        if (lease == null) return null;
+
+        long granted = grantedMs(lease);
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        lease.wakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, tag);
+        lease.wakeLock.setReferenceCounted(false);
+        lease.wakeLock.acquire(granted);
+        mainHandler.postDelayed(lease.expiry, granted);
+        Log.d(TAG, "🔋 Wake lock " + tag + " for order " + orderId + ": " + granted + "ms");
+        return lease;
+    }
+
+    /**
+     * Keeps the activity's screen on for at most {@code maxMs}. Must be called
+     * on the main thread.
+     *
+     * @return the lease, or null if the budget does not allow one
+     */
+    public static Lease keepScreenOn(Activity activity, String orderId, long maxMs) {
+        Lease lease = open(activity, orderId, PowerBudget.KIND_SCREEN_ON, maxMs);
+        if (lease == null) return null;
+
+        long granted = grantedMs(lease);
+        lease.activity = new WeakReference<>(activity);
+        activity.getWindow().addFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
+        mainHandler.postDelayed(lease.expiry, granted);
+        Log.d(TAG, "🔆 Screen on for order " + orderId + ": " + granted + "ms");
+        return lease;
+    }
+
+    /** Ends every lease held for the order; called when it is acknowledged. */
+    public static void releaseOrder(String orderId) {
+        List<Lease> held = new ArrayList<>();
+        synchronized (PowerBudgetManager.class) {
+            for (Lease lease : leases) {
+                if (lease.orderId != null && lease.orderId.equals(orderId)) held.add(lease);
+            }
+        }
+        for (Lease lease : held) {
+            lease.release();
+        }
+        if (!held.isEmpty()) {
+            Log.d(TAG, "🔌 Released " + held.size() + " lease(s) early for order " + orderId);
+        }
+    }
+
+    /**
+     * Sets an exact alarm for {@code intent} at {@code triggerAtElapsed},
+     * replacing any alarm with the same request code. It wakes the device
+     * only while the order and the hour have wakeups left; the receiver must
+     * pass the delivered intent to {@link #onWakeupDelivered}.
+     *
+     * @return whether the alarm will wake the device
+     */
+    public static boolean scheduleWakeup(Context context, String orderId, long triggerAtElapsed,
+                                         Intent intent, int requestCode) {
+        PowerBudget state = budget(context);
+        boolean wakes = state.allowWakeup(orderId, SystemClock.elapsedRealtime());
+        intent.putExtra(EXTRA_WAKEUP_ORDER, orderId);
+        intent.putExtra(EXTRA_WAKES, wakes);
+        PendingIntent alarm = PendingIntent.getBroadcast(
+            context, requestCode, intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (!wakes) {
+            state.recordDeniedWakeup(orderId, SystemClock.elapsedRealtime());
+            // Delivered the next time something else wakes the device
+            alarmManager.set(AlarmManager.ELAPSED_REALTIME, triggerAtElapsed, alarm);
+            Log.d(TAG, "🪫 Wakeup budget spent, order " + orderId + " waits for the next wake");
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, triggerAtElapsed, alarm);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, triggerAtElapsed, alarm);
+        } else {
+            alarmManager.setExact(AlarmManager.ELAPSED_REALTIME_WAKEUP, triggerAtElapsed, alarm);
+        }
+        return wakes;
+    }
+
+    public static void cancelWakeup(Context context, Intent intent, int requestCode) {
+        PendingIntent alarm = PendingIntent.getBroadcast(
+            context, requestCode, intent, PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE
+        );
+        if (alarm != null) {
+            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+            alarmManager.cancel(alarm);
+            alarm.cancel();
+        }
+    }
+
+    /** Charges a delivered alarm to its order if it was allowed to wake the device. */
+    public static void onWakeupDelivered(Context context, Intent intent) {
+        if (!intent.getBooleanExtra(EXTRA_WAKES, false)) return;
+        synchronized (PowerBudgetManager.class) {
+            budget(context).recordWakeup(intent.getStringExtra(EXTRA_WAKEUP_ORDER), SystemClock.elapsedRealtime());
+            saveHour();
+        }
+    }
+
+    public static String statsJson(Context context) {
+        return budget(context).toJson(SystemClock.elapsedRealtime());
+    }
+
+    private static Lease open(Context context, String orderId, int kind, long maxMs) {
+        synchronized (PowerBudgetManager.class) {
+            int id = budget(context).open(orderId, kind, maxMs, SystemClock.elapsedRealtime());
+            if (id < 0) {
+                Log.w(TAG, "🪫 " + PowerBudget.KIND_NAMES[kind] + " budget spent for order " + orderId);
+                return null;
+            }
+            Lease lease = new Lease(id, orderId);
+            leases.add(lease);
+            return lease;
+        }
+    }
+
+    private static synchronized long grantedMs(Lease lease) {
+        return budget.grantedMs(lease.id);
+    }
+
+    /** Each process keeps its own budget; shared prefs are not safe across processes. */
+    private static String prefsName() {
+        return AlertsProcess.isCurrent(appContext) ? PREFS + "_alerts" : PREFS;
+    }
+
+    private static void saveHour() {
+        long[] hour = budget.hourSnapshot(SystemClock.elapsedRealtime());
+        appContext.getSharedPreferences(prefsName(), Context.MODE_PRIVATE).edit()
+            .putLong("hour", hour[0])
+            .putLong("wakeLockMs", hour[1])
+            .putLong("screenOnMs", hour[2])
+            .putLong("wakeups", hour[3])
+            .apply();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ezeyway.app;
+
+import java.util.Random;
+
+/**
+ * Exponential reconnect delay with full jitter, so a server restart does not
+ * get every vendor's socket back in the same second.
+ */
+public class ReconnectBackoff {
+    static final long BASE_DELAY_MS = 1_000;
+    static final long MAX_DELAY_MS = 60_000;
+
+    private final Random random;
+    private int attempts;
+
+    public ReconnectBackoff(Random random) {
+        this.random = random;
+    }
+
+    /** @return a delay drawn uniformly from [base, min(max, base * 2^attempt)] */
+    public synchronized long nextDelayMs() {
+        long ceiling = MAX_DELAY_MS;
+        if (attempts < 16) {
+            ceiling = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << attempts);
+        }
+        attempts++;
+        return BASE_DELAY_MS + (long) (random.nextDouble() * (ceiling - BASE_DELAY_MS));
+    }
+
+    public synchronized void reset() {
+        attempts = 0;
+    }
+
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+}
@@ -1,28 +1,26 @@
 package com.ezeyway.app;
 
-import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.media.MediaPlayer;
-import android.media.RingtoneManager;
-import android.net.Uri;
 import android.util.Log;
 import androidx.core.app.NotificationCompat;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 
 public class RichOrderNotification {
     private static final String TAG = "RichOrderNotification";
-    private static MediaPlayer mediaPlayer;
     
-    public static void showRichNotification(Context context, String orderId, String orderNumber, 
-                                          String customerName, String amount, String imageUrl, 
-                                          String items, String address) {
+    public static void showRichNotification(Context context, OrderPayload order) {
+        String orderId = order.orderId;
+        String orderNumber = order.orderNumber;
+        String customerName = order.customerName;
+        String amount = order.amount;
+        String items = order.items;
+        String address = order.address;
+        
+        OrderNotificationPresenter presenter = OrderNotificationPresenter.get(context);
+        int notificationId = presenter.notificationIdFor(orderId);
         
         // Create Accept intent
         Intent acceptIntent = new Intent(context, OrderActionReceiver.class);
@@ -30,7 +28,8 @@ public class RichOrderNotification {
         acceptIntent.putExtra("orderId", orderId);
         acceptIntent.putExtra("orderNumber", orderNumber);
         PendingIntent acceptPendingIntent = PendingIntent.getBroadcast(
-            context, Integer.parseInt(orderId), acceptIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+            context, NotificationIdRegistry.acceptRequestCode(notificationId), acceptIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
         );
         
         // Create Reject intent
@@ -39,7 +38,18 @@ public class RichOrderNotification {
         rejectIntent.putExtra("orderId", orderId);
         rejectIntent.putExtra("orderNumber", orderNumber);
         PendingIntent rejectPendingIntent = PendingIntent.getBroadcast(
-            context, Integer.parseInt(orderId) + 1000, rejectIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+            context, NotificationIdRegistry.rejectRequestCode(notificationId), rejectIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        
+        // Tapping the notification opens the app on the order
+        Intent openIntent = AlertsProcess.mainActivityIntent(context);
+        openIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        openIntent.putExtra("autoOpened", true);
+        openIntent.putExtra(OrderPayload.EXTRA, order);
+        PendingIntent openPendingIntent = PendingIntent.getActivity(
+            context, notificationId, openIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
         );
         
         // Build rich notification
@@ -53,47 +63,38 @@ public class RichOrderNotification {
             .setCategory(NotificationCompat.CATEGORY_CALL)
             .setAutoCancel(false)
             .setOngoing(true)
+            .setContentIntent(openPendingIntent)
             .addAction(android.R.drawable.ic_menu_close_clear_cancel, "REJECT", rejectPendingIntent)
             .addAction(android.R.drawable.ic_menu_send, "ACCEPT", acceptPendingIntent);
         
-        // Skip image loading for now to prevent crashes
-        // TODO: Add image loading in background thread
+        // Grouped and rate limited so bursts of orders all show up
+        presenter.show(orderId, "#" + orderNumber + " • " + customerName + " • $" + amount, builder);
         
-        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        notificationManager.notify(Integer.parseInt(orderId), builder.build());
+        // Load the image in the background and re-post quietly once it is ready
+        if (order.imageUrl != null && !order.imageUrl.isEmpty()) {
+            NotificationImageLoader.get(context).load(order.imageUrl, bitmap -> {
+                builder.setLargeIcon(bitmap)
+                    .setStyle(new NotificationCompat.BigPictureStyle()
+                        .bigPicture(bitmap)
+                        .bigLargeIcon((Bitmap) null)
+                        .setSummaryText(customerName + " • $" + amount + " • " + items));
+                presenter.update(orderId, builder);
+                Log.d(TAG, "🖼️ Image added to notification for order " + orderId);
+            });
+        }
         
         // Start continuous ringing
-        startContinuousRinging(context);
+        startContinuousRinging(context, orderId);
         
         Log.d(TAG, "🔔 Rich notification shown for order " + orderId);
     }
     
-
-    
-    public static void startContinuousRinging(Context context) {
-        try {
-            if (mediaPlayer != null) {
-                mediaPlayer.stop();
-                mediaPlayer.release();
-            }
-            
-            Uri alarmUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
-            mediaPlayer = MediaPlayer.create(context, alarmUri);
-            mediaPlayer.setLooping(true);
-            mediaPlayer.start();
-            Log.d(TAG, "🔊 Continuous ringing started");
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to start ringing: " + e.getMessage());
-        }
+    public static void startContinuousRinging(Context context, String orderId) {
+        AlertAudioEngine.get(context).startAlert(orderId);
     }
     
-    public static void stopRinging() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.release();
-            mediaPlayer = null;
-            Log.d(TAG, "🔇 Ringing stopped");
-        }
+    public static void stopRinging(Context context, String orderId) {
+        AlertAudioEngine.get(context).stopAlert(orderId);
     }
     
     public static class OrderActionReceiver extends BroadcastReceiver {
@@ -105,28 +106,28 @@ public class RichOrderNotification {
             
             Log.d(TAG, "📱 Order action: " + action + " for order " + orderId);
             
-            // Stop ringing
-            stopRinging();
+            // Cancel any pending escalation and stop ringing for this order
+            AlertEscalator.acknowledge(context, orderId, "notification action");
+            stopRinging(context, orderId);
             
-            // Cancel notification
-            NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-            notificationManager.cancel(Integer.parseInt(orderId));
+            // The vendor has handled it; no need to hydrate it in the web app later
+            OrderIngestion.getInbox(context).ack(orderId);
             
+            String apiAction;
             if ("ACCEPT_ORDER".equals(action)) {
                 Log.d(TAG, "✅ Order " + orderId + " ACCEPTED");
-                // TODO: Send accept API call
-                
-                // Open app
-                Intent appIntent = new Intent(context, MainActivity.class);
-                appIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
-                appIntent.putExtra("orderId", orderId);
-                appIntent.putExtra("orderAccepted", true);
-                context.startActivity(appIntent);
-                
+                OrderTrace.get().mark(orderId, OrderTrace.STAGE_ACCEPT_TAPPED);
+                apiAction = OrderActionClient.ACTION_ACCEPT;
             } else if ("REJECT_ORDER".equals(action)) {
                 Log.d(TAG, "❌ Order " + orderId + " REJECTED");
-                // TODO: Send reject API call
+                apiAction = OrderActionClient.ACTION_REJECT;
+            } else {
+                return;
             }
+            
+            // Send from native code; failures go to the retrying outbox
+            PendingResult pendingResult = goAsync();
+            OrderActions.submit(context, orderId, apiAction, pendingResult::finish);
         }
     }
 }
\ No newline at end of file
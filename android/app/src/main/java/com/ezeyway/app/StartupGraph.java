@@ -0,0 +1,159 @@
+package com.ezeyway.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Dependency graph of start-up work. Each task names the tasks it needs, where
+ * it runs (main thread now, a background thread, or the main thread after the
+ * first frame) and a priority; a task is dispatched once all its dependencies
+ * have finished, and tasks that become ready together are dispatched highest
+ * priority first. Executors are supplied by the caller so the graph itself has
+ * no Android dependencies.
+ *
+ * A failing task is reported and counted as finished so the rest of start-up
+ * is never wedged behind it.
+ */
+public final class StartupGraph {
+    public static final int ON_MAIN = 0;
+    public static final int IN_BACKGROUND = 1;
+    public static final int AFTER_FIRST_FRAME = 2;
+
+    static final String[] DISPATCHER_NAMES = {"main", "background", "afterFirstFrame"};
+
+    public interface Clock {
+        long nowMs();
+    }
+
+    public interface Listener {
+        void onTaskFinished(String name, int dispatcher, long startedAtMs, long durationMs, Throwable error);
+    }
+
+    private static final class Task {
+        final String name;
+        final int dispatcher;
+        final int priority;
+        final Runnable action;
+        final String[] dependsOn;
+        final List<Task> dependents = new ArrayList<>();
+        int remaining;
+
+        Task(String name, int dispatcher, int priority, Runnable action, String[] dependsOn) {
+            this.name = name;
+            this.dispatcher = dispatcher;
+            this.priority = priority;
+            this.action = action;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final Clock clock;
+    private final Listener listener;
+    private Executor[] executors;
+    private int unfinished;
+
+    public StartupGraph(Clock clock, Listener listener) {
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    public StartupGraph add(String name, int dispatcher, int priority, Runnable action, String... dependsOn) {
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup task " + name);
+        }
+        tasks.put(name, new Task(name, dispatcher, priority, action, dependsOn));
+        return this;
+    }
+
+    /**
+     * Validates the graph and dispatches every task without dependencies.
+     *
+     * @throws IllegalArgumentException for a dependency on an unknown task
+     * @throws IllegalStateException if the dependencies form a cycle
+     */
+    public void start(Executor main, Executor background, Executor afterFirstFrame) {
+        List<Task> ready = new ArrayList<>();
+        synchronized (this) {
+            if (executors != null) {
+                throw new IllegalStateException("Startup graph already started");
+            }
+            for (Task task : tasks.values()) {
+                for (String dependency : task.dependsOn) {
+                    Task parent = tasks.get(dependency);
+                    if (parent == null) {
+                        throw new IllegalArgumentException(task.name + " depends on unknown task " + dependency);
+                    }
+                    parent.dependents.add(task);
+                }
+                task.remaining = task.dependsOn.length;
+            }
+            checkAcyclic();
+
+            executors = new Executor[] {main, background, afterFirstFrame};
+            unfinished = tasks.size();
+            for (Task task : tasks.values()) {
+                if (task.remaining == 0) ready.add(task);
+            }
+        }
+        dispatch(ready);
+    }
+
+    public synchronized boolean isFinished() {
+        return executors != null && unfinished == 0;
+    }
+
+    private void checkAcyclic() {
+        Map<Task, Integer> indegree = new LinkedHashMap<>();
+        List<Task> queue = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            indegree.put(task, task.dependsOn.length);
+            if (task.dependsOn.length == 0) queue.add(task);
+        }
+        int visited = 0;
+        while (!queue.isEmpty()) {
+            Task task = queue.remove(queue.size() - 1);
+            visited++;
+            for (Task dependent : task.dependents) {
+                int left = indegree.get(dependent) - 1;
+                indegree.put(dependent, left);
+                if (left == 0) queue.add(dependent);
+            }
+        }
+        if (visited != tasks.size()) {
+            throw new IllegalStateException("Startup tasks have a dependency cycle");
+        }
+    }
+
+    private void dispatch(List<Task> ready) {
+        // Stable sort keeps declaration order between equal priorities
+        Collections.sort(ready, (a, b) -> Integer.compare(b.priority, a.priority));
+        for (Task task : ready) {
+            executors[task.dispatcher].execute(() -> run(task));
+        }
+    }
+
+    private void run(Task task) {
+        long startedAt = clock.nowMs();
+        Throwable error = null;
+        try {
+            task.action.run();
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        listener.onTaskFinished(task.name, task.dispatcher, startedAt, clock.nowMs() - startedAt, error);
+
+        List<Task> ready = new ArrayList<>();
+        synchronized (this) {
+            unfinished--;
+            for (Task dependent : task.dependents) {
+                if (--dependent.remaining == 0) ready.add(dependent);
+            }
+        }
+        dispatch(ready);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ezeyway.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONObject;
+
+/**
+ * Timestamps of one cold start: process start, Application and MainActivity
+ * creation, first frame, and interactive (the web app attached its order
+ * listeners), plus the duration of every start-up task. All times are
+ * elapsed-realtime milliseconds and reported relative to process start.
+ */
+public final class StartupTimeline {
+    public static final int PHASE_PROCESS_START = 0;
+    public static final int PHASE_APPLICATION_CREATED = 1;
+    public static final int PHASE_ACTIVITY_CREATED = 2;
+    public static final int PHASE_FIRST_FRAME = 3;
+    public static final int PHASE_INTERACTIVE = 4;
+
+    static final String[] PHASE_NAMES = {"processStart", "applicationCreated", "activityCreated", "firstFrame", "interactive"};
+
+    private static final class TaskTiming {
+        final String name;
+        final int dispatcher;
+        final long startedAtMs;
+        final long durationMs;
+        final boolean failed;
+
+        TaskTiming(String name, int dispatcher, long startedAtMs, long durationMs, boolean failed) {
+            this.name = name;
+            this.dispatcher = dispatcher;
+            this.startedAtMs = startedAtMs;
+            this.durationMs = durationMs;
+            this.failed = failed;
+        }
+    }
+
+    private final long[] phases = new long[PHASE_NAMES.length];
+    private final List<TaskTiming> tasks = new ArrayList<>();
+
+    public StartupTimeline(long processStartMs) {
+        for (int i = 0; i < phases.length; i++) phases[i] = -1;
+        phases[PHASE_PROCESS_START] = processStartMs;
+    }
+
+    /** Records a phase the first time it is reached; later marks are ignored. */
+    public synchronized boolean mark(int phase, long atMs) {
+        if (phases[phase] >= 0) return false;
+        phases[phase] = atMs;
+        return true;
+    }
+
+    public synchronized void recordTask(String name, int dispatcher, long startedAtMs, long durationMs, boolean failed) {
+        tasks.add(new TaskTiming(name, dispatcher, startedAtMs, durationMs, failed));
+    }
+
+    /** Milliseconds from process start to {@code phase}, or -1 if not reached. */
+    public synchronized long sinceProcessStart(int phase) {
+        return phases[phase] < 0 ? -1 : phases[phase] - phases[PHASE_PROCESS_START];
+    }
+
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder("{\"phases\":{");
+        for (int i = 1; i < phases.length; i++) {
+            if (i > 1) sb.append(',');
+            sb.append('"').append(PHASE_NAMES[i]).append("\":").append(sinceProcessStart(i));
+        }
+        sb.append("},\"tasks\":[");
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskTiming task = tasks.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":").append(JSONObject.quote(task.name))
+              .append(",\"thread\":\"").append(StartupGraph.DISPATCHER_NAMES[task.dispatcher])
+              .append("\",\"startMs\":").append(task.startedAtMs - phases[PHASE_PROCESS_START])
+              .append(",\"durationMs\":").append(task.durationMs)
+              .append(",\"failed\":").append(task.failed)
+              .append('}');
+        }
+        return sb.append("]}").toString();
+    }
+}
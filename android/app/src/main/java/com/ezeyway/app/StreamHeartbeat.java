@@ -0,0 +1,50 @@
+package com.ezeyway.app;
+
+/**
+ * Adaptive heartbeat interval for the order socket.
+ *
+ * Carrier and router NATs silently drop idle TCP mappings after anything from
+ * 30 seconds to several minutes. The interval starts short and grows by
+ * {@link #STEP_MS} after every answered ping; when a pong goes missing the
+ * connection is treated as dead and the interval falls back to the last one
+ * known to survive, where it stays for this network.
+ */
+public class StreamHeartbeat {
+    static final long MIN_INTERVAL_MS = 25_000;
+    static final long MAX_INTERVAL_MS = 270_000;
+    static final long STEP_MS = 30_000;
+    public static final long PONG_TIMEOUT_MS = 10_000;
+
+    private long intervalMs = MIN_INTERVAL_MS;
+    private long lastGoodMs = MIN_INTERVAL_MS;
+    private boolean settled;
+
+    public synchronized long intervalMs() {
+        return intervalMs;
+    }
+
+    public synchronized void onPong() {
+        lastGoodMs = intervalMs;
+        if (!settled) {
+            intervalMs = Math.min(MAX_INTERVAL_MS, intervalMs + STEP_MS);
+        }
+    }
+
+    public synchronized void onTimeout() {
+        if (intervalMs > lastGoodMs) {
+            intervalMs = lastGoodMs;
+        } else {
+            // Even the known-good interval failed; start probing again from the bottom
+            intervalMs = MIN_INTERVAL_MS;
+            lastGoodMs = MIN_INTERVAL_MS;
+        }
+        settled = true;
+    }
+
+    /** Call when the device switches network; NAT behaviour is per network. */
+    public synchronized void reset() {
+        intervalMs = MIN_INTERVAL_MS;
+        lastGoodMs = MIN_INTERVAL_MS;
+        settled = false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ezeyway.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Vendor credentials shared with the web layer. The web app stores its auth
+ * token through Capacitor Preferences, which is backed by the
+ * {@code CapacitorStorage} shared preferences file, so the UI process reads
+ * the same value without any extra bridge call.
+ *
+ * SharedPreferences are not coherent across processes, so the alerts process
+ * never reads that file: the UI process pushes the token to it through
+ * {@link AlertsClient#setSession} at start-up and whenever the web app
+ * changes it, and the alerts process keeps its own copy.
+ */
+public class VendorSession {
+    // Keep in sync with src/config/api.ts
+    public static final String API_BASE_URL = "https://ezeyway.com/api";
+    public static final String NOTIFICATIONS_WS_URL = "wss://ezeyway.com/ws/notifications/";
+
+    private static final String CAPACITOR_STORAGE = "CapacitorStorage";
+    // Written only by the alerts process
+    private static final String ALERTS_SESSION = "alerts_session";
+    private static final String KEY_AUTH_TOKEN = "auth_token";
+
+    // SharedPreferences keeps listeners weakly, so hold on to it here
+    private static SharedPreferences.OnSharedPreferenceChangeListener tokenListener;
+
+    public static String getAuthToken(Context context) {
+        String file = AlertsProcess.isCurrent(context) ? ALERTS_SESSION : CAPACITOR_STORAGE;
+        return context.getSharedPreferences(file, Context.MODE_PRIVATE).getString(KEY_AUTH_TOKEN, null);
+    }
+
+    /** UI process: hands the current token to the alerts process and follows changes to it. */
+    static synchronized void install(Context context) {
+        if (tokenListener != null) return;
+        Context appContext = context.getApplicationContext();
+        SharedPreferences storage = appContext.getSharedPreferences(CAPACITOR_STORAGE, Context.MODE_PRIVATE);
+        tokenListener = (prefs, key) -> {
+            // A null key means the file was cleared, e.g. on logout
+            if (key == null || KEY_AUTH_TOKEN.equals(key)) {
+                AlertsClient.setSession(appContext, prefs.getString(KEY_AUTH_TOKEN, null));
+            }
+        };
+        storage.registerOnSharedPreferenceChangeListener(tokenListener);
+        AlertsClient.setSession(appContext, storage.getString(KEY_AUTH_TOKEN, null));
+    }
+
+    /** Alerts process: stores the token pushed by the UI process; null logs the vendor out. */
+    static void store(Context context, String token) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(ALERTS_SESSION, Context.MODE_PRIVATE).edit();
+        if (token == null) {
+            editor.remove(KEY_AUTH_TOKEN);
+        } else {
+            editor.putString(KEY_AUTH_TOKEN, token);
+        }
+        editor.apply();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ezeyway.app;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One HTTP response as stored by {@link WebRequestCache}: status, the headers
+ * needed to replay and revalidate it, the body, and when it was stored.
+ * Header names are lower-case.
+ */
+public final class WebCacheEntry {
+    private static final int FORMAT_VERSION = 1;
+
+    public final int status;
+    public final String reason;
+    public final Map<String, String> headers;
+    public final byte[] body;
+    public final long storedAt;
+
+    public WebCacheEntry(int status, String reason, Map<String, String> headers, byte[] body, long storedAt) {
+        this.status = status;
+        this.reason = reason != null ? reason : "";
+        this.headers = headers;
+        this.body = body;
+        this.storedAt = storedAt;
+    }
+
+    public String header(String name) {
+        return headers.get(name);
+    }
+
+    public WebCacheEntry withStoredAt(long at) {
+        return new WebCacheEntry(status, reason, headers, body, at);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(storedAt);
+            out.writeInt(status);
+            out.writeUTF(reason);
+            out.writeInt(headers.size());
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** @return the decoded entry, or null for data in an unknown or corrupt format */
+    public static WebCacheEntry decode(byte[] data) {
+        if (data == null) return null;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != FORMAT_VERSION) return null;
+            long storedAt = in.readLong();
+            int status = in.readInt();
+            String reason = in.readUTF();
+            int headerCount = in.readInt();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            int length = in.readInt();
+            if (length < 0 || length > data.length) return null;
+            byte[] body = new byte[length];
+            in.readFully(body);
+            return new WebCacheEntry(status, reason, headers, body, storedAt);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
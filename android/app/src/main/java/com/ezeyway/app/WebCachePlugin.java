@@ -0,0 +1,73 @@
+package com.ezeyway.app;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * JS access to the native WebView request cache: counters, per-pattern
+ * freshness rules, and clearing it (e.g. on logout).
+ */
+@CapacitorPlugin(name = "WebCache")
+public class WebCachePlugin extends Plugin {
+
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        try {
+            call.resolve(new JSObject(CachingWebViewClient.getCache(getContext()).statsJson()));
+        } catch (JSONException e) {
+            call.reject("Failed to encode stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the rules; each is {@code {pattern, maxAgeSec, staleWhileRevalidateSec}},
+     * first match wins.
+     */
+    @PluginMethod
+    public void setRules(PluginCall call) {
+        JSArray array = call.getArray("rules");
+        if (array == null) {
+            call.reject("rules is required");
+            return;
+        }
+
+        List<WebCachePolicy.Rule> rules = new ArrayList<>();
+        try {
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject rule = array.getJSONObject(i);
+                rules.add(new WebCachePolicy.Rule(
+                    rule.getString("pattern"),
+                    rule.optLong("maxAgeSec", 0) * 1000,
+                    rule.optLong("staleWhileRevalidateSec", 0) * 1000
+                ));
+            }
+        } catch (JSONException | PatternSyntaxException e) {
+            call.reject("Invalid rule: " + e.getMessage());
+            return;
+        }
+
+        CachingWebViewClient.getCache(getContext()).setPolicy(new WebCachePolicy(rules));
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void resetRules(PluginCall call) {
+        CachingWebViewClient.getCache(getContext()).setPolicy(WebCachePolicy.defaults());
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void clear(PluginCall call) {
+        CachingWebViewClient.getCache(getContext()).clear();
+        call.resolve();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ezeyway.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Which WebView requests the native cache may answer, and for how long.
+ *
+ * Rules are checked in order and the first pattern that finds a match in the
+ * URL wins. Within {@code freshMs} of being stored a response is served
+ * without touching the network; for {@code staleMs} after that it is still
+ * served immediately while a conditional request refreshes it in the
+ * background. Older entries are revalidated before being used. URLs that no
+ * rule matches are left to the WebView.
+ */
+public final class WebCachePolicy {
+    private static final long SECOND_MS = 1000;
+    private static final long MINUTE_MS = 60 * SECOND_MS;
+    private static final long DAY_MS = 24 * 60 * MINUTE_MS;
+
+    public static final class Rule {
+        public final Pattern pattern;
+        public final long freshMs;
+        public final long staleMs;
+
+        public Rule(String pattern, long freshMs, long staleMs) {
+            this.pattern = Pattern.compile(pattern);
+            this.freshMs = freshMs;
+            this.staleMs = staleMs;
+        }
+    }
+
+    private final List<Rule> rules;
+
+    public WebCachePolicy(List<Rule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    /**
+     * Catalog reads and media. Orders, wallet, messages and vendor profiles
+     * (which carry the shop's online state) always go to the network.
+     */
+    public static WebCachePolicy defaults() {
+        List<Rule> rules = new ArrayList<>();
+        rules.add(new Rule("^https://ezeyway\\.com/media/", DAY_MS, 30 * DAY_MS));
+        rules.add(new Rule("^https://ezeyway\\.com/api/(products|categories|sliders|search/products)/", MINUTE_MS, DAY_MS));
+        rules.add(new Rule("^https://[^/]+/[^?#]*\\.(png|jpe?g|webp|gif)([?#]|$)", DAY_MS, 30 * DAY_MS));
+        return new WebCachePolicy(rules);
+    }
+
+    public Rule match(String url) {
+        for (Rule rule : rules) {
+            if (rule.pattern.matcher(url).find()) return rule;
+        }
+        return null;
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+}
@@ -0,0 +1,298 @@
+package com.ezeyway.app;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP cache for GET requests made by the WebView, backed by a
+ * {@link DiskLruCache} and driven by a {@link WebCachePolicy}.
+ *
+ * Entries are keyed by URL and Authorization header so one vendor never sees
+ * another's responses. Revalidation uses the stored ETag / Last-Modified, and
+ * a 304 only refreshes the entry's age. When the network fails, an expired
+ * entry is served rather than nothing. A write to a cached URL expires every
+ * entry under the same rule, see {@link #invalidate(String)}.
+ */
+public class WebRequestCache {
+    public static final int SOURCE_FRESH = 0;
+    public static final int SOURCE_STALE = 1;
+    public static final int SOURCE_NETWORK = 2;
+    public static final int SOURCE_STALE_ON_ERROR = 3;
+
+    private static final Set<String> STORED_HEADERS = new HashSet<>();
+    static {
+        STORED_HEADERS.add("content-type");
+        STORED_HEADERS.add("etag");
+        STORED_HEADERS.add("last-modified");
+        STORED_HEADERS.add("cache-control");
+        STORED_HEADERS.add("content-language");
+    }
+
+    public interface Clock {
+        long nowMs();
+    }
+
+    public interface Transport {
+        /** @return the response; status 304 comes back with an empty body */
+        WebCacheEntry fetch(String url, Map<String, String> headers) throws IOException;
+    }
+
+    public static final class Result {
+        public final WebCacheEntry entry;
+        public final int source;
+
+        Result(WebCacheEntry entry, int source) {
+            this.entry = entry;
+            this.source = source;
+        }
+    }
+
+    private final DiskLruCache disk;
+    private final Transport transport;
+    private final Executor revalidator;
+    private final Clock clock;
+    private volatile WebCachePolicy policy;
+    private volatile boolean revalidationPaused;
+    private final Set<String> revalidating = new HashSet<>();
+    // Entries a rule stored at or before this time were written over and must be revalidated
+    private final Map<WebCachePolicy.Rule, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public WebRequestCache(DiskLruCache disk, WebCachePolicy policy, Transport transport, Executor revalidator, Clock clock) {
+        this.disk = disk;
+        this.policy = policy;
+        this.transport = transport;
+        this.revalidator = revalidator;
+        this.clock = clock;
+    }
+
+    public void setPolicy(WebCachePolicy policy) {
+        this.policy = policy;
+    }
+
+    public WebCachePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * While paused, stale entries are served without a background refresh;
+     * the next stale read after resuming refreshes them.
+     */
+    public void setRevalidationPaused(boolean paused) {
+        this.revalidationPaused = paused;
+    }
+
+    /**
+     * Expires every entry under the rule that matches {@code url}, whatever its
+     * auth token, because the page is changing data there (a POST, PUT, PATCH
+     * or DELETE). Entries stay on disk so their validators can still save the
+     * body on the next read, but none is served without asking the server.
+     */
+    public void invalidate(String url) {
+        WebCachePolicy.Rule rule = policy.match(url);
+        if (rule == null) return;
+        invalidatedAt.put(rule, clock.nowMs());
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Answers a GET request from cache or network.
+     *
+     * @return null when the request is not cacheable or could not be answered;
+     *         the WebView then loads it itself
+     */
+    public Result handle(String url, Map<String, String> requestHeaders) {
+        WebCachePolicy.Rule rule = policy.match(url);
+        if (rule == null || header(requestHeaders, "range") != null) return null;
+
+        String key = cacheKey(url, requestHeaders);
+        WebCacheEntry cached = WebCacheEntry.decode(disk.get(key));
+        long now = clock.nowMs();
+
+        Long invalidated = invalidatedAt.get(rule);
+        if (cached != null && (invalidated == null || cached.storedAt > invalidated)) {
+            long age = now - cached.storedAt;
+            if (age >= 0 && age <= rule.freshMs) {
+                hits.incrementAndGet();
+                return new Result(cached, SOURCE_FRESH);
+            }
+            if (age >= 0 && age <= rule.freshMs + rule.staleMs) {
+                staleHits.incrementAndGet();
+                revalidateLater(key, url, requestHeaders, cached);
+                return new Result(cached, SOURCE_STALE);
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            WebCacheEntry entry = revalidate(key, url, requestHeaders, cached);
+            return entry != null ? new Result(entry, SOURCE_NETWORK) : null;
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            return cached != null ? new Result(cached, SOURCE_STALE_ON_ERROR) : null;
+        }
+    }
+
+    private void revalidateLater(String key, String url, Map<String, String> requestHeaders, WebCacheEntry cached) {
+        if (revalidationPaused) return;
+        synchronized (revalidating) {
+            if (!revalidating.add(key)) return;
+        }
+        revalidator.execute(() -> {
+            try {
+                revalidate(key, url, requestHeaders, cached);
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            } finally {
+                synchronized (revalidating) {
+                    revalidating.remove(key);
+                }
+            }
+        });
+    }
+
+    /** @return the response to serve, or null if the WebView must load it itself */
+    private WebCacheEntry revalidate(String key, String url, Map<String, String> requestHeaders,
+                                     WebCacheEntry cached) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            // Validators must match the entry we hold, not whatever the page sent
+            String name = header.getKey().toLowerCase(Locale.US);
+            if (!name.equals("if-none-match") && !name.equals("if-modified-since")) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        }
+        if (cached != null) {
+            if (cached.header("etag") != null) headers.put("If-None-Match", cached.header("etag"));
+            if (cached.header("last-modified") != null) headers.put("If-Modified-Since", cached.header("last-modified"));
+        }
+
+        long now = clock.nowMs();
+        WebCacheEntry response = transport.fetch(url, headers).withStoredAt(now);
+        if (response.status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            notModified.incrementAndGet();
+            WebCacheEntry refreshed = cached.withStoredAt(now);
+            disk.put(key, refreshed.encode());
+            return refreshed;
+        }
+        if (response.status != HttpURLConnection.HTTP_OK) {
+            // WebView rejects redirects from an interceptor, so those it follows itself
+            if (response.status >= 300 && response.status < 400) return null;
+            // Errors are served but never stored; handing them back avoids a second request
+            return response;
+        }
+
+        String cacheControl = response.header("cache-control");
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.US).contains("no-store")) {
+            disk.remove(key);
+        } else {
+            disk.put(key, response.encode());
+            if (cached != null) updated.incrementAndGet();
+        }
+        return response;
+    }
+
+    public void clear() {
+        disk.trimTo(0);
+    }
+
+    public String statsJson() {
+        return "{\"hits\":" + hits.get()
+            + ",\"staleHits\":" + staleHits.get()
+            + ",\"misses\":" + misses.get()
+            + ",\"notModified\":" + notModified.get()
+            + ",\"updated\":" + updated.get()
+            + ",\"errors\":" + errors.get()
+            + ",\"invalidations\":" + invalidations.get()
+            + ",\"diskBytes\":" + disk.size()
+            + ",\"maxDiskBytes\":" + disk.maxSize() + "}";
+    }
+
+    static String cacheKey(String url, Map<String, String> requestHeaders) {
+        String auth = header(requestHeaders, "authorization");
+        return auth == null ? url : url + "\n" + auth;
+    }
+
+    static String header(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) return header.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Plain HttpURLConnection transport; bodies over {@code maxBytes} fail the
+     * fetch. Error bodies are read so the page sees them; only successful
+     * connections go back to the keep-alive pool.
+     */
+    public static Transport httpTransport(int timeoutMs, int maxBytes) {
+        return (url, headers) -> {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            try {
+                connection.setConnectTimeout(timeoutMs);
+                connection.setReadTimeout(timeoutMs);
+                connection.setUseCaches(false);
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
+
+                int status = connection.getResponseCode();
+                Map<String, String> stored = new LinkedHashMap<>();
+                for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+                    if (header.getKey() == null || header.getValue().isEmpty()) continue;
+                    String name = header.getKey().toLowerCase(Locale.US);
+                    if (STORED_HEADERS.contains(name)) stored.put(name, header.getValue().get(0));
+                }
+                String reason = connection.getResponseMessage();
+                if (status != HttpURLConnection.HTTP_OK) {
+                    byte[] body = new byte[0];
+                    InputStream error = connection.getErrorStream();
+                    if (error != null) {
+                        try (InputStream in = error) {
+                            body = readBody(in, maxBytes, url);
+                        }
+                    }
+                    connection.disconnect();
+                    return new WebCacheEntry(status, reason, stored, body, 0);
+                }
+
+                try (InputStream in = connection.getInputStream()) {
+                    return new WebCacheEntry(status, reason, stored, readBody(in, maxBytes, url), 0);
+                }
+            } catch (IOException e) {
+                connection.disconnect();
+                throw e;
+            }
+        };
+    }
+
+    private static byte[] readBody(InputStream in, int maxBytes, String url) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        byte[] buffer = new byte[8 * 1024];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            if (out.size() + n > maxBytes) throw new IOException("Response too large: " + url);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
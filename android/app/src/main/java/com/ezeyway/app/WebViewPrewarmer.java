@@ -0,0 +1,172 @@
+package com.ezeyway.app;
+
+import android.app.ActivityManager;
+import android.content.BroadcastReceiver;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.Intent;
+import android.content.res.AssetManager;
+import android.content.res.Configuration;
+import android.os.SystemClock;
+import android.util.Log;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms the UI process's WebView engine while an order escalates, so the
+ * vendor tapping through does not pay for Chromium start-up and cold bundle
+ * reads on the critical path.
+ *
+ * The alerts process must not load a WebView, so when an unseen order
+ * reaches the full-screen tier it sends {@link Receiver} a broadcast, which
+ * starts the UI process if needed. A hidden WebView there loads the Chromium
+ * provider and spawns the shared renderer process, while the web bundle under
+ * {@code assets/public} is read once on a background thread to pull it into
+ * the page cache. The hidden WebView is kept until MainActivity has its own
+ * (all WebViews share the renderer process) and is dropped as soon as the
+ * system reports memory pressure.
+ */
+public class WebViewPrewarmer {
+    private static final String TAG = "WebViewPrewarmer";
+    private static final String BUNDLE_DIR = "public";
+    private static final long MIN_AVAILABLE_BYTES = 200L * 1024 * 1024;
+
+    private static final ExecutorService assetReader = Executors.newSingleThreadExecutor(
+        r -> new Thread(r, "webview-prewarm"));
+
+    private static WebView warmWebView;
+    private static ComponentCallbacks2 trimCallback;
+    private static boolean started;
+    private static boolean handedOff;
+    private static long readyAt;
+
+    /** Runs in the UI process; the alerts process names it by class. */
+    public static class Receiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            // Keeps the process out of the cached state, where it may be frozen, until the bundle is read
+            PendingResult result = goAsync();
+            prewarm(context.getApplicationContext(), result::finish);
+        }
+    }
+
+    /**
+     * Called by MainActivity once its bridge WebView exists.
+     */
+    public static void handOff(Context context) {
+        handedOff = true;
+        if (started && readyAt > 0) {
+            Log.d(TAG, "🔥 Activity started " + (SystemClock.elapsedRealtime() - readyAt) + "ms after engine pre-warm");
+        }
+        release(context.getApplicationContext(), "handed off");
+    }
+
+    private static void prewarm(Context context, Runnable done) {
+        if (started || handedOff) {
+            done.run();
+            return;
+        }
+        if (isMemoryConstrained(context)) {
+            Log.d(TAG, "⚠️ Skipping WebView pre-warm under memory pressure");
+            done.run();
+            return;
+        }
+
+        started = true;
+        long startedAt = SystemClock.elapsedRealtime();
+
+        trimCallback = new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                    release(context, "trim level " + level);
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                release(context, "low memory");
+            }
+        };
+        context.registerComponentCallbacks(trimCallback);
+
+        assetReader.execute(() -> {
+            readBundle(context.getAssets());
+            done.run();
+        });
+
+        try {
+            WebSettings.getDefaultUserAgent(context);
+            warmWebView = new WebView(context);
+            warmWebView.getSettings().setJavaScriptEnabled(true);
+            warmWebView.loadUrl("about:blank");
+            readyAt = SystemClock.elapsedRealtime();
+            Log.d(TAG, "🔥 WebView engine pre-warmed in " + (readyAt - startedAt) + "ms");
+        } catch (Exception e) {
+            Log.e(TAG, "❌ WebView pre-warm failed: " + e.getMessage());
+            release(context, "failed");
+        }
+    }
+
+    private static void release(Context context, String reason) {
+        if (trimCallback != null) {
+            context.unregisterComponentCallbacks(trimCallback);
+            trimCallback = null;
+        }
+        if (warmWebView != null) {
+            warmWebView.destroy();
+            warmWebView = null;
+            Log.d(TAG, "🧹 Pre-warmed WebView released (" + reason + ")");
+        }
+    }
+
+    private static boolean isMemoryConstrained(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null) return true;
+
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        return memoryInfo.lowMemory
+            || memoryInfo.availMem < memoryInfo.threshold + MIN_AVAILABLE_BYTES;
+    }
+
+    private static void readBundle(AssetManager assets) {
+        long begin = SystemClock.elapsedRealtime();
+        byte[] buffer = new byte[64 * 1024];
+        long total = readAsset(assets, BUNDLE_DIR + "/index.html", buffer);
+        try {
+            String[] files = assets.list(BUNDLE_DIR + "/assets");
+            if (files != null) {
+                for (String name : files) {
+                    if (name.endsWith(".js") || name.endsWith(".css")) {
+                        total += readAsset(assets, BUNDLE_DIR + "/assets/" + name, buffer);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Failed to list web bundle: " + e.getMessage());
+        }
+        Log.d(TAG, "📦 Read " + (total / 1024) + "KB of web bundle in " + (SystemClock.elapsedRealtime() - begin) + "ms");
+    }
+
+    private static long readAsset(AssetManager assets, String path, byte[] buffer) {
+        long read = 0;
+        try (InputStream in = assets.open(path)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                read += n;
+            }
+        } catch (IOException ignored) {
+            // Missing files just are not warmed
+        }
+        return read;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class AlertEscalationTest {
+    private static final long[] DEADLINES = {0, 15_000, 45_000, 90_000};
+
+    @Test
+    public void tiersFireInOrderAtTheirDeadlines() {
+        AlertEscalation escalation = new AlertEscalation(DEADLINES);
+        assertTrue(escalation.start("1", 1_000));
+        assertFalse(escalation.start("1", 2_000));
+        assertEquals(16_000, escalation.nextDeadline());
+
+        assertTrue(escalation.due(15_999).isEmpty());
+        List<AlertEscalation.Due> due = escalation.due(16_000);
+        assertEquals(1, due.size());
+        assertEquals(AlertEscalation.TIER_FULL_SCREEN, due.get(0).tier);
+        assertEquals(46_000, escalation.nextDeadline());
+
+        assertEquals(AlertEscalation.TIER_OVERLAY, escalation.due(46_000).get(0).tier);
+        assertEquals(AlertEscalation.TIER_LAUNCH, escalation.due(91_000).get(0).tier);
+        assertEquals(-1, escalation.nextDeadline());
+    }
+
+    @Test
+    public void lateCheckFiresOnlyTheHighestOverdueTier() {
+        AlertEscalation escalation = new AlertEscalation(DEADLINES);
+        escalation.start("1", 0);
+
+        List<AlertEscalation.Due> due = escalation.due(60_000);
+        assertEquals(1, due.size());
+        assertEquals(AlertEscalation.TIER_OVERLAY, due.get(0).tier);
+        assertTrue(escalation.due(60_000).isEmpty());
+    }
+
+    @Test
+    public void seenOrderStopsEscalating() {
+        AlertEscalation escalation = new AlertEscalation(DEADLINES);
+        escalation.start("1", 0);
+        escalation.start("2", 5_000);
+        escalation.due(15_000);
+
+        assertEquals(AlertEscalation.TIER_FULL_SCREEN, escalation.markSeen("1", 20_000));
+        assertEquals(-1, escalation.markSeen("1", 21_000));
+        assertEquals(20_000, escalation.nextDeadline());
+
+        List<AlertEscalation.Due> due = escalation.due(100_000);
+        assertEquals(1, due.size());
+        assertEquals("2", due.get(0).orderId);
+    }
+
+    @Test
+    public void restoreSkipsTiersAlreadyPassed() {
+        AlertEscalation escalation = new AlertEscalation(DEADLINES);
+        escalation.restore("1", 0, 50_000);
+
+        assertTrue(escalation.due(50_000).isEmpty());
+        assertEquals(90_000, escalation.nextDeadline());
+        assertEquals(AlertEscalation.TIER_OVERLAY, escalation.markSeen("1", 50_000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDecreasingDeadlines() {
+        new AlertEscalation(new long[] {0, 30_000, 20_000, 90_000});
+    }
+}
@@ -0,0 +1,49 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import org.junit.Test;
+
+public class DiskLruCacheTest {
+
+    private static File tempDir() throws Exception {
+        File dir = Files.createTempDirectory("disklru").toFile();
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWhenOverCapacity() throws Exception {
+        DiskLruCache cache = new DiskLruCache(tempDir(), 300);
+        cache.put("a", new byte[100]);
+        cache.put("b", new byte[100]);
+        cache.put("c", new byte[100]);
+        assertNotNull(cache.get("a"));
+
+        cache.put("d", new byte[100]);
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.size() <= 300);
+    }
+
+    @Test
+    public void reopenKeepsEntriesWithinCap() throws Exception {
+        File dir = tempDir();
+        DiskLruCache cache = new DiskLruCache(dir, 1_000);
+        cache.put("https://example.com/momo.jpg", new byte[] {1, 2, 3});
+
+        DiskLruCache reopened = new DiskLruCache(dir, 1_000);
+        assertArrayEquals(new byte[] {1, 2, 3}, reopened.get("https://example.com/momo.jpg"));
+        assertEquals(3, reopened.size());
+    }
+
+    @Test
+    public void oversizedEntriesAreNotStored() throws Exception {
+        DiskLruCache cache = new DiskLruCache(tempDir(), 10);
+        cache.put("big", new byte[11]);
+        assertNull(cache.get("big"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DispatchHistogramTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void bucketsDoubleFromOneMillisecond() {
+        assertEquals(0, DispatchHistogram.bucketFor(300_000));
+        assertEquals(1, DispatchHistogram.bucketFor(1 * MS));
+        assertEquals(4, DispatchHistogram.bucketFor(12 * MS));
+        assertEquals(DispatchHistogram.BUCKET_BOUNDS_MS.length, DispatchHistogram.bucketFor(5_000 * MS));
+    }
+
+    @Test
+    public void percentilesAreTrackedPerComponent() {
+        DispatchHistogram histogram = new DispatchHistogram("activity", "other");
+        for (int i = 0; i < 98; i++) histogram.record(1, 3 * MS);
+        histogram.record(1, 40 * MS);
+        histogram.record(1, 700 * MS);
+        histogram.record(0, 120 * MS);
+
+        assertEquals(100, histogram.count(1));
+        assertEquals(4, histogram.percentileMs(1, 0.50));
+        assertEquals(64, histogram.percentileMs(1, 0.99));
+        assertEquals(1024, histogram.percentileMs(1, 1.0));
+        assertEquals(128, histogram.percentileMs(0, 0.50));
+        assertEquals(0, new DispatchHistogram("idle").percentileMs(0, 0.5));
+    }
+
+    @Test
+    public void reportListsEveryComponent() {
+        DispatchHistogram histogram = new DispatchHistogram("activity", "other");
+        histogram.record(0, 20 * MS);
+        String json = histogram.toJson();
+        assertTrue(json, json.contains("\"activity\":{\"count\":1,\"totalMs\":20,\"maxMs\":20"));
+        assertTrue(json, json.contains("\"other\":{\"count\":0"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.ByteBuffer;
+import org.json.JSONArray;
+import org.junit.Test;
+
+public class FlightRecorderTest {
+    @Test
+    public void exportsRecordsOldestFirst() throws Exception {
+        FlightRecorder recorder = new FlightRecorder(ByteBuffer.allocate(FlightRecorder.sizeFor(8)));
+        recorder.record(FlightRecorder.EVENT_MESSAGE_RECEIVED, "1042", FlightRecorder.SOURCE_SOCKET, 100);
+        recorder.record(FlightRecorder.EVENT_SERVICE_CREATED, null, FlightRecorder.SERVICE_OVERLAY, 200);
+        recorder.record(FlightRecorder.EVENT_ESCALATED, "1042", AlertEscalation.TIER_OVERLAY, 300);
+
+        JSONArray records = recorder.export(10);
+        assertEquals(3, records.length());
+        assertEquals("messageReceived", records.getJSONObject(0).getString("event"));
+        assertEquals("1042", records.getJSONObject(0).getString("orderId"));
+        assertEquals(1, records.getJSONObject(0).getInt("arg"));
+        assertEquals("overlay", records.getJSONObject(1).getString("service"));
+        assertFalse(records.getJSONObject(1).has("orderId"));
+        assertEquals("overlay", records.getJSONObject(2).getString("tier"));
+        assertEquals(300, records.getJSONObject(2).getLong("at"));
+    }
+
+    @Test
+    public void ringKeepsOnlyTheNewestRecords() throws Exception {
+        FlightRecorder recorder = new FlightRecorder(ByteBuffer.allocate(FlightRecorder.sizeFor(4)));
+        for (int i = 0; i < 10; i++) {
+            recorder.record(FlightRecorder.EVENT_NOTIFICATION_POSTED, Integer.toString(i), 0, i);
+        }
+
+        JSONArray records = recorder.export(100);
+        assertEquals(4, records.length());
+        assertEquals("6", records.getJSONObject(0).getString("orderId"));
+        assertEquals(9, records.getJSONObject(3).getLong("seq"));
+        assertEquals(2, recorder.export(2).length());
+    }
+
+    @Test
+    public void reopeningContinuesAfterTheNewestRecord() throws Exception {
+        ByteBuffer file = ByteBuffer.allocate(FlightRecorder.sizeFor(4));
+        FlightRecorder before = new FlightRecorder(file);
+        for (int i = 0; i < 6; i++) {
+            before.record(FlightRecorder.EVENT_AUDIO_STARTED, null, i, i);
+        }
+
+        FlightRecorder after = new FlightRecorder(file);
+        after.record(FlightRecorder.EVENT_PROCESS_STARTED, null, 0, 10);
+        JSONArray records = after.export(100);
+        assertEquals(4, records.length());
+        assertEquals(3, records.getJSONObject(0).getInt("arg"));
+        assertEquals(6, records.getJSONObject(3).getLong("seq"));
+        assertEquals("processStarted", records.getJSONObject(3).getString("event"));
+    }
+
+    @Test
+    public void tornRecordIsSkipped() throws Exception {
+        ByteBuffer file = ByteBuffer.allocate(FlightRecorder.sizeFor(4));
+        FlightRecorder recorder = new FlightRecorder(file);
+        recorder.record(FlightRecorder.EVENT_JOB_STARTED, "1", 0, 1);
+        recorder.record(FlightRecorder.EVENT_JOB_FINISHED, "1", 1, 2);
+        // A crash between invalidating the slot and stamping its sequence
+        file.putLong(FlightRecorder.HEADER_BYTES + FlightRecorder.RECORD_BYTES, -1);
+
+        JSONArray records = new FlightRecorder(file).export(10);
+        assertEquals(1, records.length());
+        assertEquals("jobStarted", records.getJSONObject(0).getString("event"));
+    }
+
+    @Test
+    public void nonNumericOrderIdsAreHashed() {
+        assertEquals("123", FlightRecorder.orderIdFor(FlightRecorder.orderKey("123")));
+        assertEquals("#" + Integer.toHexString("EZ-9".hashCode()),
+            FlightRecorder.orderIdFor(FlightRecorder.orderKey("EZ-9")));
+        assertEquals(null, FlightRecorder.orderIdFor(FlightRecorder.orderKey(null)));
+    }
+}
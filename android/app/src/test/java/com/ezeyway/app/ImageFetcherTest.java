@@ -0,0 +1,80 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImageFetcherTest {
+    private static final byte[] IMAGE = new byte[2048];
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private String baseUrl;
+
+    @Before
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/product.jpg", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(IMAGE);
+            }
+        });
+        server.createContext("/slow.jpg", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            exchange.getResponseBody().write(IMAGE);
+            exchange.close();
+        });
+        server.createContext("/missing.jpg", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private ImageFetcher fetcher(int timeoutMs, int maxBytes) throws Exception {
+        File dir = Files.createTempDirectory("images").toFile();
+        dir.deleteOnExit();
+        return new ImageFetcher(new DiskLruCache(dir, 1 << 20), timeoutMs, maxBytes);
+    }
+
+    @Test
+    public void repeatFetchIsServedFromDisk() throws Exception {
+        ImageFetcher fetcher = fetcher(1_000, 1 << 20);
+        assertArrayEquals(IMAGE, fetcher.fetch(baseUrl + "/product.jpg"));
+        assertArrayEquals(IMAGE, fetcher.fetch(baseUrl + "/product.jpg"));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void slowServerTimesOut() throws Exception {
+        long start = System.currentTimeMillis();
+        assertNull(fetcher(200, 1 << 20).fetch(baseUrl + "/slow.jpg"));
+        assertTrue(System.currentTimeMillis() - start < 1_500);
+    }
+
+    @Test
+    public void errorsAndOversizedImagesAreSkipped() throws Exception {
+        assertNull(fetcher(1_000, 1 << 20).fetch(baseUrl + "/missing.jpg"));
+        assertNull(fetcher(1_000, 1_024).fetch(baseUrl + "/product.jpg"));
+    }
+}
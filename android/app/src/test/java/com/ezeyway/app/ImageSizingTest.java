@@ -0,0 +1,35 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ImageSizingTest {
+
+    @Test
+    public void widthsRoundUpToSharedBuckets() {
+        assertEquals(64, ImageSizing.bucketWidth(10));
+        assertEquals(256, ImageSizing.bucketWidth(240));
+        assertEquals(384, ImageSizing.bucketWidth(336));
+        assertEquals(1536, ImageSizing.bucketWidth(5000));
+        assertEquals(256, ImageSizing.bucketHeight(240, 240, 256));
+        assertEquals(0, ImageSizing.bucketHeight(240, 0, 256));
+    }
+
+    @Test
+    public void centerCropMatchesTargetAspect() {
+        // Landscape photo into a square tile
+        assertArrayEquals(new int[] {500, 0, 2500, 2000}, ImageSizing.centerCrop(3000, 2000, 200, 200));
+        // Portrait photo into a wide banner
+        assertArrayEquals(new int[] {0, 700, 1000, 1300}, ImageSizing.centerCrop(1000, 2000, 500, 300));
+        // No height keeps the whole image
+        assertArrayEquals(new int[] {0, 0, 1000, 2000}, ImageSizing.centerCrop(1000, 2000, 500, 0));
+    }
+
+    @Test
+    public void sampleSizeNeverDropsBelowTarget() {
+        assertEquals(8, ImageSizing.sampleSize(4000, 3000, 384, 288));
+        assertEquals(4, ImageSizing.sampleSize(4000, 3000, 512, 384));
+        assertEquals(1, ImageSizing.sampleSize(300, 300, 384, 384));
+    }
+}
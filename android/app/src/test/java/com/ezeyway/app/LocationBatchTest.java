@@ -0,0 +1,101 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import org.junit.Test;
+
+public class LocationBatchTest {
+
+    private static List<LocationFix> route(int count) {
+        List<LocationFix> fixes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            fixes.add(new LocationFix(12.971599 + i * 0.0001, 77.594566 - i * 0.00005, 8f, 4.2f,
+                1_712_345_678_000L + i * 10_000L));
+        }
+        return fixes;
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void encodesDeltasAgainstPreviousFix() {
+        String json = LocationBatch.encodeJson(route(3));
+        assertEquals("{\"t0\":1712345678000,\"lat0\":12971599,\"lon0\":77594566,"
+            + "\"fixes\":[[0,0,0,8,42],[100,-50,10,8,42],[100,-50,10,8,42]]}", json);
+        assertEquals("{\"fixes\":[]}", LocationBatch.encodeJson(new ArrayList<>()));
+    }
+
+    @Test
+    public void batchIsMuchSmallerThanPerFixRequests() throws Exception {
+        List<LocationFix> fixes = route(120);
+        byte[] body = LocationBatch.encode(fixes);
+        assertEquals(LocationBatch.encodeJson(fixes), gunzip(body));
+        // ~20 bytes per fix before gzip; repeated deltas compress to a few bytes each
+        assertTrue("gzipped " + body.length + " bytes", body.length < 120 * 4);
+    }
+
+    @Test
+    public void bufferDropsOldestAndRequeuesUnsentBatch() {
+        LocationBatch batch = new LocationBatch(3);
+        List<LocationFix> fixes = route(5);
+        for (LocationFix fix : fixes) batch.add(fix);
+        List<LocationFix> drained = batch.drain();
+        assertEquals(fixes.subList(2, 5), drained);
+
+        batch.add(fixes.get(0));
+        batch.requeue(drained);
+        assertEquals(3, batch.size());
+        assertSame(drained.get(1), batch.drain().get(0));
+    }
+
+    @Test
+    public void uploaderPostsGzippedBatchToLocalServer() throws Exception {
+        AtomicInteger status = new AtomicInteger(201);
+        AtomicReference<String> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/location/batch/", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            try {
+                if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                    received.set(gunzip(body));
+                }
+            } catch (Exception e) {
+                received.set(null);
+            }
+            boolean authorized = "Token secret".equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(authorized ? status.get() : 401, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            LocationUploader uploader = new LocationUploader(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api", 2_000);
+            List<LocationFix> fixes = route(4);
+
+            assertEquals(OrderActionClient.Result.SENT, uploader.send(LocationBatch.encode(fixes), "secret"));
+            assertEquals(LocationBatch.encodeJson(fixes), received.get());
+
+            assertEquals(OrderActionClient.Result.RETRY, uploader.send(LocationBatch.encode(fixes), "wrong"));
+            assertEquals(OrderActionClient.Result.RETRY, uploader.send(LocationBatch.encode(fixes), null));
+            status.set(503);
+            assertEquals(OrderActionClient.Result.RETRY, uploader.send(LocationBatch.encode(fixes), "secret"));
+            status.set(400);
+            assertEquals(OrderActionClient.Result.DROP, uploader.send(LocationBatch.encode(fixes), "secret"));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LocationPolicyTest {
+    private static final double LAT = 12.971599;
+    private static final double LON = 77.594566;
+    // Roughly one meter of latitude
+    private static final double METER = 1.0 / 111_320;
+
+    private static LocationFix fix(double northMeters, float accuracy, long time) {
+        return new LocationFix(LAT + northMeters * METER, LON, accuracy, -1f, time);
+    }
+
+    @Test
+    public void intervalTightensWithSpeedOnlyDuringOrders() {
+        assertEquals(LocationPolicy.ACTIVE_FAST_INTERVAL_MS, LocationPolicy.intervalFor(12f, true));
+        assertEquals(LocationPolicy.ACTIVE_MOVING_INTERVAL_MS, LocationPolicy.intervalFor(3f, true));
+        assertEquals(LocationPolicy.ACTIVE_STILL_INTERVAL_MS, LocationPolicy.intervalFor(0f, true));
+        assertEquals(LocationPolicy.IDLE_MOVING_INTERVAL_MS, LocationPolicy.intervalFor(12f, false));
+        assertEquals(LocationPolicy.IDLE_STILL_INTERVAL_MS, LocationPolicy.intervalFor(0f, false));
+    }
+
+    @Test
+    public void jitterInsideAccuracyRadiusIsDroppedUntilHeartbeat() {
+        LocationPolicy policy = new LocationPolicy();
+        assertTrue(policy.accept(fix(0, 10, 0)));
+
+        // A parked vehicle wobbling a few meters
+        assertFalse(policy.accept(fix(6, 12, 10_000)));
+        assertFalse(policy.accept(fix(-4, 8, 20_000)));
+        assertTrue(policy.accept(fix(3, 10, LocationPolicy.STATIONARY_HEARTBEAT_MS)));
+
+        // Real movement passes straight away
+        assertTrue(policy.accept(fix(80, 10, LocationPolicy.STATIONARY_HEARTBEAT_MS + 10_000)));
+    }
+
+    @Test
+    public void inaccurateStaleAndTeleportingFixesAreRejected() {
+        LocationPolicy policy = new LocationPolicy();
+        assertFalse(policy.accept(fix(0, 250, 0)));
+        assertTrue(policy.accept(fix(0, 10, 1_000)));
+
+        assertFalse("out of order", policy.accept(fix(100, 10, 500)));
+        assertFalse("2 km in 10 s", policy.accept(fix(2_000, 10, 11_000)));
+        assertEquals(1_000, policy.getLastAccepted().time);
+    }
+
+    @Test
+    public void speedIsDerivedWhenProviderOmitsIt() {
+        LocationPolicy policy = new LocationPolicy();
+        policy.accept(fix(0, 5, 0));
+        assertEquals(10f, policy.estimateSpeed(fix(100, 5, 10_000)), 0.5f);
+        assertEquals(4f, policy.estimateSpeed(new LocationFix(LAT, LON, 5, 4f, 10_000)), 0f);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class MemoryPressureTest {
+
+    @Test
+    public void levelsMapToTiers() {
+        assertEquals(MemoryPressure.TIER_SHRINK, MemoryPressure.tierFor(MemoryPressure.LEVEL_RUNNING_MODERATE));
+        assertEquals(MemoryPressure.TIER_SHRINK, MemoryPressure.tierFor(MemoryPressure.LEVEL_UI_HIDDEN));
+        assertEquals(MemoryPressure.TIER_DROP, MemoryPressure.tierFor(MemoryPressure.LEVEL_RUNNING_LOW));
+        assertEquals(MemoryPressure.TIER_DROP, MemoryPressure.tierFor(MemoryPressure.LEVEL_BACKGROUND));
+        assertEquals(MemoryPressure.TIER_CRITICAL, MemoryPressure.tierFor(MemoryPressure.LEVEL_RUNNING_CRITICAL));
+        assertEquals(MemoryPressure.TIER_CRITICAL, MemoryPressure.tierFor(MemoryPressure.LEVEL_COMPLETE));
+        // Unknown levels fall between the known ones
+        assertEquals(MemoryPressure.TIER_DROP, MemoryPressure.tierFor(50));
+        assertEquals(MemoryPressure.TIER_NONE, MemoryPressure.tierFor(0));
+    }
+
+    @Test
+    public void repeatedLevelsAreSkippedUntilTheyEscalate() {
+        MemoryPressure pressure = new MemoryPressure();
+        assertNotNull(pressure.begin(MemoryPressure.LEVEL_RUNNING_MODERATE, 0));
+        assertNull(pressure.begin(MemoryPressure.LEVEL_RUNNING_MODERATE, 1_000));
+        assertNull(pressure.begin(MemoryPressure.LEVEL_UI_HIDDEN, 2_000));
+
+        // A stronger level always applies
+        MemoryPressure.Trim drop = pressure.begin(MemoryPressure.LEVEL_RUNNING_LOW, 3_000);
+        assertEquals(MemoryPressure.TIER_DROP, drop.tier());
+        // A weaker one only once the last trim is old
+        assertNull(pressure.begin(MemoryPressure.LEVEL_RUNNING_MODERATE, 4_000));
+        assertNotNull(pressure.begin(MemoryPressure.LEVEL_RUNNING_MODERATE, 3_000 + MemoryPressure.REPEAT_MS));
+    }
+
+    @Test
+    public void dropPausesBackgroundWorkForAWhile() {
+        MemoryPressure pressure = new MemoryPressure();
+        pressure.begin(MemoryPressure.LEVEL_UI_HIDDEN, 0);
+        assertFalse(pressure.isPaused(0));
+
+        pressure.begin(MemoryPressure.LEVEL_BACKGROUND, 10_000);
+        assertTrue(pressure.isPaused(10_000 + MemoryPressure.PAUSE_MS - 1));
+        assertFalse(pressure.isPaused(10_000 + MemoryPressure.PAUSE_MS));
+
+        // Another drop pushes the resume out
+        pressure.begin(MemoryPressure.LEVEL_COMPLETE, 60_000);
+        assertEquals(60_000 + MemoryPressure.PAUSE_MS, pressure.pausedUntil());
+    }
+
+    @Test
+    public void reportKeepsPssBeforeAndAfterNewestFirst() throws Exception {
+        MemoryPressure pressure = new MemoryPressure();
+        MemoryPressure.Trim shrink = pressure.begin(MemoryPressure.LEVEL_UI_HIDDEN, 0);
+        pressure.finish(shrink, 180_000, 150_000);
+        MemoryPressure.Trim critical = pressure.begin(MemoryPressure.LEVEL_COMPLETE, 5_000);
+        pressure.finish(critical, 160_000, 120_000);
+        pressure.begin(MemoryPressure.LEVEL_COMPLETE, 6_000);
+
+        JSONObject json = new JSONObject(pressure.toJson(10_000));
+        assertEquals(1, json.getJSONObject("applied").getInt("shrink"));
+        assertEquals(1, json.getJSONObject("applied").getInt("critical"));
+        assertEquals(1, json.getInt("skipped"));
+        assertEquals(70_000, json.getLong("freedKb"));
+        assertTrue(json.getBoolean("paused"));
+
+        JSONArray history = json.getJSONArray("history");
+        assertEquals(2, history.length());
+        assertEquals("critical", history.getJSONObject(0).getString("tier"));
+        assertEquals(5_000, history.getJSONObject(0).getLong("agoMs"));
+        assertEquals(160_000, history.getJSONObject(0).getLong("pssBeforeKb"));
+        assertEquals(120_000, history.getJSONObject(0).getLong("pssAfterKb"));
+        assertEquals(180_000, history.getJSONObject(1).getLong("pssBeforeKb"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class NotificationIdRegistryTest {
+
+    @Test
+    public void idsAndRequestCodesNeverCollide() {
+        NotificationIdRegistry registry = new NotificationIdRegistry(null);
+        Set<Integer> ids = new HashSet<>();
+        Set<Integer> requestCodes = new HashSet<>();
+
+        // Numeric ids 1000 apart used to collide through orderId + 1000, and
+        // non-numeric ids crashed Integer.parseInt
+        String[] orderIds = {"1", "1001", "2001", "ORD-abc", "9f3c2e"};
+        for (String orderId : orderIds) {
+            int id = registry.idFor(orderId);
+            assertTrue(ids.add(id));
+            assertTrue(requestCodes.add(NotificationIdRegistry.acceptRequestCode(id)));
+            assertTrue(requestCodes.add(NotificationIdRegistry.rejectRequestCode(id)));
+        }
+        assertEquals(registry.idFor("1001"), registry.idFor("1001"));
+    }
+
+    @Test
+    public void releasedIdsAreReused() {
+        NotificationIdRegistry registry = new NotificationIdRegistry(null);
+        int first = registry.idFor("a");
+        registry.idFor("b");
+        assertEquals(first, registry.release("a"));
+        assertEquals(first, registry.idFor("c"));
+        assertEquals(-1, registry.release("a"));
+    }
+
+    @Test
+    public void idsSurviveRestart() throws Exception {
+        File file = File.createTempFile("notification_ids", ".txt");
+        file.delete();
+        file.deleteOnExit();
+
+        NotificationIdRegistry registry = new NotificationIdRegistry(file);
+        int id = registry.idFor("ORD-77");
+        registry.idFor("ORD-78");
+
+        NotificationIdRegistry reopened = new NotificationIdRegistry(file);
+        assertEquals(id, reopened.idFor("ORD-77"));
+        assertTrue(reopened.idFor("ORD-79") > id);
+    }
+
+    @Test
+    public void oldestIdsExpireAndTheFileStaysBounded() throws Exception {
+        File file = File.createTempFile("notification_ids", ".txt");
+        file.delete();
+        file.deleteOnExit();
+
+        NotificationIdRegistry registry = new NotificationIdRegistry(file);
+        int first = registry.idFor("order-0");
+        for (int i = 1; i < 5 * NotificationIdRegistry.MAX_IDS; i++) {
+            registry.idFor("order-" + i);
+        }
+        assertEquals(NotificationIdRegistry.MAX_IDS, registry.size());
+        assertFalse(registry.contains("order-0"));
+        // Expired ids are retired, not handed to a new order
+        assertNotEquals(first, registry.idFor("fresh"));
+        assertTrue(Files.readAllLines(file.toPath()).size() <= NotificationIdRegistry.COMPACT_LINES);
+
+        NotificationIdRegistry reopened = new NotificationIdRegistry(file);
+        assertEquals(NotificationIdRegistry.MAX_IDS, reopened.size());
+        assertEquals(registry.idFor("fresh"), reopened.idFor("fresh"));
+        assertFalse(reopened.contains("order-1"));
+    }
+
+    @Test
+    public void releasesAreReplayedOnRestart() throws Exception {
+        File file = File.createTempFile("notification_ids", ".txt");
+        file.delete();
+        file.deleteOnExit();
+
+        NotificationIdRegistry registry = new NotificationIdRegistry(file);
+        int a = registry.idFor("a");
+        registry.idFor("b");
+        registry.release("a");
+        assertEquals(a, registry.idFor("c"));
+
+        NotificationIdRegistry reopened = new NotificationIdRegistry(file);
+        assertFalse(reopened.contains("a"));
+        assertEquals(a, reopened.idFor("c"));
+    }
+}
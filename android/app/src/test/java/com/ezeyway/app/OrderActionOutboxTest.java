@@ -0,0 +1,79 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class OrderActionOutboxTest {
+
+    private static File tempFile() throws Exception {
+        File file = File.createTempFile("outbox", ".log");
+        file.delete();
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void failedActionsBackOffExponentially() throws Exception {
+        OrderActionOutbox outbox = new OrderActionOutbox(tempFile());
+        outbox.enqueue("42", OrderActionClient.ACTION_ACCEPT, 0);
+
+        assertTrue(outbox.due(1_000).isEmpty());
+        List<OrderActionOutbox.Action> due = outbox.due(OrderActionOutbox.BASE_BACKOFF_MS);
+        assertEquals(1, due.size());
+
+        outbox.retryLater(due.get(0), 10_000);
+        assertEquals(10_000 + 2 * OrderActionOutbox.BASE_BACKOFF_MS, outbox.nextAttemptAt());
+        assertEquals(OrderActionOutbox.MAX_BACKOFF_MS, OrderActionOutbox.backoff(30));
+    }
+
+    @Test
+    public void newerActionReplacesQueuedOneAndSurvivesRestart() throws Exception {
+        File file = tempFile();
+        OrderActionOutbox outbox = new OrderActionOutbox(file);
+        outbox.enqueue("7", OrderActionClient.ACTION_ACCEPT, 0);
+        outbox.enqueue("7", OrderActionClient.ACTION_REJECT, 0);
+        outbox.enqueue("8", OrderActionClient.ACTION_ACCEPT, 0);
+
+        OrderActionOutbox reopened = new OrderActionOutbox(file);
+        List<OrderActionOutbox.Action> due = reopened.due(Long.MAX_VALUE);
+        assertEquals(2, due.size());
+        assertEquals(OrderActionClient.ACTION_REJECT, due.get(0).action);
+
+        reopened.complete(due.get(0));
+        assertEquals(1, new OrderActionOutbox(file).size());
+    }
+
+    @Test
+    public void clientClassifiesServerResponses() throws Exception {
+        AtomicInteger status = new AtomicInteger(200);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/orders/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            boolean authorized = "Token secret".equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(authorized ? status.get() : 401, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            OrderActionClient client = new OrderActionClient(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api/", 2_000);
+
+            assertEquals(OrderActionClient.Result.SENT, client.send("42", OrderActionClient.ACTION_ACCEPT, "secret"));
+            assertEquals(OrderActionClient.Result.RETRY, client.send("42", OrderActionClient.ACTION_ACCEPT, "stale"));
+            assertEquals(OrderActionClient.Result.RETRY, client.send("42", OrderActionClient.ACTION_ACCEPT, null));
+
+            status.set(400);
+            assertEquals(OrderActionClient.Result.DROP, client.send("42", OrderActionClient.ACTION_REJECT, "secret"));
+            status.set(503);
+            assertEquals(OrderActionClient.Result.RETRY, client.send("42", OrderActionClient.ACTION_REJECT, "secret"));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
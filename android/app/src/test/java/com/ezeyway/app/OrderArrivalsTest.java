@@ -0,0 +1,24 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class OrderArrivalsTest {
+
+    @Test
+    public void reportsWhichChannelDeliveredFirst() {
+        OrderArrivals arrivals = new OrderArrivals();
+        arrivals.record("1", OrderArrivals.SOURCE_SOCKET, 1_000);
+        arrivals.record("1", OrderArrivals.SOURCE_FCM, 4_000);
+        arrivals.record("2", OrderArrivals.SOURCE_FCM, 5_000);
+        arrivals.record("2", OrderArrivals.SOURCE_SOCKET, 5_300);
+        arrivals.record("3", OrderArrivals.SOURCE_SOCKET, 6_000);
+        // Redelivery keeps the first arrival
+        arrivals.record("1", OrderArrivals.SOURCE_FCM, 9_000);
+
+        assertEquals("{\"orders\":3,\"both\":2,\"socketOnly\":1,\"fcmOnly\":0,"
+            + "\"socketFirst\":1,\"fcmFirst\":1,"
+            + "\"socketLeadMs\":{\"p50\":-300,\"p95\":3000,\"min\":-300,\"max\":3000}}", arrivals.toJson());
+    }
+}
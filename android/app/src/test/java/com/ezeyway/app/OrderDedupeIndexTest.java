@@ -0,0 +1,103 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class OrderDedupeIndexTest {
+
+    @Test
+    public void burstOfMixedMessages_onlyUniqueOrdersPass() throws Exception {
+        File file = File.createTempFile("dedupe", ".idx");
+        file.delete();
+        OrderDedupeIndex index = new OrderDedupeIndex(file, 16_384, 60_000L);
+
+        Random random = new Random(42);
+        Set<String> expectedOrders = new HashSet<>();
+        int accepted = 0;
+        long now = 1_000_000L;
+
+        for (int i = 0; i < 10_000; i++) {
+            // ~40% FCM redeliveries (same message id), ~20% server duplicates (new message id)
+            int roll = random.nextInt(10);
+            int orderNo = roll < 4 ? random.nextInt(1_000) : roll < 6 ? random.nextInt(1_000) : 1_000 + i;
+            String orderId = Integer.toString(orderNo);
+            String messageId = roll < 4 ? "msg-" + orderNo : "msg-" + orderNo + "-" + i;
+
+            expectedOrders.add(orderId);
+            if (index.markIfNew(orderId, messageId, now++)) {
+                accepted++;
+            }
+        }
+
+        assertEquals(expectedOrders.size(), accepted);
+        assertTrue(index.size() <= 16_384);
+    }
+
+    @Test
+    public void indexStaysBounded() {
+        OrderDedupeIndex index = new OrderDedupeIndex(null, 64, 60_000L);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(index.markIfNew("order-" + i, "msg-" + i, i));
+        }
+        assertEquals(64, index.size());
+    }
+
+    @Test
+    public void expiredEntriesAreAcceptedAgain() {
+        OrderDedupeIndex index = new OrderDedupeIndex(null, 64, 1_000L);
+        assertTrue(index.markIfNew("42", "a", 0));
+        assertFalse(index.markIfNew("42", "b", 500));
+        assertTrue(index.markIfNew("42", "c", 1_500));
+    }
+
+    @Test
+    public void missingOrderIdFallsBackToMessageId() {
+        OrderDedupeIndex index = new OrderDedupeIndex(null, 64, 60_000L);
+        assertTrue(index.markIfNew(null, "a", 0));
+        assertFalse(index.markIfNew(null, "a", 1));
+        assertTrue(index.markIfNew(null, "b", 2));
+    }
+
+    @Test
+    public void survivesReload() throws Exception {
+        File file = File.createTempFile("dedupe", ".idx");
+        file.delete();
+        long now = System.currentTimeMillis();
+
+        OrderDedupeIndex first = new OrderDedupeIndex(file, 64, 60_000L);
+        assertTrue(first.markIfNew("7", "msg-7", now));
+
+        OrderDedupeIndex reloaded = new OrderDedupeIndex(file, 64, 60_000L);
+        assertFalse(reloaded.markIfNew("7", "msg-7-redelivered", now + 10));
+        file.delete();
+    }
+
+    @Test
+    public void compactedJournalKeepsBothKeys() throws Exception {
+        File file = File.createTempFile("dedupe", ".idx");
+        file.delete();
+        long now = System.currentTimeMillis();
+
+        // Two journal lines per order, so capacity 4 compacts every few orders
+        OrderDedupeIndex first = new OrderDedupeIndex(file, 4, 60_000L);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(first.markIfNew("order-" + i, "msg-" + i, now + i));
+        }
+        assertTrue(Files.readAllLines(file.toPath()).size() <= 8);
+
+        OrderDedupeIndex reloaded = new OrderDedupeIndex(file, 4, 60_000L);
+        // Same order under a new message id, and the same message under another order id
+        assertFalse(reloaded.markIfNew("order-9", "msg-9-resent", now + 20));
+        assertFalse(reloaded.markIfNew("order-x", "msg-8", now + 21));
+        // Evicted by the capacity before the last compaction
+        assertTrue(reloaded.markIfNew("order-0", "msg-0-resent", now + 22));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        file.delete();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.List;
+import org.junit.Test;
+
+public class OrderInboxTest {
+
+    private static OrderPayload order(String orderId, long receivedAt) {
+        return new OrderPayload("msg-" + orderId, orderId, "ORD-" + orderId, "Ram\tShrestha",
+            "450", "2x Momo\n1x Tea", "Thamel, Kathmandu", "", receivedAt, true);
+    }
+
+    private static File tempFile() throws Exception {
+        File file = File.createTempFile("inbox", ".log");
+        file.delete();
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void pagesThroughPendingOrdersWithCursor() throws Exception {
+        OrderInbox inbox = new OrderInbox(tempFile(), 1 << 20, 100, 60_000L);
+        long now = System.currentTimeMillis();
+        for (int i = 1; i <= 25; i++) {
+            inbox.append(order(Integer.toString(i), now));
+        }
+
+        OrderInbox.Page first = inbox.page(0, 10);
+        assertEquals(10, first.entries.size());
+        assertTrue(first.hasMore);
+        assertEquals("1", first.entries.get(0).event.orderId);
+
+        OrderInbox.Page second = inbox.page(first.nextCursor, 10);
+        assertEquals("11", second.entries.get(0).event.orderId);
+
+        OrderInbox.Page last = inbox.page(second.nextCursor, 10);
+        assertEquals(5, last.entries.size());
+        assertFalse(last.hasMore);
+    }
+
+    @Test
+    public void reopenRestoresPendingAndDropsAcked() throws Exception {
+        File file = tempFile();
+        long now = System.currentTimeMillis();
+        OrderInbox inbox = new OrderInbox(file, 1 << 20, 100, 60_000L);
+        inbox.append(order("1", now));
+        inbox.append(order("2", now));
+        assertEquals(1, inbox.ack("1"));
+
+        OrderInbox reopened = new OrderInbox(file, 1 << 20, 100, 60_000L);
+        OrderInbox.Page page = reopened.page(0, 10);
+        assertEquals(1, page.entries.size());
+        OrderPayload restored = page.entries.get(0).event;
+        assertEquals("2", restored.orderId);
+        assertEquals("Ram\tShrestha", restored.customerName);
+        assertEquals("2x Momo\n1x Tea", restored.items);
+
+        long seq = reopened.append(order("3", now));
+        assertTrue(seq > page.entries.get(0).seq);
+    }
+
+    @Test
+    public void compactionBoundsDiskUsage() throws Exception {
+        File file = tempFile();
+        long maxBytes = 8 * 1024;
+        OrderInbox inbox = new OrderInbox(file, maxBytes, 20, 60_000L);
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < 2_000; i++) {
+            inbox.append(order(Integer.toString(i), now));
+            if (i % 2 == 0) inbox.ack(Integer.toString(i));
+            assertTrue(inbox.fileSize() <= maxBytes + 256);
+        }
+        assertTrue(inbox.pendingCount() <= 20);
+        assertEquals(inbox.pendingCount(), new OrderInbox(file, maxBytes, 20, 60_000L).pendingCount());
+    }
+
+    @Test
+    public void sequenceKeepsGrowingAfterCompactingAnEmptyInbox() throws Exception {
+        File file = tempFile();
+        // Smaller than one order line, so every append and ack compacts
+        OrderInbox inbox = new OrderInbox(file, 64, 20, 60_000L);
+        long now = System.currentTimeMillis();
+        long last = 0;
+        for (int i = 0; i < 20; i++) {
+            last = inbox.append(order(Integer.toString(i), now));
+            inbox.ack(Integer.toString(i));
+        }
+        assertEquals(0, inbox.pendingCount());
+
+        OrderInbox reopened = new OrderInbox(file, 64, 20, 60_000L);
+        assertTrue(reopened.append(order("next", now)) > last);
+    }
+
+    @Test
+    public void seenOrdersStayPendingAndKeepTheirMarkAcrossRestarts() throws Exception {
+        File file = tempFile();
+        long now = System.currentTimeMillis();
+        OrderInbox inbox = new OrderInbox(file, 1 << 20, 100, 60_000L);
+        inbox.append(order("1", now));
+        inbox.append(order("2", now));
+        assertEquals(1, inbox.markSeen("1"));
+        assertEquals(0, inbox.markSeen("1"));
+
+        OrderInbox reopened = new OrderInbox(file, 1 << 20, 100, 60_000L);
+        List<OrderInbox.Entry> entries = reopened.page(0, 10).entries;
+        assertEquals(2, entries.size());
+        assertTrue(entries.get(0).seen);
+        assertFalse(entries.get(1).seen);
+
+        // Compaction keeps the mark for orders still pending
+        OrderInbox small = new OrderInbox(file, 64, 100, 60_000L);
+        small.markSeen("2");
+        entries = new OrderInbox(file, 64, 100, 60_000L).page(0, 10).entries;
+        assertTrue(entries.get(0).seen);
+        assertTrue(entries.get(1).seen);
+    }
+
+    @Test
+    public void expiredOrdersAreNotRestored() throws Exception {
+        File file = tempFile();
+        OrderInbox inbox = new OrderInbox(file, 1 << 20, 100, 1_000L);
+        inbox.append(order("old", System.currentTimeMillis() - 5_000));
+        inbox.append(order("new", System.currentTimeMillis()));
+
+        OrderInbox reopened = new OrderInbox(file, 1 << 20, 100, 1_000L);
+        assertEquals(1, reopened.pendingCount());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Looper;
+import androidx.core.app.NotificationCompat;
+import androidx.test.core.app.ApplicationProvider;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class OrderNotificationPresenterTest {
+    private Application app;
+    private NotificationManager notificationManager;
+    private OrderNotificationPresenter presenter;
+    private AlertsProvider provider;
+
+    @Before
+    public void setUp() {
+        app = ApplicationProvider.getApplicationContext();
+        notificationManager = (NotificationManager) app.getSystemService(Context.NOTIFICATION_SERVICE);
+        OrderNotificationPresenter.reset();
+        presenter = OrderNotificationPresenter.get(app);
+        provider = Robolectric.setupContentProvider(AlertsProvider.class, app.getPackageName() + ".alerts");
+    }
+
+    private void show(String orderId) {
+        presenter.show(orderId, "Order " + orderId, new NotificationCompat.Builder(app, "order_notifications")
+            .setSmallIcon(android.R.drawable.ic_dialog_alert)
+            .setContentTitle("Order " + orderId));
+        drain();
+    }
+
+    private void drain() {
+        // Long enough for the rate limiter to post everything queued
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(10));
+    }
+
+    private Notification posted(String orderId) {
+        return shadowOf(notificationManager).getNotification(presenter.notificationIdFor(orderId));
+    }
+
+    @Test
+    public void ordersHandledOutsideTheShadeFreeTheirSlots() {
+        int handled = OrderNotificationPresenter.MAX_VISIBLE + 1;
+        for (int i = 0; i < handled; i++) {
+            String orderId = "order-" + i;
+            show(orderId);
+            assertNotNull(posted(orderId));
+
+            // Accepted in the web app, which acks through the alerts process
+            Bundle extras = new Bundle();
+            extras.putString(AlertsProvider.KEY_VIA, "web app");
+            provider.call(AlertsProvider.METHOD_ACK, orderId, extras);
+            drain();
+        }
+
+        String next = "order-" + handled;
+        show(next);
+        assertNotNull(posted(next));
+
+        PendingIntent fullScreen = PendingIntent.getActivity(app, 0, new Intent(app, OrderAlertActivity.class),
+            PendingIntent.FLAG_IMMUTABLE);
+        presenter.escalate(next, fullScreen);
+        drain();
+        assertNotNull(posted(next).fullScreenIntent);
+    }
+}
@@ -0,0 +1,272 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.app.NotificationManager;
+import android.app.job.JobScheduler;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.firebase.messaging.RemoteMessage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowPowerManager;
+
+/**
+ * Feeds synthetic FCM order messages into {@link AutoOpenService} at fixed
+ * rates and records what the storm costs the device.
+ *
+ * Messages are delivered on a worker thread, as FCM does, while the test
+ * thread plays the main looper and advances the clock between arrivals. CPU
+ * time is measured per thread because Robolectric's clock is simulated.
+ *
+ * A separate run drives a burst of {@link #OVERLAY_BURST} orders into
+ * {@link OverlayService} one frame apart and records the main-thread time each
+ * order costs the overlay, which is what has to fit in a frame.
+ *
+ * Rates and order count come from -PorderStorm.rates and -PorderStorm.orders;
+ * the JSON report is written to build/reports/order-storm/order-storm.json.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class OrderStormLoadTest {
+    private static final String DEFAULT_RATES = "1,10,100";
+    private static final int DEFAULT_ORDERS = 200;
+    /** Simulated time allowed after the last order for rate-limited posts to drain. */
+    private static final long DRAIN_LIMIT_MS = 120_000;
+    private static final long DRAIN_STEP_MS = 250;
+    private static final int OVERLAY_BURST = 20;
+    private static final long FRAME_MS = 16;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLong fcmThreadId = new AtomicLong();
+
+    private Application app;
+    private ExecutorService fcmThread;
+    private AutoOpenService service;
+
+    @Before
+    public void setUp() {
+        app = ApplicationProvider.getApplicationContext();
+        fcmThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "fcm-worker");
+            fcmThreadId.set(thread.getId());
+            return thread;
+        });
+        service = Robolectric.setupService(AutoOpenService.class);
+    }
+
+    @After
+    public void tearDown() {
+        fcmThread.shutdownNow();
+    }
+
+    @Test
+    public void orderStorms() throws Exception {
+        JSONArray runs = new JSONArray();
+        for (String rate : System.getProperty("orderStorm.rates", DEFAULT_RATES).split(",")) {
+            runs.put(runStorm(Integer.parseInt(rate.trim()),
+                Integer.getInteger("orderStorm.orders", DEFAULT_ORDERS)));
+        }
+
+        JSONObject report = new JSONObject();
+        report.put("generatedAt", System.currentTimeMillis());
+        report.put("runs", runs);
+        report.put("overlayBurst", runOverlayBurst());
+        writeReport(report);
+    }
+
+    private JSONObject runStorm(int ordersPerSecond, int orders) throws Exception {
+        long intervalMs = Math.max(1, 1000 / ordersPerSecond);
+        NotificationManager notificationManager = (NotificationManager) app.getSystemService(Context.NOTIFICATION_SERVICE);
+        OrderNotificationPresenter presenter = OrderNotificationPresenter.get(app);
+        AlertAudioEngine audio = AlertAudioEngine.get(app);
+
+        int postsBefore = presenter.getPostCount();
+        int playersBefore = audio.getPlayersCreated();
+        long mainCpuNanos = 0;
+        int servicesStarted = 0;
+        int wakeLocks = 0;
+        int peakVisible = 0;
+        PowerManager.WakeLock lastWakeLock = ShadowPowerManager.getLatestWakeLock();
+
+        long startMs = SystemClock.elapsedRealtime();
+        long fcmCpuBefore = fcmCpuNanos();
+        for (int i = 0; i < orders; i++) {
+            RemoteMessage message = syntheticOrder(ordersPerSecond, i);
+            fcmThread.submit(() -> service.onMessageReceived(message)).get();
+
+            long cpu = threads.getCurrentThreadCpuTime();
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(intervalMs));
+            mainCpuNanos += threads.getCurrentThreadCpuTime() - cpu;
+
+            servicesStarted += drainStartedServices();
+            PowerManager.WakeLock wakeLock = ShadowPowerManager.getLatestWakeLock();
+            if (wakeLock != null && wakeLock != lastWakeLock) {
+                wakeLocks++;
+                lastWakeLock = wakeLock;
+            }
+            peakVisible = Math.max(peakVisible, shadowOf(notificationManager).size());
+        }
+        long arrivalMs = SystemClock.elapsedRealtime() - startMs;
+        long fcmCpu = fcmCpuNanos() - fcmCpuBefore;
+
+        // Let the rate-limited presenter work through its backlog
+        long drainStart = SystemClock.elapsedRealtime();
+        long lastPostAt = drainStart;
+        int posts = presenter.getPostCount();
+        while (SystemClock.elapsedRealtime() - drainStart < DRAIN_LIMIT_MS
+                && SystemClock.elapsedRealtime() - lastPostAt < 2_000) {
+            long cpu = threads.getCurrentThreadCpuTime();
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(DRAIN_STEP_MS));
+            mainCpuNanos += threads.getCurrentThreadCpuTime() - cpu;
+            if (presenter.getPostCount() != posts) {
+                posts = presenter.getPostCount();
+                lastPostAt = SystemClock.elapsedRealtime();
+            }
+            peakVisible = Math.max(peakVisible, shadowOf(notificationManager).size());
+        }
+        servicesStarted += drainStartedServices();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        long simulatedMs = lastPostAt - startMs;
+        int postDelta = presenter.getPostCount() - postsBefore;
+        int playerDelta = audio.getPlayersCreated() - playersBefore;
+        JobScheduler jobs = (JobScheduler) app.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+
+        JSONObject run = new JSONObject();
+        run.put("ordersPerSecond", ordersPerSecond);
+        run.put("orders", orders);
+        run.put("arrivalMs", arrivalMs);
+        run.put("notificationBacklogMs", lastPostAt - drainStart);
+        run.put("mainThreadCpuMs", mainCpuNanos / 1_000_000.0);
+        run.put("fcmThreadCpuMs", fcmCpu / 1_000_000.0);
+        run.put("notificationsPosted", postDelta);
+        run.put("peakVisibleNotifications", peakVisible);
+        run.put("servicesStarted", servicesStarted);
+        run.put("wakeLocksAcquired", wakeLocks);
+        run.put("mediaPlayersCreated", playerDelta);
+        run.put("pendingJobs", jobs.getAllPendingJobs().size());
+        run.put("inboxPending", OrderIngestion.getInbox(app).pendingCount());
+
+        // The storm must stay inside the system's notification rate limit and
+        // reuse the shared alarm player instead of creating one per order.
+        double allowedPosts = 4 + 4 * simulatedMs / 1000.0 + 1;
+        assertTrue("posted " + postDelta + " in " + simulatedMs + "ms", postDelta <= allowedPosts);
+        assertTrue("visible " + peakVisible, peakVisible <= 21);
+        assertTrue("players " + playerDelta, playerDelta <= 1);
+        return run;
+    }
+
+    private JSONObject runOverlayBurst() throws JSONException {
+        OverlayService overlay = Robolectric.setupService(OverlayService.class);
+        long[] first = overlayBurst(overlay, 0);
+        int rowsAfterFirst = overlay.getRowsCreated();
+
+        // Dismiss-all must hand the rows back to the pool for the next burst
+        overlay.dismissAll();
+        shadowOf(Looper.getMainLooper()).idle();
+        long[] second = overlayBurst(overlay, OVERLAY_BURST);
+        int rowsInSecond = overlay.getRowsCreated() - rowsAfterFirst;
+
+        JSONObject run = new JSONObject();
+        run.put("orders", OVERLAY_BURST);
+        run.put("mainThreadCpuMs", first[0] / 1_000_000.0);
+        run.put("worstOrderMainThreadMs", first[1] / 1_000_000.0);
+        run.put("secondBurstMainThreadCpuMs", second[0] / 1_000_000.0);
+        run.put("secondBurstWorstOrderMs", second[1] / 1_000_000.0);
+        run.put("rowsCreated", rowsAfterFirst);
+        run.put("rowsCreatedSecondBurst", rowsInSecond);
+
+        assertTrue("rows " + rowsAfterFirst, rowsAfterFirst <= OVERLAY_BURST);
+        assertTrue("second burst rows " + rowsInSecond, rowsInSecond <= OVERLAY_BURST - OverlayService.MAX_POOLED_ROWS);
+        overlay.onDestroy();
+        return run;
+    }
+
+    /** @return total and worst main-thread CPU nanos per order */
+    private long[] overlayBurst(OverlayService overlay, int firstIndex) {
+        long total = 0;
+        long worst = 0;
+        long now = System.currentTimeMillis();
+        for (int i = firstIndex; i < firstIndex + OVERLAY_BURST; i++) {
+            String orderId = "overlay-" + i;
+            Intent intent = new Intent(app, OverlayService.class).putExtra(OrderPayload.EXTRA, new OrderPayload(
+                "burst:" + orderId, orderId, "EZ-BURST-" + i, "Burst Customer " + i,
+                Integer.toString(100 + i), "1x Item " + i, "Burst address " + i, "", now, true));
+
+            long cpu = threads.getCurrentThreadCpuTime();
+            overlay.onStartCommand(intent, 0, i + 1);
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(FRAME_MS));
+            long spent = threads.getCurrentThreadCpuTime() - cpu;
+            total += spent;
+            worst = Math.max(worst, spent);
+        }
+        return new long[] {total, worst};
+    }
+
+    private RemoteMessage syntheticOrder(int rate, int index) {
+        String orderId = Integer.toString(rate * 100_000 + index);
+        Map<String, String> data = new HashMap<>();
+        data.put("type", "order");
+        data.put("orderId", orderId);
+        data.put("orderNumber", "EZ-STORM-" + orderId);
+        data.put("customerName", "Storm Customer " + index);
+        data.put("amount", Integer.toString(100 + index % 900));
+        data.put("items", "1x Item " + index);
+        data.put("address", "Load test address " + index);
+        return new RemoteMessage.Builder("vendor@fcm.googleapis.com")
+            .setMessageId("storm:" + orderId)
+            .setData(data)
+            .build();
+    }
+
+    private int drainStartedServices() {
+        ShadowApplication shadowApp = shadowOf(app);
+        int started = 0;
+        while (shadowApp.getNextStartedService() != null) {
+            started++;
+        }
+        return started;
+    }
+
+    private long fcmCpuNanos() {
+        long id = fcmThreadId.get();
+        return id == 0 ? 0 : Math.max(0, threads.getThreadCpuTime(id));
+    }
+
+    private void writeReport(JSONObject report) throws IOException, JSONException {
+        File dir = new File(System.getProperty("orderStorm.reportDir", "build/reports/order-storm"));
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        try (FileWriter writer = new FileWriter(new File(dir, "order-storm.json"))) {
+            writer.write(report.toString(2));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderStreamClientTest {
+    private final BlockingQueue<String> serverReceived = new LinkedBlockingQueue<>();
+    private final BlockingQueue<WebSocket> serverSockets = new LinkedBlockingQueue<>();
+    private final List<WebSocket> openedSockets = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Map<String, String>> orders = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> messageIds = new LinkedBlockingQueue<>();
+
+    private MockWebServer server;
+    private ScheduledExecutorService scheduler;
+    private OrderStreamClient client;
+
+    // Stand-in for the order server: records what the client sends and answers pings
+    private MockResponse upgrade() {
+        return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                serverSockets.add(webSocket);
+                openedSockets.add(webSocket);
+            }
+
+            @Override
+            public void onMessage(WebSocket webSocket, String text) {
+                serverReceived.add(text);
+                if (text.contains("\"ping\"")) {
+                    webSocket.send("{\"type\":\"pong\"}");
+                }
+            }
+        });
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(upgrade());
+        server.enqueue(upgrade());
+        server.start();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        client = new OrderStreamClient(
+            new OkHttpClient(),
+            server.url("/ws/notifications/").toString(),
+            () -> "secret",
+            new OrderStreamClient.Listener() {
+                @Override
+                public void onOrder(String messageId, Map<String, String> data) {
+                    if (messageId != null) messageIds.add(messageId);
+                    orders.add(data);
+                }
+
+                @Override
+                public void onConnectionChanged(boolean connected) {
+                }
+            },
+            scheduler);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.stop();
+        scheduler.shutdown();
+        scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        for (WebSocket socket : openedSockets) {
+            socket.close(1000, null);
+        }
+        server.shutdown();
+    }
+
+    @Test
+    public void authenticatesAndDeliversOrdersAsFcmStyleData() throws Exception {
+        client.start();
+        WebSocket serverSide = serverSockets.poll(5, TimeUnit.SECONDS);
+        assertNotNull(serverSide);
+        assertEquals("/ws/notifications/?token=secret", server.takeRequest().getPath());
+        assertEquals("{\"type\":\"authenticate\",\"token\":\"secret\"}", serverReceived.poll(5, TimeUnit.SECONDS));
+
+        serverSide.send("{\"type\":\"order_update\",\"order_id\":1}");
+        serverSide.send("{\"type\":\"order_notification\",\"notification\":{\"id\":77,"
+            + "\"title\":\"New order\",\"data\":{\"order_id\":512,\"orderNumber\":\"EZ-512\",\"amount\":450.5}}}");
+
+        Map<String, String> data = orders.poll(5, TimeUnit.SECONDS);
+        assertNotNull(data);
+        assertEquals("512", data.get("orderId"));
+        assertEquals("EZ-512", data.get("orderNumber"));
+        assertEquals("450.5", data.get("amount"));
+        assertEquals("ws:77", messageIds.poll(1, TimeUnit.SECONDS));
+        assertTrue("status updates are not orders", orders.isEmpty());
+    }
+
+    @Test
+    public void reconnectsAfterServerDropsConnection() throws Exception {
+        client.start();
+        WebSocket first = serverSockets.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        first.close(1001, "Server restart");
+
+        // First retry waits exactly BASE_DELAY_MS: the first ceiling equals the base
+        assertNotNull(serverSockets.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, client.getReconnects());
+    }
+
+    @Test
+    public void heartbeatGrowsUntilAPongIsMissed() {
+        StreamHeartbeat heartbeat = new StreamHeartbeat();
+        assertEquals(StreamHeartbeat.MIN_INTERVAL_MS, heartbeat.intervalMs());
+        heartbeat.onPong();
+        heartbeat.onPong();
+        long probing = heartbeat.intervalMs();
+        assertEquals(StreamHeartbeat.MIN_INTERVAL_MS + 2 * StreamHeartbeat.STEP_MS, probing);
+
+        heartbeat.onTimeout();
+        assertEquals(probing - StreamHeartbeat.STEP_MS, heartbeat.intervalMs());
+        heartbeat.onPong();
+        assertEquals("settled intervals stop growing", probing - StreamHeartbeat.STEP_MS, heartbeat.intervalMs());
+
+        for (int i = 0; i < 20; i++) {
+            heartbeat.reset();
+            heartbeat.onPong();
+        }
+        assertTrue(heartbeat.intervalMs() <= StreamHeartbeat.MAX_INTERVAL_MS);
+    }
+
+    @Test
+    public void backoffIsJitteredAndCapped() {
+        ReconnectBackoff backoff = new ReconnectBackoff(new Random(7));
+        long previousCeiling = ReconnectBackoff.BASE_DELAY_MS;
+        for (int i = 0; i < 30; i++) {
+            long delay = backoff.nextDelayMs();
+            assertTrue(delay >= ReconnectBackoff.BASE_DELAY_MS);
+            assertTrue(delay <= Math.min(ReconnectBackoff.MAX_DELAY_MS, previousCeiling));
+            previousCeiling = Math.min(ReconnectBackoff.MAX_DELAY_MS, previousCeiling * 2);
+        }
+        backoff.reset();
+        assertEquals(ReconnectBackoff.BASE_DELAY_MS, backoff.nextDelayMs());
+    }
+}
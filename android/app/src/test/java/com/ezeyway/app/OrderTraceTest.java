@@ -0,0 +1,56 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class OrderTraceTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void computesPercentilesFromReceipt() {
+        OrderTrace trace = new OrderTrace(1024);
+        for (int order = 1; order <= 100; order++) {
+            long received = order * 10_000 * MS;
+            trace.record(order, OrderTrace.STAGE_RECEIVED, received);
+            trace.record(order, OrderTrace.STAGE_NOTIFY_POSTED, received + order * MS);
+        }
+
+        double[] p = trace.percentiles(OrderTrace.STAGE_NOTIFY_POSTED);
+        assertEquals(50.0, p[0], 0.001);
+        assertEquals(95.0, p[1], 0.001);
+        assertEquals(99.0, p[2], 0.001);
+        assertEquals(100.0, p[3], 0.001);
+    }
+
+    @Test
+    public void onlyFirstStageAfterReceiptCounts() {
+        OrderTrace trace = new OrderTrace(16);
+        trace.record(7, OrderTrace.STAGE_RECEIVED, 0);
+        trace.record(7, OrderTrace.STAGE_JOB_STARTED, 20 * MS);
+        trace.record(7, OrderTrace.STAGE_JOB_STARTED, 90 * MS);
+
+        double[] p = trace.percentiles(OrderTrace.STAGE_JOB_STARTED);
+        assertEquals(20.0, p[0], 0.001);
+        assertEquals(1.0, p[3], 0.001);
+    }
+
+    @Test
+    public void ringBufferDropsOldestSpans() {
+        OrderTrace trace = new OrderTrace(8);
+        for (int order = 0; order < 100; order++) {
+            trace.record(order, OrderTrace.STAGE_RECEIVED, order * MS);
+            trace.record(order, OrderTrace.STAGE_ACCEPT_TAPPED, order * MS + MS);
+        }
+        assertEquals(4.0, trace.percentiles(OrderTrace.STAGE_ACCEPT_TAPPED)[3], 0.001);
+    }
+
+    @Test
+    public void reportsEveryStage() {
+        OrderTrace trace = new OrderTrace(8);
+        String json = trace.toJson();
+        for (int stage = OrderTrace.STAGE_NOTIFY_POSTED; stage < OrderTrace.STAGE_NAMES.length; stage++) {
+            assertTrue(json.contains("\"" + OrderTrace.STAGE_NAMES[stage] + "\""));
+        }
+    }
+}
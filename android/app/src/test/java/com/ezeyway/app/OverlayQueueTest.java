@@ -0,0 +1,43 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class OverlayQueueTest {
+
+    @Test
+    public void burstOfOrdersKeepsArrivalOrder() {
+        OverlayQueue queue = new OverlayQueue();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, queue.put(new OverlayQueue.Entry("o" + i, "N" + i, "100")));
+        }
+        assertEquals(20, queue.size());
+        assertEquals("o0", queue.get(0).orderId);
+        assertEquals("o19", queue.get(19).orderId);
+    }
+
+    @Test
+    public void duplicateOrderUpdatesInPlace() {
+        OverlayQueue queue = new OverlayQueue();
+        queue.put(new OverlayQueue.Entry("a", "N1", "100"));
+        queue.put(new OverlayQueue.Entry("b", "N2", "200"));
+
+        int result = queue.put(new OverlayQueue.Entry("a", "N1", "150"));
+        assertEquals(0, -result - 1);
+        assertEquals(2, queue.size());
+        assertEquals("150", queue.get(0).amount);
+    }
+
+    @Test
+    public void removeReturnsPreviousIndex() {
+        OverlayQueue queue = new OverlayQueue();
+        queue.put(new OverlayQueue.Entry("a", "N1", "100"));
+        queue.put(new OverlayQueue.Entry("b", "N2", "200"));
+        queue.put(new OverlayQueue.Entry("c", "N3", "300"));
+
+        assertEquals(1, queue.remove("b"));
+        assertEquals(-1, queue.remove("b"));
+        assertEquals("c", queue.get(1).orderId);
+    }
+}
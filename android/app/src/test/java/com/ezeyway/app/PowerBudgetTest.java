@@ -0,0 +1,80 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class PowerBudgetTest {
+    private static final PowerBudget.Limits LIMITS = new PowerBudget.Limits(
+        new long[] {10_000, 60_000},
+        new long[] {25_000, 120_000},
+        2, 3
+    );
+
+    @Test
+    public void leaseIsCappedByWhatTheOrderHasLeft() {
+        PowerBudget budget = new PowerBudget(LIMITS);
+        int first = budget.open("1", PowerBudget.KIND_WAKE_LOCK, 6_000, 0);
+        assertEquals(6_000, budget.grantedMs(first));
+
+        // The open lease is reserved, so a concurrent one only gets the rest
+        int second = budget.open("1", PowerBudget.KIND_WAKE_LOCK, 6_000, 0);
+        assertEquals(4_000, budget.grantedMs(second));
+        assertEquals(-1, budget.open("1", PowerBudget.KIND_WAKE_LOCK, 1_000, 0));
+    }
+
+    @Test
+    public void earlyReleaseChargesOnlyWhatWasHeld() throws Exception {
+        PowerBudget budget = new PowerBudget(LIMITS);
+        int lease = budget.open("1", PowerBudget.KIND_WAKE_LOCK, 10_000, 0);
+        budget.close(lease, 2_000);
+        budget.close(lease, 9_000);
+
+        assertEquals(8_000, budget.grantedMs(budget.open("1", PowerBudget.KIND_WAKE_LOCK, 10_000, 2_000)));
+        JSONObject order = new JSONObject(budget.toJson(2_000)).getJSONObject("orders").getJSONObject("1");
+        assertEquals(2_000, order.getLong("wakeLockMs"));
+        assertEquals(8_000, order.getLong("wakeLockSavedMs"));
+        assertEquals(1, order.getInt("releasedEarly"));
+    }
+
+    @Test
+    public void hourBudgetSpansOrdersAndResetsNextHour() {
+        PowerBudget budget = new PowerBudget(LIMITS);
+        for (int i = 0; i < 3; i++) {
+            int lease = budget.open(Integer.toString(i), PowerBudget.KIND_WAKE_LOCK, 10_000, 0);
+            budget.close(lease, 10_000);
+        }
+        assertEquals(-1, budget.open("4", PowerBudget.KIND_WAKE_LOCK, 1_000, 10_000));
+
+        long nextHour = PowerBudget.HOUR_MS;
+        assertTrue(budget.open("4", PowerBudget.KIND_WAKE_LOCK, 1_000, nextHour) > 0);
+    }
+
+    @Test
+    public void wakeupsAreLimitedPerOrderAndPerHour() {
+        PowerBudget budget = new PowerBudget(LIMITS);
+        budget.recordWakeup("1", 0);
+        budget.recordWakeup("1", 0);
+        assertFalse(budget.allowWakeup("1", 0));
+        assertTrue(budget.allowWakeup("2", 0));
+
+        budget.recordWakeup("2", 0);
+        assertFalse(budget.allowWakeup("3", 0));
+    }
+
+    @Test
+    public void restoredHourStillCounts() {
+        PowerBudget budget = new PowerBudget(LIMITS);
+        budget.restoreHour(new long[] {0, 25_000, 0, 3}, 1_000);
+        assertEquals(-1, budget.open("1", PowerBudget.KIND_WAKE_LOCK, 1_000, 1_000));
+        assertFalse(budget.allowWakeup("1", 1_000));
+
+        // A snapshot from an earlier hour is ignored
+        PowerBudget later = new PowerBudget(LIMITS);
+        later.restoreHour(new long[] {0, 25_000, 0, 3}, PowerBudget.HOUR_MS);
+        assertTrue(later.allowWakeup("1", PowerBudget.HOUR_MS));
+    }
+}
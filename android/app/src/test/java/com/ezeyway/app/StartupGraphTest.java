@@ -0,0 +1,95 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class StartupGraphTest {
+    private final List<String> ran = new ArrayList<>();
+    private final List<Runnable> deferred = new ArrayList<>();
+    private final Executor inline = Runnable::run;
+    private final Executor afterFrame = deferred::add;
+    private final StartupTimeline timeline = new StartupTimeline(1_000);
+    private long now = 1_000;
+
+    private StartupGraph graph() {
+        return new StartupGraph(() -> now, (name, dispatcher, startedAtMs, durationMs, error) ->
+            timeline.recordTask(name, dispatcher, startedAtMs, durationMs, error != null));
+    }
+
+    private Runnable log(String name) {
+        return () -> {
+            ran.add(name);
+            now += 5;
+        };
+    }
+
+    @Test
+    public void readyTasksRunByPriorityAfterTheirDependencies() {
+        StartupGraph graph = graph()
+            .add("overlay", StartupGraph.ON_MAIN, 10, log("overlay"))
+            .add("intent", StartupGraph.ON_MAIN, 50, log("intent"), "bridge")
+            .add("bridge", StartupGraph.ON_MAIN, 20, log("bridge"))
+            .add("flags", StartupGraph.ON_MAIN, 90, log("flags"));
+        graph.start(inline, inline, inline);
+
+        assertEquals(Arrays.asList("flags", "bridge", "intent", "overlay"), ran);
+        assertTrue(graph.isFinished());
+    }
+
+    @Test
+    public void afterFirstFrameTasksWaitForTheirExecutor() {
+        StartupGraph graph = graph()
+            .add("channel", StartupGraph.IN_BACKGROUND, 90, log("channel"))
+            .add("audio", StartupGraph.AFTER_FIRST_FRAME, 50, log("audio"))
+            .add("permission", StartupGraph.AFTER_FIRST_FRAME, 10, log("permission"));
+        graph.start(inline, inline, afterFrame);
+
+        assertEquals(Arrays.asList("channel"), ran);
+        assertFalse(graph.isFinished());
+
+        for (int i = 0; i < deferred.size(); i++) deferred.get(i).run();
+        assertEquals(Arrays.asList("channel", "audio", "permission"), ran);
+        assertTrue(graph.isFinished());
+    }
+
+    @Test
+    public void failingTaskDoesNotBlockDependents() {
+        StartupGraph graph = graph()
+            .add("broken", StartupGraph.ON_MAIN, 10, () -> { throw new IllegalStateException("boom"); })
+            .add("after", StartupGraph.ON_MAIN, 10, log("after"), "broken");
+        graph.start(inline, inline, inline);
+
+        assertEquals(Arrays.asList("after"), ran);
+        assertTrue(timeline.toJson().contains("\"name\":\"broken\",\"thread\":\"main\",\"startMs\":0,\"durationMs\":0,\"failed\":true"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cyclesAreRejected() {
+        graph()
+            .add("a", StartupGraph.ON_MAIN, 0, log("a"), "b")
+            .add("b", StartupGraph.ON_MAIN, 0, log("b"), "a")
+            .start(inline, inline, inline);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownDependenciesAreRejected() {
+        graph().add("a", StartupGraph.ON_MAIN, 0, log("a"), "missing").start(inline, inline, inline);
+    }
+
+    @Test
+    public void timelineReportsPhasesRelativeToProcessStart() {
+        timeline.mark(StartupTimeline.PHASE_APPLICATION_CREATED, 1_040);
+        timeline.mark(StartupTimeline.PHASE_FIRST_FRAME, 1_400);
+        assertFalse(timeline.mark(StartupTimeline.PHASE_FIRST_FRAME, 9_000));
+
+        assertEquals(400, timeline.sinceProcessStart(StartupTimeline.PHASE_FIRST_FRAME));
+        assertEquals(-1, timeline.sinceProcessStart(StartupTimeline.PHASE_INTERACTIVE));
+        assertTrue(timeline.toJson().startsWith(
+            "{\"phases\":{\"applicationCreated\":40,\"activityCreated\":-1,\"firstFrame\":400,\"interactive\":-1}"));
+    }
+}
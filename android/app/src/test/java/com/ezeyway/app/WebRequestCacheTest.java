@@ -0,0 +1,190 @@
+package com.ezeyway.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WebRequestCacheTest {
+    private static final String PRODUCTS = "https://ezeyway.com/api/products/?page=1";
+    private static final long MINUTE = 60_000;
+
+    private final List<Map<String, String>> requests = new ArrayList<>();
+    private final List<Runnable> background = new ArrayList<>();
+    private WebCacheEntry nextResponse;
+    private boolean offline;
+    private long now = 1_000_000;
+    private WebRequestCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        File dir = Files.createTempDirectory("webcache").toFile();
+        dir.deleteOnExit();
+        cache = new WebRequestCache(new DiskLruCache(dir, 1_000_000), WebCachePolicy.defaults(),
+            (url, headers) -> {
+                if (offline) throw new IOException("offline");
+                requests.add(headers);
+                return nextResponse;
+            },
+            background::add, () -> now);
+    }
+
+    private static WebCacheEntry ok(String body, String etag) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("content-type", "application/json; charset=utf-8");
+        if (etag != null) headers.put("etag", etag);
+        return new WebCacheEntry(200, "OK", headers, body.getBytes(StandardCharsets.UTF_8), 0);
+    }
+
+    private static Map<String, String> auth(String token) {
+        return Collections.singletonMap("Authorization", "Token " + token);
+    }
+
+    private static String body(WebRequestCache.Result result) {
+        return new String(result.entry.body, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void freshEntriesAreServedWithoutNetwork() {
+        nextResponse = ok("[1]", "\"v1\"");
+        assertEquals(WebRequestCache.SOURCE_NETWORK, cache.handle(PRODUCTS, auth("a")).source);
+
+        now += 30_000;
+        WebRequestCache.Result result = cache.handle(PRODUCTS, auth("a"));
+        assertEquals(WebRequestCache.SOURCE_FRESH, result.source);
+        assertEquals("[1]", body(result));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void staleEntriesAreServedAndRevalidatedInBackground() {
+        nextResponse = ok("[1]", "\"v1\"");
+        cache.handle(PRODUCTS, auth("a"));
+
+        now += 10 * MINUTE;
+        nextResponse = new WebCacheEntry(304, "Not Modified", new HashMap<>(), new byte[0], now);
+        WebRequestCache.Result result = cache.handle(PRODUCTS, auth("a"));
+        assertEquals(WebRequestCache.SOURCE_STALE, result.source);
+        // A second stale read while one revalidation is pending does not queue another
+        cache.handle(PRODUCTS, auth("a"));
+        assertEquals(1, background.size());
+
+        background.get(0).run();
+        assertEquals("\"v1\"", requests.get(1).get("If-None-Match"));
+        // The 304 refreshed the entry's age
+        assertEquals(WebRequestCache.SOURCE_FRESH, cache.handle(PRODUCTS, auth("a")).source);
+        assertTrue(cache.statsJson().contains("\"notModified\":1"));
+    }
+
+    @Test
+    public void pausedRevalidationServesStaleWithoutRefreshing() {
+        nextResponse = ok("[1]", "\"v1\"");
+        cache.handle(PRODUCTS, auth("a"));
+
+        now += 10 * MINUTE;
+        cache.setRevalidationPaused(true);
+        assertEquals(WebRequestCache.SOURCE_STALE, cache.handle(PRODUCTS, auth("a")).source);
+        assertTrue(background.isEmpty());
+
+        cache.setRevalidationPaused(false);
+        cache.handle(PRODUCTS, auth("a"));
+        assertEquals(1, background.size());
+    }
+
+    @Test
+    public void expiredEntriesFallBackToCacheWhenOffline() {
+        nextResponse = ok("[1]", null);
+        cache.handle(PRODUCTS, auth("a"));
+
+        now += 3 * 24 * 60 * MINUTE;
+        offline = true;
+        WebRequestCache.Result result = cache.handle(PRODUCTS, auth("a"));
+        assertEquals(WebRequestCache.SOURCE_STALE_ON_ERROR, result.source);
+        assertEquals("[1]", body(result));
+    }
+
+    @Test
+    public void entriesAreScopedToTheAuthToken() {
+        nextResponse = ok("[\"vendor a\"]", null);
+        cache.handle(PRODUCTS, auth("a"));
+        nextResponse = ok("[\"vendor b\"]", null);
+        assertEquals("[\"vendor b\"]", body(cache.handle(PRODUCTS, auth("b"))));
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void uncachedUrlsAreLeftToTheWebView() {
+        nextResponse = ok("[]", null);
+        assertNull(cache.handle("https://ezeyway.com/api/orders/vendor/pending/", auth("a")));
+        assertNull(cache.handle("https://ezeyway.com/api/vendor-profiles/", auth("a")));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    public void errorsAreServedButNotStored() {
+        byte[] detail = "{\"detail\":\"busy\"}".getBytes(StandardCharsets.UTF_8);
+        nextResponse = new WebCacheEntry(503, "Service Unavailable", new HashMap<>(), detail, now);
+        WebRequestCache.Result result = cache.handle(PRODUCTS, auth("a"));
+        assertEquals(WebRequestCache.SOURCE_NETWORK, result.source);
+        assertEquals(503, result.entry.status);
+        assertArrayEquals(detail, result.entry.body);
+
+        // Redirects are refused by WebView when intercepted, so it loads them itself
+        nextResponse = new WebCacheEntry(302, "Found", new HashMap<>(), new byte[0], now);
+        assertNull(cache.handle(PRODUCTS, auth("a")));
+
+        nextResponse = ok("[1]", null);
+        assertEquals("[1]", body(cache.handle(PRODUCTS, auth("a"))));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void writesRevalidateEveryEntryUnderTheirRule() {
+        String categories = "https://ezeyway.com/api/categories/";
+        nextResponse = ok("[1]", "\"v1\"");
+        cache.handle(PRODUCTS, auth("a"));
+        cache.handle(PRODUCTS, auth("b"));
+        cache.handle(categories, auth("a"));
+        cache.handle("https://ezeyway.com/media/p/1.jpg", auth("a"));
+        assertEquals(4, requests.size());
+
+        now += 1_000;
+        cache.invalidate("https://ezeyway.com/api/products/12/");
+        cache.invalidate("https://ezeyway.com/api/orders/12/accept/");
+
+        now += 1_000;
+        nextResponse = ok("[2]", "\"v2\"");
+        WebRequestCache.Result result = cache.handle(PRODUCTS, auth("a"));
+        assertEquals(WebRequestCache.SOURCE_NETWORK, result.source);
+        assertEquals("[2]", body(result));
+        assertEquals("\"v1\"", requests.get(4).get("If-None-Match"));
+        assertEquals(WebRequestCache.SOURCE_NETWORK, cache.handle(PRODUCTS, auth("b")).source);
+        assertEquals(WebRequestCache.SOURCE_NETWORK, cache.handle(categories, auth("a")).source);
+        // Other rules keep their entries, and what was stored after the write is fresh again
+        assertEquals(WebRequestCache.SOURCE_FRESH,
+            cache.handle("https://ezeyway.com/media/p/1.jpg", auth("a")).source);
+        assertEquals(WebRequestCache.SOURCE_FRESH, cache.handle(PRODUCTS, auth("a")).source);
+        assertEquals(7, requests.size());
+        assertTrue(cache.statsJson().contains("\"invalidations\":1"));
+    }
+
+    @Test
+    public void entriesRoundTripThroughTheDiskFormat() {
+        WebCacheEntry entry = ok("{\"id\":7}", "\"abc\"").withStoredAt(42);
+        WebCacheEntry decoded = WebCacheEntry.decode(entry.encode());
+        assertEquals(200, decoded.status);
+        assertEquals(42, decoded.storedAt);
+        assertEquals("\"abc\"", decoded.header("etag"));
+        assertArrayEquals(entry.body, decoded.body);
+        assertNull(WebCacheEntry.decode(new byte[] {0, 0, 0, 9}));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ezeyway.app;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Notification id allocation: the repeated lookup done on every update of a
+ * posted order, and the allocate/release cycle of a new order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationIdBenchmark {
+    private NotificationIdRegistry registry;
+    private String[] orderIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        registry = new NotificationIdRegistry(null);
+        orderIds = new String[64];
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = Integer.toString(100_000 + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            registry.idFor(orderIds[i]);
+        }
+    }
+
+    @Benchmark
+    public int existingId() {
+        return registry.idFor(orderIds[11]);
+    }
+
+    @Benchmark
+    public int allocateAndRelease() {
+        String orderId = orderIds[20 + (next++ & 31)];
+        int id = registry.idFor(orderId);
+        registry.release(orderId);
+        return id;
+    }
+}
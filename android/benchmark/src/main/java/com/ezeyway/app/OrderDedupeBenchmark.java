@@ -0,0 +1,58 @@
+package com.ezeyway.app;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dedupe index lookups on a full in-memory index: the redelivery case that
+ * must be rejected, and a stream of new orders that evicts the eldest keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderDedupeBenchmark {
+    private static final long NOW = 1_712_345_678_000L;
+
+    private OrderDedupeIndex index;
+    private String[] orderIds;
+    private String[] messageIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new OrderDedupeIndex(null, OrderDedupeIndex.DEFAULT_CAPACITY, OrderDedupeIndex.DEFAULT_TTL_MS);
+        orderIds = new String[4096];
+        messageIds = new String[orderIds.length];
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = Integer.toString(100_000 + i);
+            messageIds[i] = "0:" + (1_712_345_000_000L + i) + "%abcdef";
+        }
+        for (int i = 0; i < OrderDedupeIndex.DEFAULT_CAPACITY / 2; i++) {
+            index.markIfNew(orderIds[i], messageIds[i], NOW);
+        }
+    }
+
+    @Benchmark
+    public boolean duplicate() {
+        return index.markIfNew(orderIds[7], messageIds[7], NOW);
+    }
+
+    @Benchmark
+    public boolean newOrderWithEviction() {
+        int i = next++ & (orderIds.length - 1);
+        // Keys cycle through 4096 ids against a 512-key index, so each is evicted before it repeats
+        return index.markIfNew(orderIds[i], messageIds[i], NOW);
+    }
+}
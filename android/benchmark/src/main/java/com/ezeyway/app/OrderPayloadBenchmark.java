@@ -0,0 +1,71 @@
+package com.ezeyway.app;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-order work on the FCM and bridge paths: parsing the data map in
+ * AutoOpenService, the JSON MainActivity hands to the WebView, and the inbox
+ * line format used for persistence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderPayloadBenchmark {
+    private Map<String, String> data;
+    private OrderPayload payload;
+    private String inboxLine;
+
+    @Setup
+    public void setUp() {
+        data = new HashMap<>();
+        data.put("orderId", "184467");
+        data.put("orderNumber", "EZ-2024-184467");
+        data.put("customerName", "Priya Sharma");
+        data.put("amount", "1249.50");
+        data.put("items", "2x Paneer Tikka, 1x Garlic Naan, 1x Mango Lassi");
+        data.put("address", "14 MG Road, Indiranagar, Bengaluru 560038");
+        data.put("imageUrl", "https://ezeyway.com/media/products/paneer-tikka.jpg");
+        data.put("type", "order");
+
+        payload = OrderPayload.fromData("0:1712345678901234%abcdef", data, 1_712_345_678_000L);
+        inboxLine = OrderInbox.encode(42, payload);
+    }
+
+    @Benchmark
+    public OrderPayload parseFcmData() {
+        return OrderPayload.fromData("0:1712345678901234%abcdef", data, 1_712_345_678_000L);
+    }
+
+    @Benchmark
+    public String bridgeJson() throws JSONException {
+        JSONObject json = payload.toBridgeJson(true, false, 1_712_345_679_000L);
+        return json.toString();
+    }
+
+    @Benchmark
+    public String inboxEncode() {
+        return OrderInbox.encode(42, payload);
+    }
+
+    @Benchmark
+    public OrderInbox.Entry inboxDecode() {
+        return OrderInbox.decode(inboxLine);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ezeyway.app;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overlay queue operations at the sizes a busy vendor sees: re-posting an
+ * order that is already shown, and an order arriving and being accepted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OverlayQueueBenchmark {
+    @Param({"1", "8"})
+    public int pending;
+
+    private OverlayQueue queue;
+    private OverlayQueue.Entry update;
+    private OverlayQueue.Entry arriving;
+
+    @Setup
+    public void setUp() {
+        queue = new OverlayQueue();
+        for (int i = 0; i < pending; i++) {
+            queue.put(new OverlayQueue.Entry(Integer.toString(100_000 + i), "EZ-" + i, "499.00"));
+        }
+        update = new OverlayQueue.Entry(Integer.toString(100_000 + pending - 1), "EZ-updated", "549.00");
+        arriving = new OverlayQueue.Entry("200000", "EZ-new", "120.00");
+    }
+
+    @Benchmark
+    public int updateLast() {
+        return queue.put(update);
+    }
+
+    @Benchmark
+    public int arriveAndAccept() {
+        queue.put(arriving);
+        return queue.remove(arriving.orderId);
+    }
+}
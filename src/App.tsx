@@ -6,6 +6,7 @@ import { BrowserRouter, Routes, Route } from "react-router-dom";
 import { useEffect, useState } from "react";
 import { useLocation } from "react-router-dom";
 import { PermissionService } from "./services/permissions";
+import { onMemoryPressure } from "./services/memoryPressure";
 import { useSessionManager } from "./hooks/useSessionManager";
 import { AppProvider } from "./contexts/AppContext";
 import { CartProvider } from "./contexts/CartContext";
@@ -350,6 +351,16 @@ const AppContent = () => {
     initializePermissions();
   }, []);
 
+  useEffect(() => {
+    // Queries for screens that are not mounted are refetched when they come back
+    const listener = onMemoryPressure((tier) => {
+      queryClient.removeQueries({ type: 'inactive', stale: tier === 'shrink' ? true : undefined });
+    });
+    return () => {
+      listener.then((handle) => handle?.remove());
+    };
+  }, []);
+
   return (
     <BrowserRouter future={{ v7_startTransition: true, v7_relativeSplatPath: true }}>
       <RoutesWithAnalytics />
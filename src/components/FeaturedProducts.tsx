@@ -11,6 +11,7 @@ import { authService } from "@/services/authService";
 import { getDeliveryInfo, getDeliveryRadius, getGlobalDeliveryRadius, getDeliveryRadiusSync } from "@/utils/deliveryUtils";
 
 import { API_BASE } from '@/config/api';
+import { getSizedImageUrl, handleSizedImageError } from '@/utils/imageUtils';
 import { filterOwnProducts } from '@/utils/productFilter';
 import { reviewService } from '@/services/reviewService';
 
@@ -396,10 +397,10 @@ export function FeaturedProducts({ onDataLoaded }: FeaturedProductsProps = {}) {
             {/* Product Image */}
             <div className="w-full h-32 overflow-hidden">
               <img
-                src={product.image}
+                src={getSizedImageUrl(product.image, 240, 128)}
                 alt={product.name}
                 className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-300"
-                onError={(e) => { (e.target as HTMLImageElement).src = '/placeholder-product.jpg'; }}
+                onError={(e) => handleSizedImageError(e, product.image)}
               />
             </div>
 
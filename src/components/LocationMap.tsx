@@ -1,10 +1,11 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { Button } from '@/components/ui/button';
 import { Input } from '@/components/ui/input';
 import { X, MapPin, Search, Navigation } from 'lucide-react';
 import { MapContainer, TileLayer, Marker, useMapEvents, Circle } from 'react-leaflet';
 import L from 'leaflet';
 import '@/assets/leaflet.css';
+import { streamFixesWhileVisible, type NativeLocationFix } from '@/services/nativeLocation';
 
 const customMarkerIcon = L.divIcon({
   className: 'custom-marker',
@@ -69,6 +70,10 @@ export const LocationMap = ({
     }
   };
 
+  // Latest fix from the native tracker, streamed only while this map is open
+  const nativeFix = useRef<NativeLocationFix | null>(null);
+  useEffect(() => streamFixesWhileVisible((fix) => { nativeFix.current = fix; }), []);
+
   useEffect(() => {
     if (vendorLocation) {
       setMapCenter([vendorLocation.lat, vendorLocation.lng]);
@@ -140,6 +145,13 @@ export const LocationMap = ({
   };
 
   const handleUseLiveLocation = () => {
+    const fix = nativeFix.current;
+    if (fix && Date.now() - fix.time < 60 * 1000) {
+      setMapCenter([fix.latitude, fix.longitude]);
+      handleMapClick(fix.latitude, fix.longitude);
+      fetchAddressFromCoords(fix.latitude, fix.longitude);
+      return;
+    }
     if (navigator.geolocation) {
       navigator.geolocation.getCurrentPosition(
         (position) => {
@@ -11,6 +11,8 @@ import { apiRequest } from '@/utils/apiUtils';
 import { authService } from '@/services/authService';
 import { debugAuth } from '@/utils/authDebug';
 import { createApiHeaders } from '@/utils/apiUtils';
+import { setOrderStreamShopOpen } from '@/services/orderStream';
+import { startNativeTracking, stopNativeTracking } from '@/services/nativeLocation';
 
 import { Avatar, AvatarFallback, AvatarImage } from "@/components/ui/avatar";
 
@@ -55,6 +57,24 @@ export function VendorHeader({ title, subtitle, headerActions }: VendorHeaderPro
   const [walletBalance, setWalletBalance] = useState<number>(0);
   const [canToggle, setCanToggle] = useState<boolean>(true);
 
+  // Keep the native order socket running only while the shop is online;
+  // wait for the profile so the optimistic default doesn't start it
+  useEffect(() => {
+    if (profileId) {
+      setOrderStreamShopOpen(isActive);
+    }
+  }, [isActive, profileId]);
+
+  // Native location tracking follows the same online toggle
+  useEffect(() => {
+    if (!profileId) return;
+    if (isActive) {
+      startNativeTracking();
+    } else {
+      stopNativeTracking().catch(() => {});
+    }
+  }, [isActive, profileId]);
+
   const unreadCount = notificationsList.filter(n => !n.read).length;
   const unreadMessagesCount = conversations.reduce((total, conv) => total + (conv.unread_count || 0), 0);
 
@@ -12,6 +12,7 @@ import { useCart } from "@/contexts/CartContext";
 import { useToast } from "@/hooks/use-toast";
 import { getDeliveryInfo, getDeliveryRadius } from '@/utils/deliveryUtils';
 import { API_BASE } from '@/config/api';
+import { getSizedImageUrl, handleSizedImageError } from '@/utils/imageUtils';
 import { reviewService } from '@/services/reviewService';
 
 // CSS for hiding scrollbar
@@ -422,10 +423,10 @@ export default function CategoryItems() {
             <div className="cursor-pointer" onClick={() => handleProductClick(product.id)}>
               <div className="aspect-square relative">
                 <img
-                  src={product.image}
+                  src={getSizedImageUrl(product.image, 200, 200)}
                   alt={product.name}
                   className="w-full h-full object-cover"
-                  onError={(e) => { (e.target as HTMLImageElement).src = '/placeholder-product.jpg'; }}
+                  onError={(e) => handleSizedImageError(e, product.image)}
                 />
                 <Button
                   variant="ghost"
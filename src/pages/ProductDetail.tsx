@@ -9,7 +9,7 @@ import { useCart } from "@/contexts/CartContext";
 import { authService } from "@/services/authService";
 import { useAuthAction } from "@/hooks/useAuthAction";
 import { API_BASE } from '@/config/api';
-import { getImageUrl } from '@/utils/imageUtils';
+import { getImageUrl, getSizedImageUrl, handleSizedImageError } from '@/utils/imageUtils';
 import { getDeliveryInfo } from '@/utils/deliveryUtils';
 import { locationService } from '@/services/locationService';
 import { filterOwnProducts } from '@/utils/productFilter';
@@ -602,14 +602,10 @@ Shop now at ezeyway - Same day delivery in Kathmandu Valley!`;
         <div className="md:hidden">
           <div className="aspect-square max-w-md mx-auto mb-4 border-t-2 border-b-2 border-gray-100">
             <img
-              src={getImageUrl(currentImage?.image_url)}
+              src={getSizedImageUrl(currentImage?.image_url, 448, 448)}
               alt={product.name}
               className="w-full h-full object-cover"
-              onError={(e) => {
-                const img = e.target as HTMLImageElement;
-                img.src = '/placeholder-product.jpg';
-                img.onerror = null; // Prevent infinite loop
-              }}
+              onError={(e) => handleSizedImageError(e, currentImage?.image_url)}
               loading="lazy"
             />
           </div>
@@ -629,14 +625,10 @@ Shop now at ezeyway - Same day delivery in Kathmandu Valley!`;
                     }`}
                   >
                     <img
-                      src={getImageUrl(image.image_url)}
+                      src={getSizedImageUrl(image.image_url, 112, 112)}
                       alt={`${product.name} ${index + 1}`}
                       className="w-full h-full object-cover"
-                      onError={(e) => {
-                        const img = e.target as HTMLImageElement;
-                        img.src = '/placeholder-product.jpg';
-                        img.onerror = null; // Prevent infinite loop
-                      }}
+                      onError={(e) => handleSizedImageError(e, image.image_url)}
                       loading="lazy"
                     />
                   </button>
@@ -662,14 +654,10 @@ Shop now at ezeyway - Same day delivery in Kathmandu Valley!`;
                   }`}
                 >
                   <img
-                    src={getImageUrl(image.image_url)}
+                    src={getSizedImageUrl(image.image_url, 80, 80)}
                     alt={`${product.name} ${index + 1}`}
                     className="w-full h-full object-cover"
-                    onError={(e) => {
-                      const img = e.target as HTMLImageElement;
-                      img.src = '/placeholder-product.jpg';
-                      img.onerror = null; // Prevent infinite loop
-                    }}
+                    onError={(e) => handleSizedImageError(e, image.image_url)}
                     loading="lazy"
                   />
                 </button>
@@ -680,14 +668,10 @@ Shop now at ezeyway - Same day delivery in Kathmandu Valley!`;
           {/* Main image on right */}
           <div className="flex-1 aspect-square max-w-lg">
             <img
-              src={getImageUrl(currentImage?.image_url)}
+              src={getSizedImageUrl(currentImage?.image_url, 512, 512)}
               alt={product.name}
               className="w-full h-full object-cover border border-gray-200"
-              onError={(e) => {
-                const img = e.target as HTMLImageElement;
-                img.src = '/placeholder-product.jpg';
-                img.onerror = null; // Prevent infinite loop
-              }}
+              onError={(e) => handleSizedImageError(e, currentImage?.image_url)}
               loading="lazy"
             />
           </div>
@@ -849,14 +833,10 @@ Shop now at ezeyway - Same day delivery in Kathmandu Valley!`;
                 >
                   <div className="aspect-square overflow-hidden rounded-t-lg">
                     <img
-                      src={getImageUrl(relatedProduct.image)}
+                      src={getSizedImageUrl(relatedProduct.image, 160, 160)}
                       alt={relatedProduct.name}
                       className="w-full h-full object-cover"
-                      onError={(e) => {
-                        const img = e.target as HTMLImageElement;
-                        img.src = '/placeholder-product.jpg';
-                        img.onerror = null; // Prevent infinite loop
-                      }}
+                      onError={(e) => handleSizedImageError(e, relatedProduct.image)}
                       loading="lazy"
                     />
                   </div>
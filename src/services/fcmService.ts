@@ -3,9 +3,15 @@ import { PushNotifications } from '@capacitor/push-notifications';
 import { FCM } from '@capacitor-community/fcm';
 import app from './firebaseConfig';
 import { simpleNotificationService } from './simpleNotificationService';
+import OrderEvents, { loadPendingOrders, NativeOrderEvent } from './orderEvents';
+
+// Only orders this fresh ring and open the modal; older ones are in the orders list
+const AUTO_OPEN_WINDOW_MS = 30000;
 
 class FCMService {
   private fcmToken: string | null = null;
+  // Orders already announced, keyed by String(orderId) since native ids may arrive as numbers
+  private announcedOrderIds = new Set<string>();
 
   async initialize() {
     if (!Capacitor.isNativePlatform()) {
@@ -55,31 +61,6 @@ class FCMService {
 
   private checkForAutoOpenOrder() {
     try {
-      const autoOpenOrder = localStorage.getItem('autoOpenOrder');
-      if (autoOpenOrder) {
-        const orderData = JSON.parse(autoOpenOrder);
-        const now = Date.now();
-        
-        // Only auto-open if within 30 seconds of notification
-        if (now - orderData.timestamp < 30000) {
-          console.log('🚀 AUTO-OPENING ORDER FROM NOTIFICATION:', orderData);
-          
-          // Clear the stored data
-          localStorage.removeItem('autoOpenOrder');
-          
-          // Start beeping
-          this.startOrderBeeping();
-          
-          // Show modal after short delay
-          setTimeout(() => {
-            this.showOrderModalImmediately(orderData);
-          }, 1000);
-        } else {
-          // Clear expired data
-          localStorage.removeItem('autoOpenOrder');
-        }
-      }
-      
       // Listen for auto-opened events from background service
       window.addEventListener('autoOpenedFromBackground', (event: any) => {
         console.log('🚀 APP AUTO-OPENED FROM BACKGROUND SERVICE:', event.detail);
@@ -92,12 +73,45 @@ class FCMService {
           this.showOrderModalImmediately(event.detail);
         }, 500);
       });
+
+      // Native order events arrive in batches (at most one per frame) and are
+      // buffered natively until ready() is called
+      OrderEvents.addListener('orderEvents', ({ events }) => {
+        events.forEach((orderData) => this.announceOrder(orderData));
+      }).then(() => OrderEvents.ready());
+
+      // Pending orders persisted natively while the app was closed. Ones the
+      // vendor already saw, or older than the auto-open window, are not
+      // announced again; the orders list loads them from the server
+      loadPendingOrders().then((orders) => {
+        if (orders.length > 0) {
+          console.log(`📥 Hydrated ${orders.length} pending order(s) from native inbox`);
+        }
+        orders
+          .filter((order) => !order.seen)
+          .forEach((order) => this.announceOrder({
+            orderId: order.orderId,
+            orderNumber: order.orderNumber,
+            amount: order.amount,
+            fromBackground: true,
+            timestamp: order.receivedAt
+          }));
+      }).catch((error) => console.warn('⚠️ Failed to read native order inbox:', error));
       
     } catch (error) {
       console.error('Error checking for auto-open order:', error);
     }
   }
 
+  // Rings and opens the modal once per order, whether it came live or from the inbox
+  private announceOrder(orderData: NativeOrderEvent) {
+    if (Date.now() - orderData.timestamp >= AUTO_OPEN_WINDOW_MS) return;
+    const key = String(orderData.orderId);
+    if (this.announcedOrderIds.has(key)) return;
+    this.announcedOrderIds.add(key);
+    window.dispatchEvent(new CustomEvent('autoOpenedFromBackground', { detail: orderData }));
+  }
+
   private async getFCMToken() {
     try {
       if (!Capacitor.isNativePlatform()) return null;
@@ -1,3 +1,5 @@
+import { getLastNativeFix } from '@/services/nativeLocation';
+
 class LocationService {
   private location: { latitude: number; longitude: number } | null = null;
   private intervalId: NodeJS.Timeout | null = null;
@@ -29,7 +31,16 @@ class LocationService {
     }
   }
 
-  private updateLocation() {
+  private async updateLocation() {
+    // Reuse the native tracker's fix when it is running instead of waking the GPS again
+    const fix = await getLastNativeFix();
+    if (fix && Date.now() - fix.time < 3 * 60 * 1000) {
+      this.location = { latitude: fix.latitude, longitude: fix.longitude };
+      this.saveToStorage();
+      this.notifyListeners();
+      return;
+    }
+
     if (navigator.geolocation) {
       navigator.geolocation.getCurrentPosition(
         (position) => {
@@ -0,0 +1,57 @@
+import { Capacitor, registerPlugin } from '@capacitor/core';
+import type { PluginListenerHandle } from '@capacitor/core';
+
+// 'shrink' when memory is getting tight, 'drop' when caches should go, 'critical' right before a kill
+export type MemoryPressureTier = 'shrink' | 'drop' | 'critical';
+
+export interface MemoryTrim {
+  level: number;
+  tier: MemoryPressureTier;
+  agoMs: number;
+  pssBeforeKb: number;
+  pssAfterKb: number;
+}
+
+export interface MemoryStats {
+  applied: Record<MemoryPressureTier, number>;
+  skipped: number;
+  paused: boolean;
+  freedKb: number;
+  history: MemoryTrim[];
+}
+
+export interface MemoryPlugin {
+  getStats(): Promise<MemoryStats>;
+  addListener(
+    eventName: 'memoryPressure',
+    listenerFunc: (event: { tier: MemoryPressureTier; level: number }) => void
+  ): Promise<PluginListenerHandle>;
+}
+
+const Memory = registerPlugin<MemoryPlugin>('Memory');
+
+// Runs release when the native side reports memory pressure; it should drop whatever can be rebuilt
+export const onMemoryPressure = async (
+  release: (tier: MemoryPressureTier) => void
+): Promise<PluginListenerHandle | null> => {
+  if (!Capacitor.isNativePlatform()) return null;
+
+  return Memory.addListener('memoryPressure', ({ tier }) => {
+    console.log('🧹 Memory pressure:', tier);
+    try {
+      release(tier);
+    } catch (error) {
+      console.warn('⚠️ Failed to release memory:', error);
+    }
+  });
+};
+
+// Trims applied by the native memory governor, with PSS before and after each
+export const getMemoryStats = async (): Promise<MemoryStats | null> => {
+  if (!Capacitor.isNativePlatform()) return null;
+  try {
+    return await Memory.getStats();
+  } catch {
+    return null;
+  }
+};
@@ -0,0 +1,81 @@
+import { Capacitor, registerPlugin } from '@capacitor/core';
+import type { PluginListenerHandle } from '@capacitor/core';
+
+export interface NativeLocationFix {
+  latitude: number;
+  longitude: number;
+  accuracy: number;
+  speed?: number;
+  time: number;
+}
+
+export interface NativeLocationPlugin {
+  start(options?: { activeOrder?: boolean; uploadIntervalSec?: number }): Promise<void>;
+  stop(): Promise<void>;
+  setOrderActive(options: { active: boolean }): Promise<void>;
+  setMapVisible(options: { visible: boolean }): Promise<void>;
+  getLastFix(): Promise<{ fix?: NativeLocationFix }>;
+  addListener(
+    eventName: 'locationFix',
+    listenerFunc: (fix: NativeLocationFix) => void
+  ): Promise<PluginListenerHandle>;
+}
+
+const NativeLocation = registerPlugin<NativeLocationPlugin>('NativeLocation');
+
+// setOrderActive only adjusts a running tracker, so remember it for the next start
+let orderActive = false;
+
+// Starts the native foreground tracker; it keeps sampling and uploading in batches
+// while the WebView is in the background
+export const startNativeTracking = async (activeOrder = orderActive, uploadIntervalSec = 30) => {
+  if (!Capacitor.isNativePlatform()) return;
+  try {
+    await NativeLocation.start({ activeOrder, uploadIntervalSec });
+  } catch (error) {
+    console.warn('⚠️ Native location tracking unavailable:', error);
+  }
+};
+
+export const stopNativeTracking = async () => {
+  if (!Capacitor.isNativePlatform()) return;
+  await NativeLocation.stop();
+};
+
+export const setNativeOrderActive = async (active: boolean) => {
+  if (!Capacitor.isNativePlatform() || active === orderActive) return;
+  orderActive = active;
+  await NativeLocation.setOrderActive({ active });
+};
+
+export const getLastNativeFix = async (): Promise<NativeLocationFix | null> => {
+  if (!Capacitor.isNativePlatform()) return null;
+  try {
+    const { fix } = await NativeLocation.getLastFix();
+    return fix ?? null;
+  } catch {
+    return null;
+  }
+};
+
+// Streams fixes only while a map is on screen; call the returned function on unmount
+export const streamFixesWhileVisible = (listener: (fix: NativeLocationFix) => void): (() => void) => {
+  if (!Capacitor.isNativePlatform()) return () => {};
+
+  let handle: PluginListenerHandle | null = null;
+  let stopped = false;
+  NativeLocation.addListener('locationFix', listener).then((h) => {
+    if (stopped) {
+      h.remove();
+    } else {
+      handle = h;
+    }
+  });
+  NativeLocation.setMapVisible({ visible: true }).catch(() => {});
+
+  return () => {
+    stopped = true;
+    handle?.remove();
+    NativeLocation.setMapVisible({ visible: false }).catch(() => {});
+  };
+};
@@ -0,0 +1,76 @@
+import { Capacitor, registerPlugin } from '@capacitor/core';
+import type { PluginListenerHandle } from '@capacitor/core';
+
+export interface NativeOrderEvent {
+  orderId: number | string;
+  orderNumber?: string;
+  amount?: string;
+  autoOpened?: boolean;
+  forceOpened?: boolean;
+  fromBackground?: boolean;
+  fromService?: boolean;
+  timestamp: number;
+}
+
+export interface InboxOrder {
+  cursor: number;
+  orderId: string;
+  orderNumber: string;
+  customerName: string;
+  amount: string;
+  items: string;
+  address: string;
+  imageUrl: string;
+  messageId?: string;
+  receivedAt: number;
+  // The vendor has already seen its alert
+  seen?: boolean;
+}
+
+export interface InboxPage {
+  orders: InboxOrder[];
+  nextCursor: number;
+  hasMore: boolean;
+}
+
+export interface OrderEventsPlugin {
+  ready(): Promise<void>;
+  getInbox(options?: { cursor?: number; limit?: number }): Promise<InboxPage>;
+  ackInbox(options: { orderId: string }): Promise<{ removed: number }>;
+  setEscalationDeadlines(options: { fullScreenSec: number; overlaySec: number; launchSec: number }): Promise<void>;
+  addListener(
+    eventName: 'orderEvents',
+    listenerFunc: (batch: { events: NativeOrderEvent[] }) => void
+  ): Promise<PluginListenerHandle>;
+}
+
+const OrderEvents = registerPlugin<OrderEventsPlugin>('OrderEvents');
+
+// Reads every pending order the native side has persisted, oldest first
+export const loadPendingOrders = async (pageSize = 50): Promise<InboxOrder[]> => {
+  if (!Capacitor.isNativePlatform()) return [];
+
+  const orders: InboxOrder[] = [];
+  let cursor = 0;
+  let hasMore = true;
+  while (hasMore) {
+    const page = await OrderEvents.getInbox({ cursor, limit: pageSize });
+    orders.push(...page.orders);
+    cursor = page.nextCursor;
+    hasMore = page.hasMore;
+  }
+  return orders;
+};
+
+// Removes an order from the native inbox once it has been handled
+export const ackNativeOrder = async (orderId: number | string) => {
+  if (!Capacitor.isNativePlatform()) return;
+
+  try {
+    await OrderEvents.ackInbox({ orderId: String(orderId) });
+  } catch (error) {
+    console.warn('⚠️ Failed to ack native order inbox:', error);
+  }
+};
+
+export default OrderEvents;
@@ -1,5 +1,7 @@
 import { API_BASE } from '@/config/api';
 import { authService } from '@/services/authService';
+import { ackNativeOrder } from '@/services/orderEvents';
+import { setNativeOrderActive } from '@/services/nativeLocation';
 
 export interface OrderItem {
   product_id: number;
@@ -228,6 +230,9 @@ class OrderService {
     }
 
     const result = await response.json();
+    ackNativeOrder(orderId);
+    // Track at delivery precision until the order is completed
+    setNativeOrderActive(true).catch(() => {});
     
     // Notify customer of order acceptance
     this.notifyCustomerOfOrderUpdate(result.order, 'accepted');
@@ -256,6 +261,7 @@ class OrderService {
     }
 
     const result = await response.json();
+    ackNativeOrder(orderId);
     
     // Notify customer of order rejection
     this.notifyCustomerOfOrderUpdate(result.order, 'rejected');
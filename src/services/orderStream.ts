@@ -0,0 +1,52 @@
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+export interface OrderStreamStatus {
+  enabled: boolean;
+  running: boolean;
+  connected: boolean;
+  heartbeatMs: number;
+  reconnects: number;
+  arrivals: {
+    orders: number;
+    both: number;
+    socketOnly: number;
+    fcmOnly: number;
+    socketFirst: number;
+    fcmFirst: number;
+    // Positive when the socket delivered before FCM
+    socketLeadMs: { p50: number; p95: number; min: number; max: number };
+  };
+}
+
+export interface OrderStreamPlugin {
+  setEnabled(options: { enabled: boolean }): Promise<void>;
+  setShopOpen(options: { open: boolean }): Promise<void>;
+  getStatus(): Promise<OrderStreamStatus>;
+}
+
+const OrderStream = registerPlugin<OrderStreamPlugin>('OrderStream');
+
+// Vendor opt-in for the live order socket; off by default
+export const setOrderStreamEnabled = async (enabled: boolean) => {
+  if (!Capacitor.isNativePlatform()) return;
+  await OrderStream.setEnabled({ enabled });
+};
+
+// The socket only runs while the shop is open, so follow the online toggle
+export const setOrderStreamShopOpen = async (open: boolean) => {
+  if (!Capacitor.isNativePlatform()) return;
+  try {
+    await OrderStream.setShopOpen({ open });
+  } catch (error) {
+    console.warn('⚠️ Order stream unavailable:', error);
+  }
+};
+
+export const getOrderStreamStatus = async (): Promise<OrderStreamStatus | null> => {
+  if (!Capacitor.isNativePlatform()) return null;
+  try {
+    return await OrderStream.getStatus();
+  } catch {
+    return null;
+  }
+};
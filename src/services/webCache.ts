@@ -0,0 +1,48 @@
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+export interface WebCacheStats {
+  hits: number;
+  staleHits: number;
+  misses: number;
+  notModified: number;
+  updated: number;
+  errors: number;
+  diskBytes: number;
+  maxDiskBytes: number;
+}
+
+export interface WebCacheRule {
+  // Regular expression searched in the request URL; first matching rule wins
+  pattern: string;
+  maxAgeSec: number;
+  staleWhileRevalidateSec: number;
+}
+
+export interface WebCachePlugin {
+  getStats(): Promise<WebCacheStats>;
+  setRules(options: { rules: WebCacheRule[] }): Promise<void>;
+  resetRules(): Promise<void>;
+  clear(): Promise<void>;
+}
+
+const WebCache = registerPlugin<WebCachePlugin>('WebCache');
+
+// Hit/miss counters of the native cache that answers catalog API and image requests
+export const getWebCacheStats = async (): Promise<WebCacheStats | null> => {
+  if (!Capacitor.isNativePlatform()) return null;
+  try {
+    return await WebCache.getStats();
+  } catch {
+    return null;
+  }
+};
+
+export const setWebCacheRules = async (rules: WebCacheRule[]) => {
+  if (!Capacitor.isNativePlatform()) return;
+  await WebCache.setRules({ rules });
+};
+
+export const clearWebCache = async () => {
+  if (!Capacitor.isNativePlatform()) return;
+  await WebCache.clear();
+};
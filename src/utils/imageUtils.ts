@@ -1,3 +1,4 @@
+import { Capacitor } from '@capacitor/core';
 import { API_CONFIG } from '@/config/api';
 
 export const getImageUrl = (imageUrl: string | null | undefined): string => {
@@ -30,4 +31,50 @@ export const getImageUrl = (imageUrl: string | null | undefined): string => {
   const url = new URL(fullUrl);
   url.searchParams.set('ngrok-skip-browser-warning', 'true');
   return url.toString();
-};
\ No newline at end of file
+};
+
+// App-bundled paths (e.g. the placeholder) are used as-is; anything else goes
+// through getImageUrl
+const resolveImageUrl = (imageUrl: string | null | undefined): string => {
+  if (imageUrl && imageUrl.startsWith('/') && !imageUrl.startsWith('/media/')) {
+    return imageUrl;
+  }
+  return getImageUrl(imageUrl);
+};
+
+// On the native app, product photos can be served by the native image pipeline
+// at the size they are drawn instead of full resolution. width/height are CSS
+// pixels; pass a height to get a centre crop (object-cover) of that aspect.
+export const getSizedImageUrl = (
+  imageUrl: string | null | undefined,
+  width: number,
+  height?: number
+): string => {
+  const url = resolveImageUrl(imageUrl);
+  if (!Capacitor.isNativePlatform() || !url.startsWith('http')) {
+    return url;
+  }
+
+  const ratio = Math.min(window.devicePixelRatio || 1, 3);
+  const params = new URLSearchParams({ src: url, w: String(Math.round(width * ratio)) });
+  if (height) {
+    params.set('h', String(Math.round(height * ratio)));
+  }
+  return `/_img?${params.toString()}`;
+};
+
+// Falls back to the full-size original if the native pipeline can't serve it,
+// then to the placeholder
+export const handleSizedImageError = (
+  e: { currentTarget: HTMLImageElement },
+  originalUrl: string | null | undefined
+) => {
+  const img = e.currentTarget;
+  const original = resolveImageUrl(originalUrl);
+  if (img.src.includes('/_img?') && original.startsWith('http')) {
+    img.src = original;
+  } else {
+    img.src = '/placeholder-product.jpg';
+    img.onerror = null;
+  }
+};